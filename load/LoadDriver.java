@@ -0,0 +1,195 @@
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load driver for the blogger application.
+ * <p>
+ * Opens {@code concurrency} connections, each sending one request after
+ * another for {@code duration}, and prints one line of throughput and
+ * latency percentiles. Every connection is driven by its own virtual thread,
+ * so the driver itself can hold 10k connections open.
+ * <p>
+ * Run with {@code java load/LoadDriver.java <baseUrl> <concurrency> <durationSeconds> [label] [targets...]},
+ * for example {@code java load/LoadDriver.java http://localhost:8080 1000 30 virtual / /posts /posts/1}.
+ * Each connection cycles through the targets, which are:
+ * <ul>
+ * <li>a path to GET; {@code {post}} and {@code {user}} are replaced by a random post or user ID,</li>
+ * <li>{@code login}: POST /users/login as a random {@code user<n>},</li>
+ * <li>{@code create-post}: POST /posts/new, on a session the connection logs in once at start.</li>
+ * </ul>
+ * Ranges and credentials come from {@code -Dposts=N -Dusers=N -Dpassword=...}
+ * (defaults match the {@code perf} profile's corpus).
+ */
+public class LoadDriver {
+
+      private static final int POSTS = Integer.getInteger("posts", 1_000_000);
+      private static final int USERS = Integer.getInteger("users", 100_000);
+      private static final String PASSWORD = System.getProperty("password", "perf-password");
+
+      public static void main(String[] args) throws Exception {
+            if (args.length < 3) {
+                  System.err.println("usage: LoadDriver <baseUrl> <concurrency> <durationSeconds> [label] [targets...]");
+                  System.exit(2);
+            }
+            String baseUrl = args[0];
+            int concurrency = Integer.parseInt(args[1]);
+            Duration duration = Duration.ofSeconds(Long.parseLong(args[2]));
+            String label = args.length > 3 ? args[3] : "-";
+            List<String> targets = args.length > 4 ? List.of(Arrays.copyOfRange(args, 4, args.length)) : List.of("/", "/posts");
+
+            HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .build();
+
+            AtomicLong errors = new AtomicLong();
+            long[][] latencies = new long[concurrency][];
+            long deadline = System.nanoTime() + duration.toNanos();
+
+            long started = System.nanoTime();
+            try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+                  for (int w = 0; w < concurrency; w++) {
+                        int worker = w;
+                        workers.execute(() -> latencies[worker] = new Worker(client, baseUrl, worker).run(targets, deadline, errors));
+                  }
+            }
+            double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+            long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+            System.out.printf("%-12s concurrency=%-6d requests=%-9d errors=%-7d rps=%-9.0f p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms%n",
+                        label, concurrency, all.length, errors.get(), all.length / elapsedSeconds,
+                        percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), percentile(all, 1.0));
+      }
+
+      private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                  return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+      }
+
+      /**
+       * One connection's request loop, with its own login cookie for {@code create-post}.
+       */
+      private static class Worker {
+
+            private final HttpClient client;
+            private final String baseUrl;
+            private final int id;
+            private String loginCookie;
+
+            Worker(HttpClient client, String baseUrl, int id) {
+                  this.client = client;
+                  this.baseUrl = baseUrl;
+                  this.id = id;
+            }
+
+            /**
+             * Sends requests back to back until the deadline and returns the latency of each successful one.
+             */
+            long[] run(List<String> targets, long deadline, AtomicLong errors) {
+                  if (targets.contains("create-post")) {
+                        loginCookie = logIn(errors);
+                  }
+                  long[] samples = new long[1024];
+                  int count = 0;
+                  int next = id;
+                  while (System.nanoTime() < deadline) {
+                        String target = targets.get(next++ % targets.size());
+                        long sent = System.nanoTime();
+                        try {
+                              HttpResponse<Void> response = client.send(request(target), HttpResponse.BodyHandlers.discarding());
+                              if (!succeeded(target, response)) {
+                                    errors.incrementAndGet();
+                                    continue;
+                              }
+                        } catch (Exception e) {
+                              errors.incrementAndGet();
+                              continue;
+                        }
+                        if (count == samples.length) {
+                              samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - sent;
+                  }
+                  return Arrays.copyOf(samples, count);
+            }
+
+            private HttpRequest request(String target) {
+                  ThreadLocalRandom random = ThreadLocalRandom.current();
+                  switch (target) {
+                        case "login":
+                              return form("/users/login", "username", "user" + (random.nextInt(USERS) + 1), "password", PASSWORD);
+                        case "create-post":
+                              return form("/posts/new", "title", "Load test post " + random.nextInt(),
+                                          "content", "Written by the load suite. ".repeat(1 + random.nextInt(40)));
+                        default:
+                              String path = target.replace("{post}", Integer.toString(random.nextInt(POSTS) + 1))
+                                          .replace("{user}", Integer.toString(random.nextInt(USERS) + 1));
+                              return builder(path).GET().build();
+                  }
+            }
+
+            /**
+             * Form posts answer with a redirect; a redirect back to the login page means the action was refused.
+             */
+            private static boolean succeeded(String target, HttpResponse<Void> response) {
+                  if (target.equals("login") || target.equals("create-post")) {
+                        String location = response.headers().firstValue("Location").orElse("");
+                        return response.statusCode() == 302 && !location.contains("/login");
+                  }
+                  return response.statusCode() < 400;
+            }
+
+            private String logIn(AtomicLong errors) {
+                  try {
+                        HttpResponse<Void> response = client.send(
+                                    form("/users/login", "username", "user" + (id % USERS + 1), "password", PASSWORD),
+                                    HttpResponse.BodyHandlers.discarding());
+                        for (String cookie : response.headers().allValues("Set-Cookie")) {
+                              // A session ID or, with blogger.auth.mode=token, the signed login cookie.
+                              if (cookie.startsWith("JSESSIONID=") || cookie.startsWith("blogger_auth=")) {
+                                    return cookie.substring(0, cookie.indexOf(';') < 0 ? cookie.length() : cookie.indexOf(';'));
+                              }
+                        }
+                  } catch (Exception e) {
+                        // Counted below; create-post requests will then fail as well.
+                  }
+                  errors.incrementAndGet();
+                  return null;
+            }
+
+            private HttpRequest form(String path, String... fields) {
+                  List<String> pairs = new ArrayList<>();
+                  for (int i = 0; i < fields.length; i += 2) {
+                        pairs.add(fields[i] + "=" + URLEncoder.encode(fields[i + 1], StandardCharsets.UTF_8));
+                  }
+                  return builder(path)
+                              .header("Content-Type", "application/x-www-form-urlencoded")
+                              .POST(HttpRequest.BodyPublishers.ofString(String.join("&", pairs)))
+                              .build();
+            }
+
+            private HttpRequest.Builder builder(String path) {
+                  HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+                  if (loginCookie != null) {
+                        builder.header("Cookie", loginCookie);
+                  }
+                  return builder;
+            }
+      }
+}
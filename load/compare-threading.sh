@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# Compares platform and virtual request threads under 1k-10k concurrent connections.
+#
+# Starts the packaged application once per mode and drives it with LoadDriver
+# at each concurrency level. Extra arguments are passed to the application,
+# e.g. --spring.profiles.active=perf to use the embedded production-scale database.
+#
+#   ./mvnw -q package -DskipTests
+#   load/compare-threading.sh --spring.profiles.active=perf
+#
+# Holding 10k connections needs a raised open-file limit on both ends (ulimit -n 65536).
+# Settings: CONCURRENCY, DURATION (seconds per level), PORT, PATHS.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+CONCURRENCY=${CONCURRENCY:-"1000 2500 5000 10000"}
+DURATION=${DURATION:-30}
+PORT=${PORT:-8081}
+PATHS=${PATHS:-"/ /posts /posts/{post}"}
+JAR=$(ls target/blogger-*.jar | grep -v original | head -n 1)
+
+for mode in platform virtual; do
+      virtual=false
+      [ "$mode" = virtual ] && virtual=true
+
+      # tracePinnedThreads prints a stack whenever a virtual thread blocks while pinned to its carrier.
+      java -Djdk.tracePinnedThreads=short -jar "$JAR" \
+            --server.port="$PORT" \
+            --spring.threads.virtual.enabled="$virtual" \
+            --server.tomcat.max-connections=12000 \
+            --server.tomcat.accept-count=1000 \
+            --logging.level.root=WARN \
+            "$@" > "target/load-$mode.log" 2>&1 &
+      app=$!
+      trap 'kill $app 2>/dev/null || true' EXIT
+
+      until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+            kill -0 $app 2>/dev/null || { echo "application failed to start, see target/load-$mode.log"; exit 1; }
+            sleep 1
+      done
+
+      # Warm up the JIT and caches before measuring.
+      java load/LoadDriver.java "http://localhost:$PORT" 100 10 warmup $PATHS > /dev/null
+      for c in $CONCURRENCY; do
+            java load/LoadDriver.java "http://localhost:$PORT" "$c" "$DURATION" "$mode" $PATHS
+      done
+
+      kill $app
+      wait $app 2>/dev/null || true
+      pinned=$(grep -c "<== monitors" "target/load-$mode.log" || true)
+      echo "$mode pinned-thread events: $pinned"
+done
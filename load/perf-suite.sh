@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+# Runs the HTTP load suite against the application under the perf profile.
+#
+# Starts the packaged application with the embedded perf database (generating
+# the corpus on first start), then drives each scenario in turn and prints
+# throughput and p50/p90/p99 latency per scenario. Results are also written
+# to target/perf-results.txt. Extra arguments are passed to the application.
+#
+#   ./mvnw -q package -DskipTests
+#   load/perf-suite.sh [--blogger.perf.posts=100000 ...]
+#
+# Settings: CONCURRENCY, DURATION (seconds per scenario), PORT, POSTS, USERS.
+# POSTS and USERS must match the generated corpus.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+CONCURRENCY=${CONCURRENCY:-200}
+DURATION=${DURATION:-60}
+PORT=${PORT:-8082}
+POSTS=${POSTS:-1000000}
+USERS=${USERS:-100000}
+JAR=$(ls target/blogger-*.jar | grep -v original | head -n 1)
+RESULTS=target/perf-results.txt
+
+java -jar "$JAR" \
+      --spring.profiles.active=perf \
+      --server.port="$PORT" \
+      --blogger.perf.posts="$POSTS" \
+      --blogger.perf.users="$USERS" \
+      --logging.level.root=WARN \
+      "$@" > target/perf-app.log 2>&1 &
+app=$!
+trap 'kill $app 2>/dev/null || true' EXIT
+
+# The first start generates the corpus before the application reports healthy.
+echo "Waiting for the application (see target/perf-app.log)..."
+until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+      kill -0 $app 2>/dev/null || { echo "application failed to start, see target/perf-app.log"; exit 1; }
+      sleep 2
+done
+
+drive() {
+      java -Dposts="$POSTS" -Dusers="$USERS" load/LoadDriver.java "http://localhost:$PORT" "$CONCURRENCY" "$@"
+}
+
+drive 15 warmup / /posts "/posts/{post}" > /dev/null
+
+{
+      echo "# $(date -u +%Y-%m-%dT%H:%M:%SZ) concurrency=$CONCURRENCY duration=${DURATION}s posts=$POSTS users=$USERS"
+      drive "$DURATION" homepage /
+      drive "$DURATION" post-list /posts
+      drive "$DURATION" view-post "/posts/{post}"
+      drive "$DURATION" author-page "/users/user{user}"
+      drive "$DURATION" atom-feed /feed.atom
+      drive "$DURATION" sitemap /sitemaps/posts-0.xml
+      drive "$DURATION" login login
+      drive "$DURATION" create-post create-post
+      drive "$DURATION" mixed / /posts "/posts/{post}" "/posts/{post}" "/posts/{post}" login create-post
+} | tee -a "$RESULTS"
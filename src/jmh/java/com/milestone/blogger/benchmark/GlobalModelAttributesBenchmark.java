@@ -0,0 +1,58 @@
+package com.milestone.blogger.benchmark;
+
+import com.milestone.blogger.config.GlobalModelAttributes;
+import com.milestone.blogger.security.AuthenticatedUser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.ui.ExtendedModelMap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the {@link GlobalModelAttributes} advice, which runs
+ * before every controller method, for anonymous and logged-in visitors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalModelAttributesBenchmark {
+
+	private final GlobalModelAttributes advice = new GlobalModelAttributes();
+
+	private MockHttpServletRequest anonymous;
+	private MockHttpServletRequest loggedIn;
+
+	@Setup
+	public void setUp() {
+		anonymous = new MockHttpServletRequest();
+		loggedIn = new MockHttpServletRequest();
+		loggedIn.setAttribute(AuthenticatedUser.ATTRIBUTE, new AuthenticatedUser(1L, "user"));
+	}
+
+	@Benchmark
+	public ExtendedModelMap anonymous() {
+		ExtendedModelMap model = new ExtendedModelMap();
+		advice.addCommonAttributes(model, anonymous);
+		return model;
+	}
+
+	@Benchmark
+	public ExtendedModelMap loggedIn() {
+		ExtendedModelMap model = new ExtendedModelMap();
+		advice.addCommonAttributes(model, loggedIn);
+		return model;
+	}
+}
@@ -0,0 +1,123 @@
+package com.milestone.blogger.benchmark;
+
+import com.milestone.blogger.BloggerApplication;
+import com.milestone.blogger.model.Post;
+import com.milestone.blogger.model.PostStats;
+import com.milestone.blogger.model.PostSummary;
+import com.milestone.blogger.repository.PostRepository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PostRepository} queries behind the list and post pages, against an
+ * embedded H2 database (MySQL mode) seeded with N posts.
+ * <p>
+ * Runs the real application context with the {@code test} profile, so the
+ * second-level cache is active for {@link #findById()}, as in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PostRepositoryBenchmark {
+
+	private static final int USERS = 100;
+	private static final int SEED_BATCH = 10_000;
+	private static final String CONTENT = "Lorem ipsum odor amet, consectetuer adipiscing elit. ".repeat(4);
+
+	@Param({ "10000", "100000", "1000000" })
+	int posts;
+
+	private ConfigurableApplicationContext context;
+	private PostRepository postRepository;
+	private Date middleUpdatedAt;
+	private int middleId;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(BloggerApplication.class)
+				.profiles("test")
+				.properties("server.port=0",
+						"spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+						"blogger.search.snapshot-path=target/jmh-search-index.bin",
+						"logging.level.root=WARN")
+				.run();
+		postRepository = context.getBean(PostRepository.class);
+		seed(context.getBean(JdbcTemplate.class));
+
+		List<PostSummary> page = postRepository.findLatest(Limit.of(posts / 2));
+		PostSummary middle = page.get(page.size() - 1);
+		middleUpdatedAt = middle.getUpdatedAt();
+		middleId = middle.getId();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<PostSummary> findLatest() {
+		return postRepository.findLatest(Limit.of(20));
+	}
+
+	@Benchmark
+	public List<PostSummary> findOlderThanMiddle() {
+		return postRepository.findOlderThan(middleUpdatedAt, middleId, Limit.of(20));
+	}
+
+	@Benchmark
+	public Optional<Post> findById() {
+		return postRepository.findById(ThreadLocalRandom.current().nextInt(posts) + 1);
+	}
+
+	@Benchmark
+	public PostStats findStats() {
+		return postRepository.findStats();
+	}
+
+	private void seed(JdbcTemplate jdbc) {
+		List<Object[]> users = new ArrayList<>(USERS);
+		for (int i = 1; i <= USERS; i++) {
+			users.add(new Object[] { i, "user" + i, "user" + i + "@example.com", "x", "user" });
+		}
+		jdbc.batchUpdate("insert into user (id, username, email, password_hash, role) values (?, ?, ?, ?, ?)", users);
+
+		long start = System.currentTimeMillis() - posts * 60_000L;
+		List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+		for (int id = 1; id <= posts; id++) {
+			Timestamp at = new Timestamp(start + id * 60_000L);
+			batch.add(new Object[] { id, id % USERS + 1, "Post " + id, CONTENT, CONTENT, at, at });
+			if (batch.size() == SEED_BATCH || id == posts) {
+				jdbc.batchUpdate("insert into post (id, user_id, title, content, excerpt, created_at, updated_at) "
+						+ "values (?, ?, ?, ?, ?, ?, ?)", batch);
+				batch.clear();
+			}
+		}
+	}
+}
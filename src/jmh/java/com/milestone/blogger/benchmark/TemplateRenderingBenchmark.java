@@ -0,0 +1,112 @@
+package com.milestone.blogger.benchmark;
+
+import com.milestone.blogger.markdown.MarkdownRenderer;
+import com.milestone.blogger.model.Post;
+import com.milestone.blogger.model.PostSummary;
+import com.milestone.blogger.model.User;
+import com.milestone.blogger.util.TextUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the {@code post-list} and {@code view-post} templates with the
+ * application's Thymeleaf setup (cached templates, SpringEL), excluding
+ * controllers and the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateRenderingBenchmark {
+
+	private static final String CONTENT = "Lorem ipsum odor amet, consectetuer adipiscing elit. ".repeat(40);
+
+	@Param({ "10", "20", "100" })
+	int postsPerPage;
+
+	private SpringTemplateEngine engine;
+	private WebContext listContext;
+	private WebContext postContext;
+
+	@Setup
+	public void setUp() {
+		ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+		resolver.setPrefix("templates/");
+		resolver.setSuffix(".html");
+		resolver.setTemplateMode(TemplateMode.HTML);
+		resolver.setCacheable(true);
+		engine = new SpringTemplateEngine();
+		engine.setTemplateResolver(resolver);
+		engine.setEnableSpringELCompiler(true);
+
+		User user = new User();
+		user.setId(1L);
+		user.setUsername("benchmark");
+
+		List<PostSummary> summaries = new ArrayList<>(postsPerPage);
+		for (int i = 0; i < postsPerPage; i++) {
+			summaries.add(new PostSummary(i + 1, "Post number " + i, TextUtils.excerpt(CONTENT), new Date(), "benchmark"));
+		}
+		listContext = newContext();
+		listContext.setVariable("loggedIn", false);
+		listContext.setVariable("posts", summaries);
+		listContext.setVariable("nextCursor", "MTczNTAwMDAwMDAwMDoxMA");
+		listContext.setVariable("prevCursor", null);
+		listContext.setVariable("pageUrl", "/posts");
+
+		Post post = new Post();
+		post.setId(1);
+		post.setUser(user);
+		post.setTitle("A single post");
+		post.setContent(CONTENT);
+		post.setCreatedAt(new Date());
+		post.setUpdatedAt(new Date());
+		postContext = newContext();
+		postContext.setVariable("loggedIn", true);
+		postContext.setVariable("userId", 1L);
+		postContext.setVariable("post", post);
+		postContext.setVariable("contentHtml", new MarkdownRenderer(16).render(CONTENT).getHtml());
+	}
+
+	@Benchmark
+	public String postList() {
+		return engine.process("post-list", listContext);
+	}
+
+	@Benchmark
+	public String viewPost() {
+		return engine.process("view-post", postContext);
+	}
+
+	private static WebContext newContext() {
+		MockServletContext servletContext = new MockServletContext();
+		JakartaServletWebApplication application = JakartaServletWebApplication.buildApplication(servletContext);
+		return new WebContext(application.buildExchange(new MockHttpServletRequest(servletContext),
+				new MockHttpServletResponse()));
+	}
+}
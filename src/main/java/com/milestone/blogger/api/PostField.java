@@ -0,0 +1,66 @@
+package com.milestone.blogger.api;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The fields of a post in the JSON API, selectable with {@code fields=}.
+ */
+public enum PostField {
+
+      ID("id"),
+      TITLE("title"),
+      EXCERPT("excerpt"),
+      CONTENT("content"),
+      AUTHOR("author"),
+      CREATED_AT("createdAt"),
+      UPDATED_AT("updatedAt");
+
+      private final String jsonName;
+
+      PostField(String jsonName) {
+            this.jsonName = jsonName;
+      }
+
+      public String getJsonName() {
+            return jsonName;
+      }
+
+      /**
+       * Parses a {@code fields} parameter.
+       *
+       * @param fields comma-separated field names; null or blank selects every field.
+       * @return the selected fields.
+       * @throws IllegalArgumentException if a name isn't a field.
+       */
+      public static Set<PostField> parse(String fields) {
+            if (fields == null || fields.isBlank()) {
+                  return EnumSet.allOf(PostField.class);
+            }
+            Set<PostField> selected = EnumSet.noneOf(PostField.class);
+            for (String name : fields.split(",")) {
+                  selected.add(byJsonName(name.trim()));
+            }
+            return selected;
+      }
+
+      /**
+       * Checks whether a selection needs columns a list page doesn't load,
+       * so the full posts must be read as well.
+       *
+       * @param fields the selected fields.
+       * @return true if the content or creation time is selected.
+       */
+      public static boolean needsFullPost(Set<PostField> fields) {
+            return fields.contains(CONTENT) || fields.contains(CREATED_AT);
+      }
+
+      private static PostField byJsonName(String name) {
+            for (PostField field : values()) {
+                  if (field.jsonName.equals(name)) {
+                        return field;
+                  }
+            }
+            throw new IllegalArgumentException("Unknown field: " + name);
+      }
+}
@@ -0,0 +1,95 @@
+package com.milestone.blogger.api;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes posts as JSON token by token straight to the response, writing only
+ * the selected fields. No intermediate tree or string of the whole body is
+ * built, so a page of long posts costs no more memory than the posts
+ * themselves.
+ */
+@Component
+public class PostJsonWriter {
+
+      private final JsonFactory jsonFactory;
+
+      public PostJsonWriter(ObjectMapper objectMapper) {
+            this.jsonFactory = objectMapper.getFactory();
+      }
+
+      /**
+       * Writes a single post as a JSON object.
+       *
+       * @param out    where to write; not closed.
+       * @param post   the post.
+       * @param fields the fields to include.
+       * @throws IOException if writing fails.
+       */
+      public void writePost(OutputStream out, PostView post, Set<PostField> fields) throws IOException {
+            try (JsonGenerator json = generator(out)) {
+                  writeFields(json, post, fields);
+            }
+      }
+
+      /**
+       * Writes a page of posts as {@code {"items": [...], "nextCursor": ..., "previousCursor": ...}}.
+       *
+       * @param out            where to write; not closed.
+       * @param posts          the posts on the page.
+       * @param fields         the fields to include for each post.
+       * @param nextCursor     the cursor for older posts, or null on the last page.
+       * @param previousCursor the cursor for newer posts, or null on the first page.
+       * @throws IOException if writing fails.
+       */
+      public void writePage(OutputStream out, List<PostView> posts, Set<PostField> fields, String nextCursor,
+                  String previousCursor) throws IOException {
+            try (JsonGenerator json = generator(out)) {
+                  json.writeStartObject();
+                  json.writeArrayFieldStart("items");
+                  for (PostView post : posts) {
+                        writeFields(json, post, fields);
+                  }
+                  json.writeEndArray();
+                  json.writeStringField("nextCursor", nextCursor);
+                  json.writeStringField("previousCursor", previousCursor);
+                  json.writeEndObject();
+            }
+      }
+
+      private JsonGenerator generator(OutputStream out) throws IOException {
+            JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            return json;
+      }
+
+      private static void writeFields(JsonGenerator json, PostView post, Set<PostField> fields) throws IOException {
+            json.writeStartObject();
+            for (PostField field : fields) {
+                  switch (field) {
+                        case ID -> json.writeNumberField(field.getJsonName(), post.getId());
+                        case TITLE -> json.writeStringField(field.getJsonName(), post.getTitle());
+                        case EXCERPT -> json.writeStringField(field.getJsonName(), post.getExcerpt());
+                        case CONTENT -> json.writeStringField(field.getJsonName(), post.getContent());
+                        case AUTHOR -> json.writeStringField(field.getJsonName(), post.getAuthor());
+                        case CREATED_AT -> json.writeStringField(field.getJsonName(), instant(post.getCreatedAt()));
+                        case UPDATED_AT -> json.writeStringField(field.getJsonName(), instant(post.getUpdatedAt()));
+                  }
+            }
+            json.writeEndObject();
+      }
+
+      private static String instant(Date date) {
+            return date == null ? null : date.toInstant().toString();
+      }
+}
@@ -0,0 +1,81 @@
+package com.milestone.blogger.api;
+
+import com.milestone.blogger.model.Post;
+import com.milestone.blogger.model.PostRecord;
+import com.milestone.blogger.model.PostSummary;
+
+import java.util.Date;
+
+/**
+ * A post as the JSON API shows it, assembled from whichever of the entity,
+ * the list summary and the full record was loaded. Fields that weren't
+ * loaded are null and must not be selected.
+ */
+public class PostView {
+
+      private final int id;
+      private final String title;
+      private final String excerpt;
+      private final String content;
+      private final String author;
+      private final Date createdAt;
+      private final Date updatedAt;
+
+      private PostView(int id, String title, String excerpt, String content, String author, Date createdAt, Date updatedAt) {
+            this.id = id;
+            this.title = title;
+            this.excerpt = excerpt;
+            this.content = content;
+            this.author = author;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+      }
+
+      /**
+       * @param post a post whose author can be loaded.
+       * @return every field of the post.
+       */
+      public static PostView of(Post post) {
+            return new PostView(post.getId(), post.getTitle(), post.getExcerpt(), post.getContent(),
+                        post.getUser().getUsername(), post.getCreatedAt(), post.getUpdatedAt());
+      }
+
+      /**
+       * @param summary a list page row.
+       * @param record  the same post's full record, or null if only summary fields are selected.
+       * @return the fields available from both.
+       */
+      public static PostView of(PostSummary summary, PostRecord record) {
+            return new PostView(summary.getId(), summary.getTitle(), summary.getExcerpt(),
+                        record == null ? null : record.getContent(), summary.getUsername(),
+                        record == null ? null : record.getCreatedAt(), summary.getUpdatedAt());
+      }
+
+      public int getId() {
+            return id;
+      }
+
+      public String getTitle() {
+            return title;
+      }
+
+      public String getExcerpt() {
+            return excerpt;
+      }
+
+      public String getContent() {
+            return content;
+      }
+
+      public String getAuthor() {
+            return author;
+      }
+
+      public Date getCreatedAt() {
+            return createdAt;
+      }
+
+      public Date getUpdatedAt() {
+            return updatedAt;
+      }
+}
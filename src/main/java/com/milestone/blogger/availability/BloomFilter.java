@@ -0,0 +1,110 @@
+package com.milestone.blogger.availability;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A Bloom filter over strings: {@link #mightContain} never answers false for
+ * a string that was {@link #put}, and answers true for one that wasn't with
+ * roughly the configured probability while no more than the expected number
+ * of strings have been added.
+ * <p>
+ * Sized from the expected insertions {@code n} and false-positive rate
+ * {@code p} as {@code m = -n ln p / (ln 2)^2} bits and {@code k = (m / n) ln 2}
+ * hash functions, derived from two 64-bit hashes of the string as
+ * {@code h1 + i * h2} (the second hash odd, so the probes don't repeat early).
+ * Bits are set with compare-and-set, so puts and lookups may run concurrently.
+ */
+public class BloomFilter {
+
+      private final AtomicLongArray words;
+      private final long numBits;
+      private final int numHashes;
+      private final long capacity;
+      private final LongAdder insertions = new LongAdder();
+
+      /**
+       * @param expectedInsertions how many strings will be added before the filter is replaced.
+       * @param falsePositiveRate  the acceptable chance of a false positive at that size.
+       */
+      public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+                  throw new IllegalArgumentException("expected insertions must be positive and the rate in (0, 1)");
+            }
+            long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+            this.words = new AtomicLongArray(wordCount);
+            this.numBits = wordCount * 64L;
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+            this.capacity = expectedInsertions;
+      }
+
+      /**
+       * Adds a string.
+       *
+       * @param value the string.
+       */
+      public void put(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < numHashes; i++) {
+                  long bit = Math.floorMod(hash1 + i * hash2, numBits);
+                  int word = (int) (bit >>> 6);
+                  long mask = 1L << bit;
+                  long current = words.get(word);
+                  while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                        current = words.get(word);
+                  }
+            }
+            insertions.increment();
+      }
+
+      /**
+       * @param value the string.
+       * @return false if the string was never added; true if it probably was.
+       */
+      public boolean mightContain(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < numHashes; i++) {
+                  long bit = Math.floorMod(hash1 + i * hash2, numBits);
+                  if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                        return false;
+                  }
+            }
+            return true;
+      }
+
+      /**
+       * @return the number of insertions the filter was sized for.
+       */
+      public long getCapacity() {
+            return capacity;
+      }
+
+      /**
+       * @return the number of strings added so far.
+       */
+      public long getInsertions() {
+            return insertions.sum();
+      }
+
+      // FNV-1a over the UTF-16 code units, then a finalizer to spread the bits.
+      private static long hash(String value) {
+            long hash = 0xCBF29CE484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                  hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+            }
+            return mix(hash);
+      }
+
+      // MurmurHash3's 64-bit finalizer.
+      private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            hash *= 0xC4CEB9FE1A85EC53L;
+            hash ^= hash >>> 33;
+            return hash;
+      }
+}
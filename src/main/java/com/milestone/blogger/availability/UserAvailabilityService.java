@@ -0,0 +1,227 @@
+package com.milestone.blogger.availability;
+
+import com.milestone.blogger.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Answers whether a username and email are still free to register.
+ * <p>
+ * A {@link BloomFilter} over every existing username and email is built in
+ * the background on startup by streaming the user table, and each
+ * registration is added to it. A name the filter has never seen is free
+ * without asking the database; only probable matches are checked, with one
+ * query for both fields. Until the first build finishes every check goes to
+ * the database.
+ * <p>
+ * Keys are trimmed and lower-cased, as MySQL's case-insensitive collation
+ * compares them, so the filter never misses a name the unique keys would
+ * reject. Collation rules the filter can't mirror (accents, for one) are
+ * caught by the unique keys when the user is saved.
+ */
+@Service
+public class UserAvailabilityService {
+
+      private static final Logger logger = LoggerFactory.getLogger(UserAvailabilityService.class);
+
+      private final UserRepository userRepository;
+      private final TransactionTemplate primaryTransaction;
+      private final long expectedUsers;
+      private final double falsePositiveRate;
+      private final Counter answeredByFilter;
+      private final Counter answeredByDatabase;
+      private final ExecutorService builder = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "availability-filter");
+            thread.setDaemon(true);
+            return thread;
+      });
+
+      // Null until the first build finishes.
+      private volatile BloomFilter filter;
+      // The filter being built, which registrations are also added to.
+      private volatile BloomFilter building;
+
+      public UserAvailabilityService(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                  MeterRegistry registry,
+                  @Value("${blogger.availability.expected-users:10000}") long expectedUsers,
+                  @Value("${blogger.availability.false-positive-rate:0.01}") double falsePositiveRate) {
+            this.userRepository = userRepository;
+            // Not read-only, so it runs on the primary: a lagging replica could miss
+            // recent registrations, and the filter must never miss a taken name.
+            this.primaryTransaction = new TransactionTemplate(transactionManager);
+            this.expectedUsers = expectedUsers;
+            this.falsePositiveRate = falsePositiveRate;
+            this.answeredByFilter = Counter.builder("blogger.availability.checks").tag("answered-by", "filter")
+                        .description("Availability checks answered without a query")
+                        .register(registry);
+            this.answeredByDatabase = Counter.builder("blogger.availability.checks").tag("answered-by", "database")
+                        .description("Availability checks that queried the user table")
+                        .register(registry);
+      }
+
+      /**
+       * Builds the filter in the background once the application is up.
+       */
+      @EventListener(ApplicationReadyEvent.class)
+      public void initialize() {
+            builder.execute(this::rebuildQuietly);
+      }
+
+      /**
+       * Checks whether a username and an email are free.
+       *
+       * @param username the username, or null to check only the email.
+       * @param email    the email, or null to check only the username.
+       * @return which of the two are free.
+       */
+      public Availability check(String username, String email) {
+            BloomFilter current = filter;
+            boolean checkUsername = username != null
+                        && (current == null || current.mightContain(usernameKey(username)));
+            boolean checkEmail = email != null && (current == null || current.mightContain(emailKey(email)));
+            if (!checkUsername && !checkEmail) {
+                  answeredByFilter.increment();
+                  return new Availability(true, true);
+            }
+            answeredByDatabase.increment();
+            return checkDatabase(checkUsername ? username : null, checkEmail ? email : null);
+      }
+
+      /**
+       * Checks a username and an email against the user table, skipping the filter.
+       *
+       * @param username the username, or null to skip it.
+       * @param email    the email, or null to skip it.
+       * @return which of the two are free.
+       */
+      public Availability checkDatabase(String username, String email) {
+            boolean usernameTaken = false;
+            boolean emailTaken = false;
+            for (Object[] match : userRepository.findMatches(username, email)) {
+                  usernameTaken |= Boolean.TRUE.equals(match[0]);
+                  emailTaken |= Boolean.TRUE.equals(match[1]);
+            }
+            return new Availability(!usernameTaken, !emailTaken);
+      }
+
+      /**
+       * Adds a newly registered user. Call after the user is committed.
+       *
+       * @param username the new user's username.
+       * @param email    the new user's email.
+       */
+      public void recordRegistered(String username, String email) {
+            BloomFilter current = filter;
+            if (current != null) {
+                  current.put(usernameKey(username));
+                  current.put(emailKey(email));
+            }
+            BloomFilter next = building;
+            if (next != null) {
+                  next.put(usernameKey(username));
+                  next.put(emailKey(email));
+            } else if (current != null && current.getInsertions() > current.getCapacity()) {
+                  // Past its size the false-positive rate climbs; replace it with a bigger one.
+                  builder.execute(this::rebuildQuietly);
+            }
+      }
+
+      /**
+       * Rebuilds the filter from the user table. Checks keep using the old
+       * filter until the new one is complete.
+       */
+      public void rebuild() {
+            long started = System.nanoTime();
+            // Counted in a transaction of its own: the streams' transaction must read nothing before building is set.
+            long users = primaryTransaction.execute(status -> userRepository.count());
+            // Two keys per user, with room for the user count to double before the next rebuild.
+            BloomFilter next = new BloomFilter(4 * Math.max(expectedUsers, users), falsePositiveRate);
+            // Users registered from here on are added by recordRegistered; earlier ones are in the streams.
+            building = next;
+            try {
+                  primaryTransaction.executeWithoutResult(status -> {
+                        try (Stream<String> usernames = userRepository.streamUsernames()) {
+                              usernames.forEach(username -> next.put(usernameKey(username)));
+                        }
+                        try (Stream<String> emails = userRepository.streamEmails()) {
+                              emails.forEach(email -> next.put(emailKey(email)));
+                        }
+                  });
+                  filter = next;
+            } finally {
+                  building = null;
+            }
+            logger.info("rebuild(): Added {} usernames and emails to the availability filter in {} ms.",
+                        next.getInsertions(), (System.nanoTime() - started) / 1_000_000);
+      }
+
+      /**
+       * @return true once the filter has been built.
+       */
+      public boolean isReady() {
+            return filter != null;
+      }
+
+      @PreDestroy
+      public void shutdown() {
+            builder.shutdownNow();
+      }
+
+      private void rebuildQuietly() {
+            if (building != null) {
+                  return;
+            }
+            try {
+                  rebuild();
+            } catch (RuntimeException e) {
+                  logger.error("rebuildQuietly(): Unable to build the availability filter.", e);
+            }
+      }
+
+      private static String usernameKey(String username) {
+            return "u:" + username.strip().toLowerCase(Locale.ROOT);
+      }
+
+      private static String emailKey(String email) {
+            return "e:" + email.strip().toLowerCase(Locale.ROOT);
+      }
+
+      /**
+       * Whether a username and an email are free to register.
+       */
+      public static class Availability {
+
+            private final boolean usernameAvailable;
+            private final boolean emailAvailable;
+
+            public Availability(boolean usernameAvailable, boolean emailAvailable) {
+                  this.usernameAvailable = usernameAvailable;
+                  this.emailAvailable = emailAvailable;
+            }
+
+            public boolean isUsernameAvailable() {
+                  return usernameAvailable;
+            }
+
+            public boolean isEmailAvailable() {
+                  return emailAvailable;
+            }
+      }
+}
@@ -0,0 +1,102 @@
+package com.milestone.blogger.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Actuator endpoint reporting hit, miss and put counts for each Hibernate
+ * second-level cache region, at {@code /actuator/cacheregions}.
+ * <p>
+ * Counts come from Hibernate's statistics and are cumulative since startup.
+ */
+@Component
+@Endpoint(id = "cacheregions")
+public class CacheRegionsEndpoint {
+
+      private final Statistics statistics;
+
+      public CacheRegionsEndpoint(EntityManagerFactory entityManagerFactory) {
+            this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+      }
+
+      /**
+       * @return the statistics of every region, by region name.
+       */
+      @ReadOperation
+      public Map<String, RegionStatistics> regions() {
+            Map<String, RegionStatistics> regions = new TreeMap<>();
+            for (String name : statistics.getSecondLevelCacheRegionNames()) {
+                  regions.put(name, RegionStatistics.of(statistics.getCacheRegionStatistics(name)));
+            }
+            return regions;
+      }
+
+      /**
+       * @param name the region name, such as {@code posts}.
+       * @return the statistics of the region, or null (404) if there is no such region.
+       */
+      @ReadOperation
+      public RegionStatistics region(@Selector String name) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            return region == null ? null : RegionStatistics.of(region);
+      }
+
+      /**
+       * Counters for one region.
+       */
+      public static class RegionStatistics {
+
+            private final long hits;
+            private final long misses;
+            private final long puts;
+
+            RegionStatistics(long hits, long misses, long puts) {
+                  this.hits = hits;
+                  this.misses = misses;
+                  this.puts = puts;
+            }
+
+            static RegionStatistics of(CacheRegionStatistics region) {
+                  return new RegionStatistics(region.getHitCount(), region.getMissCount(), region.getPutCount());
+            }
+
+            /**
+             * @return lookups served from the cache.
+             */
+            public long getHits() {
+                  return hits;
+            }
+
+            /**
+             * @return lookups that went to the database.
+             */
+            public long getMisses() {
+                  return misses;
+            }
+
+            /**
+             * @return entries stored in the region.
+             */
+            public long getPuts() {
+                  return puts;
+            }
+
+            /**
+             * @return hits over lookups, or 0 if there were none.
+             */
+            public double getHitRatio() {
+                  long lookups = hits + misses;
+                  return lookups == 0 ? 0 : (double) hits / lookups;
+            }
+      }
+}
@@ -0,0 +1,44 @@
+package com.milestone.blogger.cache;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A rendered HTML response held by the {@link RenderedPageCache}.
+ */
+public class CachedPage {
+
+      private final byte[] body;
+      private final String contentType;
+      private final Map<String, String> headers;
+      private final Set<String> tags;
+
+      public CachedPage(byte[] body, String contentType, Map<String, String> headers, Set<String> tags) {
+            this.body = body;
+            this.contentType = contentType;
+            this.headers = headers;
+            this.tags = tags;
+      }
+
+      public byte[] getBody() {
+            return body;
+      }
+
+      public String getContentType() {
+            return contentType;
+      }
+
+      /**
+       * @return the response headers to replay on a hit, such as ETag and Cache-Control.
+       */
+      public Map<String, String> getHeaders() {
+            return headers;
+      }
+
+      /**
+       * @return the invalidation tags of the data this page was rendered from.
+       */
+      public Set<String> getTags() {
+            return tags;
+      }
+}
@@ -0,0 +1,152 @@
+package com.milestone.blogger.cache;
+
+import com.milestone.blogger.markdown.MarkdownRenderer;
+import com.milestone.blogger.model.PostStats;
+import com.milestone.blogger.model.User;
+import com.milestone.blogger.repository.PostRepository;
+import com.milestone.blogger.util.SessionUtils;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * HTTP conditional GET support for post pages and feeds.
+ * <p>
+ * Validators come from cheap queries (a single post's updatedAt, or the post
+ * count and newest updatedAt for a feed), so a matching
+ * {@code If-None-Match}/{@code If-Modified-Since} is answered with 304 before
+ * any entity is loaded or any template rendered.
+ * <p>
+ * Anonymous responses are marked public with a shared-cache lifetime so a CDN
+ * can absorb them; logged-in responses are private and always revalidated.
+ */
+@Service
+public class ConditionalGetService {
+
+      private final PostRepository postRepository;
+      private final Duration sharedMaxAge;
+
+      public ConditionalGetService(PostRepository postRepository,
+                  @Value("${blogger.http-cache.shared-max-age:60s}") Duration sharedMaxAge) {
+            this.postRepository = postRepository;
+            this.sharedMaxAge = sharedMaxAge;
+      }
+
+      /**
+       * Sets validators for a single post page and checks them against the request.
+       *
+       * @param webRequest the current request and response.
+       * @param postId     the ID of the post.
+       * @return true if a 304 was sent and the handler should return without rendering;
+       *         false if the page must be rendered, including when the post doesn't exist.
+       */
+      public boolean checkPostNotModified(ServletWebRequest webRequest, int postId) {
+            Optional<Date> updatedAt = postRepository.findUpdatedAtById(postId);
+            if (updatedAt.isEmpty()) {
+                  return false;
+            }
+            String viewer = SessionUtils.viewerKey(webRequest.getRequest());
+            // The renderer version changes the HTML of unedited posts.
+            String etag = "\"post-" + postId + "-" + updatedAt.get().getTime() + "-r" + MarkdownRenderer.RENDERER_VERSION
+                        + "-" + viewer + "\"";
+            applyCacheControl(webRequest, viewer);
+            return webRequest.checkNotModified(etag, updatedAt.get().getTime());
+      }
+
+      /**
+       * Sets a weak validator for a feed page and checks it against the request.
+       * The validator covers the whole post table, so any create, edit or delete changes it.
+       *
+       * @param webRequest the current request and response.
+       * @return true if a 304 was sent and the handler should return without rendering.
+       */
+      public boolean checkFeedNotModified(ServletWebRequest webRequest) {
+            return checkFeedNotModified(webRequest, "posts");
+      }
+
+      /**
+       * As {@link #checkFeedNotModified(ServletWebRequest)}, for the homepage,
+       * whose validator also covers the "most read" list it shows.
+       *
+       * @param webRequest         the current request and response.
+       * @param mostReadGeneration the current {@code MostReadRanking} generation.
+       * @return true if a 304 was sent and the handler should return without rendering.
+       */
+      public boolean checkHomepageNotModified(ServletWebRequest webRequest, long mostReadGeneration) {
+            return checkFeedNotModified(webRequest, "home-" + mostReadGeneration);
+      }
+
+      private boolean checkFeedNotModified(ServletWebRequest webRequest, String page) {
+            PostStats stats = postRepository.findStats();
+            long lastUpdated = stats.getLastUpdated() == null ? 0 : stats.getLastUpdated().getTime();
+            String viewer = SessionUtils.viewerKey(webRequest.getRequest());
+            String etag = "W/\"" + page + "-" + stats.getCount() + "-" + lastUpdated + "-r" + MarkdownRenderer.RENDERER_VERSION
+                        + "-" + viewer + "\"";
+            applyCacheControl(webRequest, viewer);
+            return webRequest.checkNotModified(etag);
+      }
+
+      /**
+       * Sets validators for a site-wide syndication document (the Atom feed or a
+       * sitemap) and checks them against the request. These documents look the
+       * same to every visitor, so they are always publicly cacheable.
+       *
+       * @param webRequest the current request and response.
+       * @param document   names the document, so different documents never share an ETag.
+       * @param stats      the current {@link PostRepository#findStats()}, which the caller also needs.
+       * @return true if a 304 was sent and the handler should return without writing.
+       */
+      public boolean checkSyndicationNotModified(ServletWebRequest webRequest, String document, PostStats stats) {
+            long lastUpdated = stats.getLastUpdated() == null ? 0 : stats.getLastUpdated().getTime();
+            String etag = "W/\"" + document + "-" + stats.getCount() + "-" + lastUpdated + "\"";
+            applyPublicCacheControl(webRequest);
+            return webRequest.checkNotModified(etag, lastUpdated);
+      }
+
+      /**
+       * Sets validators for an author's Atom feed and checks them against the request.
+       * The author's post count and last-active time change with every post
+       * they create, edit or delete, and come from the second-level cache, so
+       * a revalidation usually costs no query.
+       *
+       * @param webRequest the current request and response.
+       * @param author     the author.
+       * @return true if a 304 was sent and the handler should return without writing.
+       */
+      public boolean checkAuthorFeedNotModified(ServletWebRequest webRequest, User author) {
+            long lastActive = author.getLastActiveAt() == null ? 0 : author.getLastActiveAt().getTime();
+            String etag = "W/\"author-feed-" + author.getId() + "-" + author.getPostCount() + "-" + lastActive + "\"";
+            applyPublicCacheControl(webRequest);
+            return webRequest.checkNotModified(etag, lastActive);
+      }
+
+      private void applyPublicCacheControl(ServletWebRequest webRequest) {
+            HttpServletResponse response = webRequest.getResponse();
+            if (response != null) {
+                  response.setHeader(HttpHeaders.CACHE_CONTROL,
+                              CacheControl.maxAge(Duration.ZERO).sMaxAge(sharedMaxAge).cachePublic().getHeaderValue());
+            }
+      }
+
+      private void applyCacheControl(ServletWebRequest webRequest, String viewer) {
+            HttpServletResponse response = webRequest.getResponse();
+            if (response == null) {
+                  return;
+            }
+            CacheControl cacheControl = "anon".equals(viewer)
+                        ? CacheControl.maxAge(Duration.ZERO).sMaxAge(sharedMaxAge).cachePublic()
+                        : CacheControl.noCache().cachePrivate();
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+            // Login state travels in a cookie (session ID or signed token), so shared caches must key on it.
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.COOKIE);
+      }
+}
@@ -0,0 +1,130 @@
+package com.milestone.blogger.cache;
+
+import com.milestone.blogger.util.SessionUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Serves the homepage, post list and single-post pages from the
+ * {@link RenderedPageCache}.
+ * <p>
+ * Runs ahead of Spring MVC, so a hit writes the stored HTML without touching
+ * the controllers, the session or the database. A miss renders normally and
+ * stores successful HTML responses, tagged with the posts recorded by
+ * {@link PageCacheTaggingInterceptor}.
+ * <p>
+ * Pages differ per viewer (navigation links, edit buttons), so the key
+ * includes the logged-in user's ID or {@code anon}. The controllers' ETag and
+ * Cache-Control headers are stored with the page, so hits still answer
+ * conditional requests with 304.
+ */
+public class PageCacheFilter extends OncePerRequestFilter {
+
+      /**
+       * Request attribute holding the {@code Set<String>} of tags for the page being rendered.
+       */
+      public static final String TAGS_ATTRIBUTE = PageCacheFilter.class.getName() + ".tags";
+
+      // Response headers replayed on a hit, including the HTTP validators set by the controllers.
+      private static final List<String> STORED_HEADERS = List.of(HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED,
+                  HttpHeaders.CACHE_CONTROL, HttpHeaders.VARY, HttpHeaders.CONTENT_LANGUAGE);
+
+      private static final Pattern CACHEABLE_PATH = Pattern.compile("/|/posts|/posts/\\d+");
+
+      private final RenderedPageCache cache;
+
+      public PageCacheFilter(RenderedPageCache cache) {
+            this.cache = cache;
+      }
+
+      @Override
+      protected boolean shouldNotFilter(HttpServletRequest request) {
+            return !HttpMethod.GET.matches(request.getMethod())
+                        || !CACHEABLE_PATH.matcher(request.getRequestURI()).matches();
+      }
+
+      @Override
+      protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                  throws ServletException, IOException {
+            String key = cacheKey(request);
+            CachedPage page = cache.get(key);
+            if (page != null) {
+                  page.getHeaders().forEach(response::setHeader);
+                  response.setHeader("X-Page-Cache", "HIT");
+                  if (isNotModified(request, response, page)) {
+                        return;
+                  }
+                  response.setContentType(page.getContentType());
+                  response.setContentLength(page.getBody().length);
+                  response.getOutputStream().write(page.getBody());
+                  return;
+            }
+
+            long generation = cache.currentGeneration();
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            wrapper.setHeader("X-Page-Cache", "MISS");
+            try {
+                  chain.doFilter(request, wrapper);
+                  store(request, wrapper, key, generation);
+            } finally {
+                  wrapper.copyBodyToResponse();
+            }
+      }
+
+      private void store(HttpServletRequest request, ContentCachingResponseWrapper response, String key, long generation) {
+            String contentType = response.getContentType();
+            if (response.getStatus() != HttpServletResponse.SC_OK
+                        || contentType == null || !contentType.startsWith("text/html")) {
+                  return;
+            }
+            @SuppressWarnings("unchecked")
+            Set<String> tags = (Set<String>) request.getAttribute(TAGS_ATTRIBUTE);
+            if (tags == null) {
+                  // The handler didn't say what the page depends on, so it can't be invalidated safely.
+                  return;
+            }
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (String name : STORED_HEADERS) {
+                  String value = response.getHeader(name);
+                  if (value != null) {
+                        headers.put(name, value);
+                  }
+            }
+            cache.put(key, new CachedPage(response.getContentAsByteArray(), contentType, headers, Set.copyOf(tags)),
+                        generation);
+      }
+
+      /**
+       * Answers a conditional GET from the stored validators, sending 304 if the client's copy is current.
+       */
+      private static boolean isNotModified(HttpServletRequest request, HttpServletResponse response, CachedPage page) {
+            String etag = page.getHeaders().get(HttpHeaders.ETAG);
+            if (etag == null) {
+                  return false;
+            }
+            // The validator headers are already on the response; checkNotModified only needs to compare and set the status.
+            return new ServletWebRequest(request, response).checkNotModified(etag);
+      }
+
+      private static String cacheKey(HttpServletRequest request) {
+            String query = request.getQueryString();
+            String path = query == null ? request.getRequestURI() : request.getRequestURI() + "?" + query;
+            return path + "|" + SessionUtils.viewerKey(request);
+      }
+}
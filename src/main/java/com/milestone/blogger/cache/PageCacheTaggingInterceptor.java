@@ -0,0 +1,59 @@
+package com.milestone.blogger.cache;
+
+import com.milestone.blogger.model.Post;
+import com.milestone.blogger.model.PostSummary;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records which posts a page was rendered from, so the
+ * {@link PageCacheFilter} can tag the cached HTML for invalidation.
+ * <p>
+ * Reads the {@code posts} and {@code post} model attributes used by the
+ * homepage, post list and single-post views. A list page without a previous
+ * cursor shows the newest posts and is also tagged {@link RenderedPageCache#FEED_HEAD};
+ * one with a {@code mostRead} list is tagged {@link RenderedPageCache#MOST_READ}.
+ */
+public class PageCacheTaggingInterceptor implements HandlerInterceptor {
+
+      @Override
+      public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                  ModelAndView modelAndView) {
+            if (modelAndView == null || modelAndView.getViewName() == null
+                        || modelAndView.getViewName().startsWith("redirect:")) {
+                  return;
+            }
+
+            Map<String, Object> model = modelAndView.getModel();
+            Set<String> tags = new HashSet<>();
+            if (model.get("posts") instanceof List<?> posts) {
+                  for (Object post : posts) {
+                        if (post instanceof PostSummary summary) {
+                              tags.add(RenderedPageCache.postTag(summary.getId()));
+                        }
+                  }
+                  if (model.containsKey("pageUrl") && model.get("prevCursor") == null) {
+                        tags.add(RenderedPageCache.FEED_HEAD);
+                  }
+            }
+            if (model.containsKey("mostRead")) {
+                  tags.add(RenderedPageCache.MOST_READ);
+            }
+            if (model.get("post") instanceof Post post) {
+                  tags.add(RenderedPageCache.postTag(post.getId()));
+            }
+
+            if (!tags.isEmpty()) {
+                  request.setAttribute(PageCacheFilter.TAGS_ATTRIBUTE, tags);
+            }
+      }
+}
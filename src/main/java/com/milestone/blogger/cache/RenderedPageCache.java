@@ -0,0 +1,184 @@
+package com.milestone.blogger.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of rendered HTML pages.
+ * <p>
+ * Each page is stored with tags naming the data it was rendered from:
+ * {@code post:<id>} for every post it shows, {@link #FEED_HEAD} if it
+ * shows the newest end of the feed, and {@link #MOST_READ} if it shows the
+ * most read list. Post changes invalidate only the pages
+ * carrying the matching tags. Keyset-paginated pages further down the feed
+ * stay valid when new posts arrive because their cursors don't shift.
+ * <p>
+ * Eviction is Caffeine's W-TinyLFU, bounded by total body size. Hit, miss and
+ * eviction counts are published as {@code cache.*} metrics with
+ * {@code cache=renderedPages}.
+ */
+@Component
+public class RenderedPageCache implements MeterBinder {
+
+      /**
+       * Tag for pages showing the newest posts, which change whenever a post is created or edited.
+       */
+      public static final String FEED_HEAD = "feed-head";
+
+      /**
+       * Tag for pages showing the "most read this week" list.
+       */
+      public static final String MOST_READ = "most-read";
+
+      private static final Logger logger = LoggerFactory.getLogger(RenderedPageCache.class);
+
+      private final Cache<String, CachedPage> pages;
+      // Tag -> (key -> page). Holding the page lets removal unlink exactly the entry that left the cache.
+      private final ConcurrentHashMap<String, ConcurrentHashMap<String, CachedPage>> pagesByTag = new ConcurrentHashMap<>();
+      private final AtomicLong generation = new AtomicLong();
+
+      public RenderedPageCache(@Value("${blogger.page-cache.max-size-mb:64}") long maxSizeMb,
+                  @Value("${blogger.page-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+            this.pages = Caffeine.newBuilder()
+                        .maximumWeight(maxSizeMb * 1024 * 1024)
+                        .weigher((String key, CachedPage page) -> page.getBody().length + key.length())
+                        .expireAfterWrite(expireAfterWrite)
+                        .removalListener(this::onRemoval)
+                        .recordStats()
+                        .build();
+      }
+
+      /**
+       * Looks up a rendered page.
+       *
+       * @param key the page key.
+       * @return the cached page, or null on a miss.
+       */
+      public CachedPage get(String key) {
+            return pages.getIfPresent(key);
+      }
+
+      /**
+       * Returns a counter that changes on every invalidation.
+       * Read it before rendering and pass it to {@link #put} so a page rendered
+       * from data that changed mid-request is never stored.
+       *
+       * @return the current invalidation generation.
+       */
+      public long currentGeneration() {
+            return generation.get();
+      }
+
+      /**
+       * Stores a rendered page unless an invalidation happened since rendering started.
+       *
+       * @param key                the page key.
+       * @param page               the rendered page.
+       * @param renderedGeneration the value of {@link #currentGeneration()} before rendering.
+       */
+      public void put(String key, CachedPage page, long renderedGeneration) {
+            for (String tag : page.getTags()) {
+                  pagesByTag.computeIfAbsent(tag, t -> new ConcurrentHashMap<>()).put(key, page);
+            }
+            pages.put(key, page);
+            // Re-check after publishing: an invalidation racing with this put must not leave a stale page behind.
+            if (generation.get() != renderedGeneration) {
+                  pages.invalidate(key);
+            }
+      }
+
+      /**
+       * Invalidates the pages affected by a new post.
+       */
+      public void invalidatePostCreated() {
+            invalidateTag(FEED_HEAD);
+      }
+
+      /**
+       * Invalidates the pages affected by an edited post: its own page, every
+       * page listing it, and the head of the feed it moves to.
+       *
+       * @param postId the ID of the edited post.
+       */
+      public void invalidatePostUpdated(int postId) {
+            invalidateTag(postTag(postId));
+            invalidateTag(FEED_HEAD);
+      }
+
+      /**
+       * Invalidates the pages affected by a deleted post: its own page and every page listing it.
+       *
+       * @param postId the ID of the deleted post.
+       */
+      public void invalidatePostDeleted(int postId) {
+            invalidateTag(postTag(postId));
+      }
+
+      /**
+       * Invalidates the pages showing the "most read this week" list, after it changes.
+       */
+      public void invalidateMostRead() {
+            invalidateTag(MOST_READ);
+      }
+
+      /**
+       * Invalidates every page, after a bulk import whose posts may land
+       * anywhere in the feed.
+       */
+      public void invalidateAll() {
+            generation.incrementAndGet();
+            pages.invalidateAll();
+            logger.debug("invalidateAll(): Invalidated all pages.");
+      }
+
+      /**
+       * Builds the tag for pages that show a post.
+       *
+       * @param postId the post ID.
+       * @return the tag.
+       */
+      public static String postTag(int postId) {
+            return "post:" + postId;
+      }
+
+      @Override
+      public void bindTo(MeterRegistry registry) {
+            CaffeineCacheMetrics.monitor(registry, pages, "renderedPages");
+      }
+
+      private void invalidateTag(String tag) {
+            generation.incrementAndGet();
+            Map<String, CachedPage> tagged = pagesByTag.remove(tag);
+            if (tagged != null) {
+                  pages.invalidateAll(tagged.keySet());
+                  logger.debug("invalidateTag(): Invalidated {} pages tagged {}.", tagged.size(), tag);
+            }
+      }
+
+      private void onRemoval(String key, CachedPage page, RemovalCause cause) {
+            if (page == null) {
+                  return;
+            }
+            for (String tag : page.getTags()) {
+                  Map<String, CachedPage> tagged = pagesByTag.get(tag);
+                  if (tagged != null) {
+                        tagged.remove(key, page);
+                  }
+            }
+      }
+}
@@ -0,0 +1,133 @@
+package com.milestone.blogger.config;
+
+import com.milestone.blogger.datasource.ReadWriteRoutingDataSource;
+import com.milestone.blogger.datasource.ReadYourWritesFilter;
+import com.milestone.blogger.datasource.ReplicaPool;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to replica databases when
+ * {@code blogger.datasource.replica-urls} lists any, and everything else to
+ * the primary configured by {@code spring.datasource.*}.
+ * <p>
+ * Repository finders and {@code @Transactional(readOnly = true)} services
+ * run read-only, so page views, the API's reads, feeds and login lookups go
+ * to a replica; saves and anything inside a read-write transaction go to the
+ * primary. Without replica URLs none of this is created and Spring Boot's
+ * single pool is used as before.
+ */
+@Configuration
+@ConditionalOnExpression("!'${blogger.datasource.replica-urls:}'.isBlank()")
+public class DataSourceRoutingConfig {
+
+        /**
+         * Creates the primary pool from {@code spring.datasource.*} and {@code spring.datasource.hikari.*}.
+         *
+         * @param properties the datasource properties.
+         * @return the primary pool.
+         */
+        @Bean
+        @ConfigurationProperties("spring.datasource.hikari")
+        public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+                return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        }
+
+        /**
+         * Creates a pool per replica URL, sharing the primary's credentials and driver.
+         *
+         * @param primaryDataSource the pool to fall back to.
+         * @param properties        the datasource properties.
+         * @param meterRegistry     where the replica pools publish their metrics.
+         * @param replicaUrls       the replica JDBC URLs.
+         * @param poolSize          the most connections per replica.
+         * @param connectTimeout    how long a read waits for a replica connection before failing over.
+         * @param healthInterval    how often replicas are checked.
+         * @return the replica pools.
+         */
+        @Bean(destroyMethod = "close")
+        public ReplicaPool replicaPool(HikariDataSource primaryDataSource, DataSourceProperties properties,
+                        MeterRegistry meterRegistry,
+                        @Value("${blogger.datasource.replica-urls}") List<String> replicaUrls,
+                        @Value("${blogger.datasource.replica-pool-size:10}") int poolSize,
+                        @Value("${blogger.datasource.replica-connect-timeout:1s}") Duration connectTimeout,
+                        @Value("${blogger.datasource.replica-health-interval:5s}") Duration healthInterval) {
+                List<HikariDataSource> replicas = new ArrayList<>();
+                for (String url : replicaUrls) {
+                        HikariDataSource replica = new HikariDataSource();
+                        replica.setPoolName("replica-" + (replicas.size() + 1));
+                        replica.setJdbcUrl(url.trim());
+                        replica.setUsername(properties.determineUsername());
+                        replica.setPassword(properties.determinePassword());
+                        replica.setDriverClassName(properties.determineDriverClassName());
+                        replica.setMaximumPoolSize(poolSize);
+                        replica.setConnectionTimeout(connectTimeout.toMillis());
+                        replica.setReadOnly(true);
+                        // Start even if a replica is down; the health check picks it up later.
+                        replica.setInitializationFailTimeout(-1);
+                        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+                        replicas.add(replica);
+                }
+                return new ReplicaPool(primaryDataSource, replicas, healthInterval);
+        }
+
+        /**
+         * The data source the application uses. Its connections are taken lazily, at the first
+         * statement, by which point the transaction is known to be read-only or not.
+         *
+         * @param primaryDataSource the pool for writes.
+         * @param replicaPool       the pools for read-only transactions.
+         * @return the routing data source.
+         */
+        @Bean
+        @Primary
+        public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPool replicaPool) {
+                return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource, replicaPool));
+        }
+
+        /**
+         * Makes Hibernate return its connection after each transaction instead of holding it
+         * until the request ends (open-in-view), so a request's reads and writes each get a
+         * connection from the right database.
+         *
+         * @return the customizer setting the connection handling mode.
+         */
+        @Bean
+        public HibernatePropertiesCustomizer connectionPerTransactionCustomizer() {
+                return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+        }
+
+        /**
+         * Pins a client's reads to the primary for a window after it writes.
+         *
+         * @param window how long after a write its author reads from the primary;
+         *               should exceed the replicas' usual lag.
+         * @return the filter.
+         */
+        @Bean
+        public ReadYourWritesFilter readYourWritesFilter(
+                        @Value("${blogger.datasource.read-your-writes-window:5s}") Duration window) {
+                return new ReadYourWritesFilter(window);
+        }
+}
@@ -1,6 +1,8 @@
 package com.milestone.blogger.config;
 
-import jakarta.servlet.http.HttpSession;
+import com.milestone.blogger.util.SessionUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.ui.Model;
@@ -12,10 +14,18 @@ import org.springframework.ui.Model;
 @ControllerAdvice
 public class GlobalModelAttributes {
 
+    /**
+     * Adds the login flag to every model.
+     * Reads the login resolved by the login filter without creating a session,
+     * so anonymous visitors get no cookie and their pages stay cacheable by
+     * shared caches.
+     *
+     * @param model   the {@link Model} to pass attributes to the view.
+     * @param request the current request.
+     */
     @ModelAttribute
-    public void addCommonAttributes(Model model, HttpSession session) {
-        Boolean loggedIn = session.getAttribute("loggedIn") != null && 
-                           (Boolean) session.getAttribute("loggedIn");
+    public void addCommonAttributes(Model model, HttpServletRequest request) {
+        Boolean loggedIn = SessionUtils.isLoggedIn(request);
 
         model.addAttribute("loggedIn", loggedIn);
 
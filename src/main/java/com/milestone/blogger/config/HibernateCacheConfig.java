@@ -0,0 +1,48 @@
+package com.milestone.blogger.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+
+/**
+ * Supplies Hibernate's second-level cache with a Caffeine JCache manager
+ * configured from {@code hibernate-cache.conf}.
+ * <p>
+ * The manager is built here rather than from a {@code hibernate.javax.cache.uri}
+ * property because Hibernate resolves that property to a URL, and Caffeine
+ * can't read a URL pointing inside the packaged jar.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+        /**
+         * Creates the cache manager holding the entity and query cache regions.
+         *
+         * @return the cache manager, closed with the application context.
+         */
+        @Bean(destroyMethod = "close")
+        public CacheManager hibernateCacheManager() {
+                ClassLoader classLoader = HibernateCacheConfig.class.getClassLoader();
+                return Caching.getCachingProvider(CaffeineCachingProvider.class.getName(), classLoader)
+                                .getCacheManager(URI.create("classpath:hibernate-cache.conf"), classLoader);
+        }
+
+        /**
+         * Hands the cache manager to Hibernate's JCache region factory.
+         *
+         * @param hibernateCacheManager the cache manager.
+         * @return the customizer adding it to the Hibernate properties.
+         */
+        @Bean
+        public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+                return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+        }
+}
@@ -0,0 +1,39 @@
+package com.milestone.blogger.config;
+
+import com.milestone.blogger.metrics.QueryCounter;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires the per-request SQL statement counter into the application's DataSource.
+ */
+@Configuration
+public class MetricsConfig {
+
+        /**
+         * Wraps the {@code dataSource} bean in a proxy reporting to the {@link QueryCounter}.
+         * Only that bean: with replicas configured, the pools behind it are beans too, and
+         * wrapping them as well would count each statement twice.
+         *
+         * @return the post-processor wrapping it.
+         */
+        @Bean
+        static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+                QueryCounter counter = new QueryCounter();
+                return new BeanPostProcessor() {
+                        @Override
+                        public Object postProcessAfterInitialization(Object bean, String beanName) {
+                                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                                        return bean;
+                                }
+                                return ProxyDataSourceBuilder.create(dataSource).name(beanName).listener(counter).build();
+                        }
+                };
+        }
+}
@@ -1,14 +1,29 @@
 package com.milestone.blogger.config;
 
+import com.milestone.blogger.security.LoginFilter;
+import com.milestone.blogger.security.LoginStore;
+
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
 
 /**
  * Security configuration for the Blogging application.
  * This class defines the security rules and permissions for different
  * endpoints.
+ * <p>
+ * The chain is stateless: the logged-in user is resolved from the
+ * {@link LoginStore} on every request, so Spring Security never creates
+ * or reads a session itself.
+ * <p>
+ * Every page is public, but of the actuator endpoints only {@code health}
+ * is: metrics, the Prometheus scrape and cache statistics expose latencies,
+ * pool state and SQL counts, so they need a logged-in admin.
  */
 @Configuration
 public class SecurityConfig {
@@ -17,18 +32,24 @@ public class SecurityConfig {
         /**
          * Configures the security filter chain.
          *
-         * @param http the {@link HttpSecurity} object to configure security settings.
+         * @param http       the {@link HttpSecurity} object to configure security settings.
+         * @param loginStore where login state is kept, selected by {@code blogger.auth.mode}.
          * @return the configured {@link SecurityFilterChain}.
          * @throws Exception if an error occurs during configuration.
          */
         @Bean
-        public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        public SecurityFilterChain securityFilterChain(HttpSecurity http, LoginStore loginStore) throws Exception {
             http
                     .authorizeHttpRequests(auth -> auth
+                            .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                            .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMIN")
                             .anyRequest().permitAll())
                     .csrf(csrf -> csrf.disable())
-                    .formLogin(form -> form.disable());
+                    .formLogin(form -> form.disable())
+                    .sessionManagement(session -> session
+                            .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                    .addFilterBefore(new LoginFilter(loginStore), AnonymousAuthenticationFilter.class);
 
                 return http.build();
         }
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package com.milestone.blogger.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * Serves the stylesheets and scripts under {@code static/css},
+ * {@code static/js} and {@code static/vendor} with content-hashed file names.
+ * <p>
+ * Templates link assets with {@code @{/css/style.css}}, which is rewritten to
+ * a name carrying the hash of the file, such as {@code /css/style-<md5>.css}.
+ * A changed file gets a new URL, so every asset can be cached for a year and
+ * marked immutable. The build writes a {@code .gz} copy of each asset, which
+ * is served as is to clients that accept gzip ({@code .br} copies would be
+ * preferred if present).
+ */
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+
+        private final Duration maxAge;
+
+        public StaticResourceConfig(@Value("${blogger.static.max-age:365d}") Duration maxAge) {
+                this.maxAge = maxAge;
+        }
+
+        @Override
+        public void addResourceHandlers(ResourceHandlerRegistry registry) {
+                addVersionedResources(registry, "css");
+                addVersionedResources(registry, "js");
+                addVersionedResources(registry, "vendor");
+        }
+
+        /**
+         * Rewrites asset URLs in rendered pages to their content-hashed names.
+         *
+         * @return the filter.
+         */
+        @Bean
+        public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+                return new ResourceUrlEncodingFilter();
+        }
+
+        private void addVersionedResources(ResourceHandlerRegistry registry, String directory) {
+                registry.addResourceHandler("/" + directory + "/**")
+                                .addResourceLocations("classpath:/static/" + directory + "/")
+                                .setCacheControl(CacheControl.maxAge(maxAge).cachePublic().immutable())
+                                .resourceChain(true)
+                                .addResolver(new EncodedResourceResolver())
+                                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+}
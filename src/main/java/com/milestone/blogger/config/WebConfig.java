@@ -0,0 +1,40 @@
+package com.milestone.blogger.config;
+
+import com.milestone.blogger.cache.PageCacheFilter;
+import com.milestone.blogger.cache.PageCacheTaggingInterceptor;
+import com.milestone.blogger.cache.RenderedPageCache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web MVC configuration for the Blogging application.
+ * Registers the rendered-page cache in front of the read-heavy pages.
+ */
+@Configuration
+@ConditionalOnProperty(name = "blogger.page-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class WebConfig implements WebMvcConfigurer {
+
+        /**
+         * Registers the filter that serves cached HTML for the homepage, post list and post pages.
+         *
+         * @param cache the rendered page cache.
+         * @return the filter registration.
+         */
+        @Bean
+        public FilterRegistrationBean<PageCacheFilter> pageCacheFilter(RenderedPageCache cache) {
+                FilterRegistrationBean<PageCacheFilter> registration = new FilterRegistrationBean<>(new PageCacheFilter(cache));
+                registration.addUrlPatterns("/", "/posts", "/posts/*");
+                return registration;
+        }
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new PageCacheTaggingInterceptor())
+                                .addPathPatterns("/", "/posts", "/posts/*");
+        }
+}
@@ -1,15 +1,18 @@
 package com.milestone.blogger.controller;
 
-import jakarta.servlet.http.HttpSession;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import com.milestone.blogger.repository.PostRepository;
+import com.milestone.blogger.cache.ConditionalGetService;
+import com.milestone.blogger.model.PostSummary;
+import com.milestone.blogger.pagination.PostPage;
+import com.milestone.blogger.service.PostFeedService;
+import com.milestone.blogger.views.MostReadRanking;
 
 /**
  * Controller to handle requests for the homepage.
@@ -18,21 +21,38 @@ import com.milestone.blogger.repository.PostRepository;
 public class HomeController {
 
     @Autowired
-    private PostRepository postRepository;
+    private PostFeedService postFeedService;
 
-    private static final Logger logger = LoggerFactory.getLogger(HomeController.class);
+    @Autowired
+    private ConditionalGetService conditionalGetService;
+
+    @Autowired
+    private MostReadRanking mostReadRanking;
 
     /**
-     * Handles GET requests for the root URL and renders the homepage.
+     * Handles GET requests for the root URL and renders the homepage, with
+     * the most read posts of the week alongside the feed.
+     * Answers 304 without rendering if the client's copy is still current.
      *
-     * @param model   the {@link Model} to pass attributes to the view.
-     * @param session the {@link HttpSession} to check login status.
-     * @return the name of the Thymeleaf template for the homepage.
+     * @param after      cursor for paging towards older posts, may be null.
+     * @param before     cursor for paging towards newer posts, may be null.
+     * @param model      the {@link Model} to pass attributes to the view.
+     * @param webRequest the current request, for conditional GET handling.
+     * @return the name of the Thymeleaf template for the homepage, or null if not modified.
      */
     @GetMapping("/")
-    public String showHomepage(Model model, HttpSession session) {
-        logger.info("showHomepage(): Accessing homepage");
-        model.addAttribute("posts", postRepository.findAll());
+    public String showHomepage(@RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            Model model, ServletWebRequest webRequest) {
+        if (conditionalGetService.checkHomepageNotModified(webRequest, mostReadRanking.getGeneration())) {
+            return null;
+        }
+        PostPage<PostSummary> page = postFeedService.getPage(after, before);
+        model.addAttribute("posts", page.getItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("prevCursor", page.getPreviousCursor());
+        model.addAttribute("pageUrl", "/");
+        model.addAttribute("mostRead", mostReadRanking.getMostRead());
         return "homepage";
     }
 }
@@ -0,0 +1,276 @@
+package com.milestone.blogger.controller;
+
+import com.milestone.blogger.api.PostField;
+import com.milestone.blogger.api.PostJsonWriter;
+import com.milestone.blogger.api.PostView;
+import com.milestone.blogger.model.Post;
+import com.milestone.blogger.model.PostRecord;
+import com.milestone.blogger.model.PostSummary;
+import com.milestone.blogger.pagination.PostPage;
+import com.milestone.blogger.repository.PostRepository;
+import com.milestone.blogger.service.PostFeedService;
+import com.milestone.blogger.service.PostService;
+import com.milestone.blogger.service.PostService.WriteOutcome;
+import com.milestone.blogger.util.SessionUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * JSON API for posts, parallel to the HTML pages of {@link PostController}
+ * and sharing its pagination, ownership rules and write side effects.
+ * <p>
+ * Reads accept {@code fields=} (for example {@code fields=id,title,excerpt})
+ * to return only some fields; a list that leaves out {@code content} and
+ * {@code createdAt} is a single keyset query that never reads the content
+ * column. Responses are written field by field straight to the output.
+ */
+@RestController
+@RequestMapping("/api/posts")
+public class PostApiController {
+
+      @Autowired
+      private PostRepository postRepository;
+
+      @Autowired
+      private PostFeedService postFeedService;
+
+      @Autowired
+      private PostService postService;
+
+      @Autowired
+      private PostJsonWriter postJsonWriter;
+
+      private static final Logger logger = LoggerFactory.getLogger(PostApiController.class);
+
+      /**
+       * Lists one page of posts, newest first, with the same cursors as the post list.
+       *
+       * @param after    cursor for paging towards older posts, may be null.
+       * @param before   cursor for paging towards newer posts, may be null.
+       * @param fields   the fields to return; all of them if absent.
+       * @param response the response the page is written to.
+       * @throws IOException if the page can't be written.
+       */
+      @GetMapping
+      public void listPosts(@RequestParam(required = false) String after,
+                  @RequestParam(required = false) String before,
+                  @RequestParam(required = false) String fields,
+                  HttpServletResponse response) throws IOException {
+            Set<PostField> selected = parseFields(fields, response);
+            if (selected == null) {
+                  return;
+            }
+            PostPage<PostSummary> page = postFeedService.getPage(after, before);
+            Map<Integer, PostRecord> records = Map.of();
+            if (PostField.needsFullPost(selected) && !page.getItems().isEmpty()) {
+                  records = postRepository.findRecordsByIdIn(page.getItems().stream().map(PostSummary::getId).toList())
+                              .stream().collect(Collectors.toMap(PostRecord::getId, Function.identity()));
+            }
+            Map<Integer, PostRecord> full = records;
+            List<PostView> posts = page.getItems().stream()
+                        .map(summary -> PostView.of(summary, full.get(summary.getId())))
+                        .toList();
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            postJsonWriter.writePage(response.getOutputStream(), posts, selected, page.getNextCursor(), page.getPreviousCursor());
+      }
+
+      /**
+       * Returns a single post, with its version as the ETag for conditional updates.
+       *
+       * @param id       the ID of the post.
+       * @param fields   the fields to return; all of them if absent.
+       * @param response the response the post is written to.
+       * @throws IOException if the post can't be written.
+       */
+      @GetMapping("/{id}")
+      public void getPost(@PathVariable int id, @RequestParam(required = false) String fields,
+                  HttpServletResponse response) throws IOException {
+            Set<PostField> selected = parseFields(fields, response);
+            if (selected == null) {
+                  return;
+            }
+            Optional<Post> post = postRepository.findById(id);
+            if (post.isEmpty()) {
+                  response.sendError(HttpStatus.NOT_FOUND.value());
+                  return;
+            }
+            response.setHeader(HttpHeaders.ETAG, etag(post.get()));
+            writePost(response, HttpStatus.OK, post.get(), selected);
+      }
+
+      /**
+       * Creates a post as the logged-in user from a JSON body with a title and content.
+       *
+       * @param body     the new post.
+       * @param request  the current request, to identify the logged-in user.
+       * @param response the response the created post is written to, with status 201.
+       * @throws IOException if the response can't be written.
+       */
+      @PostMapping
+      public void createPost(@RequestBody PostRecord body, HttpServletRequest request,
+                  HttpServletResponse response) throws IOException {
+            Long userId = SessionUtils.currentUserId(request);
+            if (userId == null) {
+                  logger.warn("createPost(): User not logged in.");
+                  response.sendError(HttpStatus.UNAUTHORIZED.value());
+                  return;
+            }
+            String problem = PostService.validate(body.getTitle(), body.getContent());
+            if (problem != null) {
+                  response.sendError(HttpStatus.BAD_REQUEST.value(), problem);
+                  return;
+            }
+            Optional<Post> post = postService.create(userId, body.getTitle(), body.getContent());
+            if (post.isEmpty()) {
+                  logger.warn("createPost(): User no longer exists.");
+                  response.sendError(HttpStatus.UNAUTHORIZED.value());
+                  return;
+            }
+            logger.info("createPost(): New post created.");
+            response.setHeader(HttpHeaders.LOCATION, "/api/posts/" + post.get().getId());
+            writePost(response, HttpStatus.CREATED, post.get(), PostField.parse(null));
+      }
+
+      /**
+       * Replaces a post's title and content. Only the user who created the post can update it.
+       * With an {@code If-Match} header holding the post's ETag, the update is refused with 412
+       * if the post has changed since; without one, it overwrites whatever is there.
+       *
+       * @param id       the ID of the post to update.
+       * @param body     the new title and content.
+       * @param ifMatch  the ETag the client last saw, may be null.
+       * @param request  the current request, to identify the logged-in user.
+       * @param response the response the updated post is written to.
+       * @throws IOException if the response can't be written.
+       */
+      @PutMapping("/{id}")
+      public void updatePost(@PathVariable int id, @RequestBody PostRecord body,
+                  @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+            Long userId = SessionUtils.currentUserId(request);
+            if (userId == null) {
+                  logger.warn("updatePost(): User not logged in.");
+                  response.sendError(HttpStatus.UNAUTHORIZED.value());
+                  return;
+            }
+            String problem = PostService.validate(body.getTitle(), body.getContent());
+            if (problem != null) {
+                  response.sendError(HttpStatus.BAD_REQUEST.value(), problem);
+                  return;
+            }
+            WriteOutcome outcome = postService.update(id, userId, version(ifMatch), body.getTitle(), body.getContent());
+            if (outcome != WriteOutcome.DONE) {
+                  sendRefused(response, outcome);
+                  return;
+            }
+            Optional<Post> updated = postRepository.findWithUserById(id);
+            if (updated.isEmpty()) {
+                  // Deleted straight after the update.
+                  response.sendError(HttpStatus.NOT_FOUND.value());
+                  return;
+            }
+            logger.info("updatePost(): Post successfully edited.");
+            response.setHeader(HttpHeaders.ETAG, etag(updated.get()));
+            writePost(response, HttpStatus.OK, updated.get(), PostField.parse(null));
+      }
+
+      /**
+       * Deletes a post. Only the user who created the post can delete it, and with an
+       * {@code If-Match} header only if it hasn't changed since.
+       *
+       * @param id       the ID of the post to delete.
+       * @param ifMatch  the ETag the client last saw, may be null.
+       * @param request  the current request, to identify the logged-in user.
+       * @param response the response, with status 204 on success.
+       * @throws IOException if the response can't be written.
+       */
+      @DeleteMapping("/{id}")
+      public void deletePost(@PathVariable int id,
+                  @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+            Long userId = SessionUtils.currentUserId(request);
+            if (userId == null) {
+                  logger.warn("deletePost(): User not logged in.");
+                  response.sendError(HttpStatus.UNAUTHORIZED.value());
+                  return;
+            }
+            WriteOutcome outcome = postService.delete(id, userId, version(ifMatch));
+            if (outcome != WriteOutcome.DONE) {
+                  sendRefused(response, outcome);
+                  return;
+            }
+            logger.info("deletePost(): Post successfully deleted.");
+            response.setStatus(HttpStatus.NO_CONTENT.value());
+      }
+
+      private void sendRefused(HttpServletResponse response, WriteOutcome outcome) throws IOException {
+            switch (outcome) {
+                  case NOT_FOUND -> response.sendError(HttpStatus.NOT_FOUND.value());
+                  case FORBIDDEN -> {
+                        logger.warn("sendRefused(): User not owner of post.");
+                        response.sendError(HttpStatus.FORBIDDEN.value());
+                  }
+                  default -> response.sendError(HttpStatus.PRECONDITION_FAILED.value(), "post has changed");
+            }
+      }
+
+      /**
+       * @return the post's version as a strong ETag.
+       */
+      private static String etag(Post post) {
+            return "\"" + post.getVersion() + "\"";
+      }
+
+      /**
+       * Reads the version out of an {@code If-Match} header.
+       *
+       * @return the version, or null to match any (no header or {@code *}); -1, which
+       *         never matches, for anything that isn't one of this API's ETags.
+       */
+      private static Integer version(String ifMatch) {
+            if (ifMatch == null || ifMatch.trim().equals("*")) {
+                  return null;
+            }
+            String value = ifMatch.trim();
+            if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+                  return -1;
+            }
+            try {
+                  return Integer.parseInt(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException e) {
+                  return -1;
+            }
+      }
+
+      private void writePost(HttpServletResponse response, HttpStatus status, Post post, Set<PostField> fields)
+                  throws IOException {
+            response.setStatus(status.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            postJsonWriter.writePost(response.getOutputStream(), PostView.of(post), fields);
+      }
+
+      private static Set<PostField> parseFields(String fields, HttpServletResponse response) throws IOException {
+            try {
+                  return PostField.parse(fields);
+            } catch (IllegalArgumentException e) {
+                  response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+                  return null;
+            }
+      }
+}
@@ -1,10 +1,17 @@
 package com.milestone.blogger.controller;
 
+import com.milestone.blogger.cache.ConditionalGetService;
+import com.milestone.blogger.markdown.MarkdownRenderer;
 import com.milestone.blogger.model.Post;
-import com.milestone.blogger.model.User;
+import com.milestone.blogger.model.PostSummary;
+import com.milestone.blogger.pagination.PostPage;
 import com.milestone.blogger.repository.PostRepository;
-import com.milestone.blogger.repository.UserRepository;
-import jakarta.servlet.http.HttpSession;
+import com.milestone.blogger.search.PostSearchService;
+import com.milestone.blogger.service.PostFeedService;
+import com.milestone.blogger.service.PostService;
+import com.milestone.blogger.service.PostService.WriteOutcome;
+import com.milestone.blogger.util.SessionUtils;
+import jakarta.servlet.http.HttpServletRequest;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,8 +19,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -29,45 +37,88 @@ public class PostController {
       private PostRepository postRepository;
 
       @Autowired
-      private UserRepository userRepository;
+      private PostFeedService postFeedService;
+
+      @Autowired
+      private PostSearchService postSearchService;
+
+      @Autowired
+      private ConditionalGetService conditionalGetService;
+
+      @Autowired
+      private PostService postService;
+
+      @Autowired
+      private MarkdownRenderer markdownRenderer;
 
       private static final Logger logger = LoggerFactory.getLogger(PostController.class);
 
       /**
-       * Displays a list of all posts.
+       * Displays one page of posts, newest first.
+       * Answers 304 without rendering if the client's copy is still current.
        *
-       * @param model   the {@link Model} to pass attributes to the view.
-       * @param session the {@link HttpSession} to check login status.
-       * @return the name of the Thymeleaf template for the post list.
+       * @param after      cursor for paging towards older posts, may be null.
+       * @param before     cursor for paging towards newer posts, may be null.
+       * @param model      the {@link Model} to pass attributes to the view.
+       * @param webRequest the current request, for conditional GET handling.
+       * @return the name of the Thymeleaf template for the post list, or null if not modified.
        */
       @GetMapping
-      public String listPosts(Model model, HttpSession session) {
-            logger.info("listPosts(): Accessing all posts.");
-            model.addAttribute("posts", postRepository.findAll());
+      public String listPosts(@RequestParam(required = false) String after,
+                  @RequestParam(required = false) String before,
+                  Model model, ServletWebRequest webRequest) {
+            if (conditionalGetService.checkFeedNotModified(webRequest)) {
+                  return null;
+            }
+            PostPage<PostSummary> page = postFeedService.getPage(after, before);
+            model.addAttribute("posts", page.getItems());
+            model.addAttribute("nextCursor", page.getNextCursor());
+            model.addAttribute("prevCursor", page.getPreviousCursor());
+            model.addAttribute("pageUrl", "/posts");
             return "post-list";
       }
 
+      /**
+       * Searches post titles and content and displays the results by relevance.
+       *
+       * @param query the search query; a blank query shows an empty result list.
+       * @param model the {@link Model} to pass attributes to the view.
+       * @return the name of the Thymeleaf template for the search results.
+       */
+      @GetMapping("/search")
+      public String searchPosts(@RequestParam(name = "q", required = false) String query, Model model) {
+            List<PostSummary> results = query == null ? List.of() : postSearchService.search(query);
+            model.addAttribute("query", query);
+            model.addAttribute("posts", results);
+            model.addAttribute("searchReady", postSearchService.isReady());
+            return "search-results";
+      }
+
       /**
        * Displays a single post by its ID.
+       * Answers 304 without loading the post if the client's copy is still current.
        *
-       * @param id      the ID of the post to display.
-       * @param model   the {@link Model} to pass attributes to the view.
-       * @param session the {@link HttpSession} to check login status.
-       * @return the name of the Thymeleaf template for the single post view.
+       * @param id         the ID of the post to display.
+       * @param model      the {@link Model} to pass attributes to the view.
+       * @param webRequest the current request, for conditional GET handling.
+       * @return the name of the Thymeleaf template for the single post view, or null if not modified.
        */
       @GetMapping("/{id}")
-      public String viewPost(@PathVariable int id, Model model, HttpSession session) {
-            logger.info("viewPost(): Attempting to View Post.");
+      public String viewPost(@PathVariable int id, Model model, ServletWebRequest webRequest) {
+            if (conditionalGetService.checkPostNotModified(webRequest, id)) {
+                  return null;
+            }
+            // Served from the second-level cache, as is the lazily loaded author.
             Optional<Post> post = postRepository.findById(id);
             if (post.isEmpty()) {
                   logger.warn("viewPost(): Post is empty.");
                   return "redirect:/posts";
             }
 
-            Long postCreatorId = (Long) session.getAttribute("userId");
+            Long postCreatorId = SessionUtils.currentUserId(webRequest.getRequest());
             model.addAttribute("userId", postCreatorId);
             model.addAttribute("post", post.get());
-            logger.info("viewPost(): Exiting.");
+            model.addAttribute("contentHtml", markdownRenderer.htmlOf(post.get()));
             return "view-post";
       }
 
@@ -75,20 +126,17 @@ public class PostController {
        * Displays the form to create a new post.
        *
        * @param model   the {@link Model} to pass attributes to the view.
-       * @param session the {@link HttpSession} to check login status.
+       * @param request the current request, to check login status.
        * @return the name of the Thymeleaf template for the new post form.
        */
       @GetMapping("/new")
-      public String showNewPostForm(Model model, HttpSession session) {
-            logger.info("showNewPostForm(): Attempting to view create new Post page.");
-            Boolean loggedIn = session.getAttribute("loggedIn") != null && (Boolean) session.getAttribute("loggedIn");
-            if (!loggedIn) {
+      public String showNewPostForm(Model model, HttpServletRequest request) {
+            if (!SessionUtils.isLoggedIn(request)) {
                   logger.warn("showNewPostForm(): User not logged in, unable to view new Post page.");
                   return "redirect:/users/login";
             }
 
             model.addAttribute("post", new Post());
-            logger.info("showNewPostForm(): Exiting.");
             return "new-post";
       }
 
@@ -96,33 +144,24 @@ public class PostController {
        * Handles the creation of a new post.
        *
        * @param post    the new post details from the form.
-       * @param session the {@link HttpSession} to identify the logged-in user.
+       * @param request the current request, to identify the logged-in user.
        * @return a redirect to the list of posts after successful creation.
        */
       @PostMapping("/new")
-      public String createPost(@ModelAttribute Post post, HttpSession session) {
-            logger.info("createPost(): Attempting to create new post.");
-            Boolean loggedIn = session.getAttribute("loggedIn") != null && (Boolean) session.getAttribute("loggedIn");
-            Long userId = (Long) session.getAttribute("userId");
+      public String createPost(@ModelAttribute Post post, HttpServletRequest request) {
+            Long userId = SessionUtils.currentUserId(request);
 
-            if (!loggedIn || userId == null) {
+            if (userId == null) {
                   logger.warn("createPost(): unable to create new post, user not logged in.");
                   return "redirect:/users/login";
             }
 
-            // Fetch the user who is creating the post
-            Optional<User> user = userRepository.findById(userId);
-            if (user.isEmpty()) {
+            if (postService.create(userId, post.getTitle(), post.getContent()).isEmpty()) {
                   logger.warn("createPost(): unable to create new post, user is empty.");
                   return "redirect:/users/login";
             }
 
-            post.setUser(user.get());
-            post.setCreatedAt(new Date());
-            post.setUpdatedAt(new Date());
-            postRepository.save(post);
-
-            logger.info("createPost(): New post created. Exiting.");
+            logger.info("createPost(): New post created.");
 
             return "redirect:/posts";
       }
@@ -133,116 +172,114 @@ public class PostController {
        *
        * @param id      the ID of the post to edit.
        * @param model   the {@link Model} to pass attributes to the view.
-       * @param session the {@link HttpSession} to identify the logged-in user.
+       * @param request the current request, to identify the logged-in user.
        * @return the name of the Thymeleaf template for the edit post form, or a
        *         redirect if not authorized.
        */
       @GetMapping("/{id}/edit")
-      public String showEditPostForm(@PathVariable int id, Model model, HttpSession session) {
-            logger.info("showEditPostForm(): Attempting to show edit post form.");
+      public String showEditPostForm(@PathVariable int id, Model model, HttpServletRequest request) {
             Optional<Post> post = postRepository.findById(id);
             if (post.isEmpty()) {
                   logger.warn("showEditPostForm(): Post empty, unable to edit.");
                   return "redirect:/posts";
             }
 
-            if(!verifyUserOwnsPost(session, post.get())) {
+            if(!verifyUserOwnsPost(request, post.get())) {
                   logger.warn("showEditPostForm(): Post not owned by logged in user, cannot edit post.");
                   return "redirect:/posts";
             }
 
-            logger.info("showEditPostForm(): Exiting.");
             model.addAttribute("post", post.get());
             return "edit-post";
       }
 
       /**
        * Handles the updating of an existing post.
-       * Only the user who created the post can update it.
+       * Only the user who created the post can update it, and only from the
+       * version shown in the form: if someone saved the post in the meantime,
+       * the form is shown again with both versions instead of overwriting theirs.
        *
        * @param id          the ID of the post to update.
-       * @param updatedPost the updated post details from the form.
-       * @param session     the {@link HttpSession} to identify the logged-in user.
-       * @return a redirect to the list of posts or the updated post view.
+       * @param updatedPost the updated post details and the version they started from.
+       * @param model       the {@link Model} to pass attributes to the view on a conflict.
+       * @param request     the current request, to identify the logged-in user.
+       * @return a redirect to the updated post view or the list of posts, or the
+       *         edit form again on a conflict.
        */
       @PostMapping("/{id}/edit")
-      public String updatePost(@PathVariable int id, @ModelAttribute Post updatedPost, HttpSession session) {
-            logger.info("updatePost(): Attempting to edit post.");
-            Optional<Post> existingPost = postRepository.findById(id);
-            if (existingPost.isEmpty()) {
-                  logger.warn("updatePost(): Post is empty, unable to edit.");
+      public String updatePost(@PathVariable int id, @ModelAttribute Post updatedPost, Model model,
+                  HttpServletRequest request) {
+            Long userId = SessionUtils.currentUserId(request);
+            if (userId == null) {
+                  logger.warn("updatePost(): User not logged in. Unable to edit.");
                   return "redirect:/posts";
             }
 
-            if(!verifyUserOwnsPost(session, existingPost.get())) {
-                  logger.warn("updatePost(): User not owner of post. Unable to edit.");
-                  return "redirect:/posts";
+            WriteOutcome outcome = postService.update(id, userId, updatedPost.getVersion(), updatedPost.getTitle(),
+                        updatedPost.getContent());
+            if (outcome == WriteOutcome.DONE) {
+                  logger.info("updatePost(): Post successfully edited.");
+                  return "redirect:/posts/" + id;
             }
 
-            Post post = existingPost.get();
-            post.setTitle(updatedPost.getTitle());
-            post.setContent(updatedPost.getContent());
-            post.setUpdatedAt(new Date());
-            postRepository.save(post);
-
-            logger.info("updatePost(): Post successfully edited. Exiting.");
+            Optional<Post> current = outcome == WriteOutcome.CONFLICT ? postRepository.findById(id) : Optional.empty();
+            if (current.isEmpty()) {
+                  logger.warn("updatePost(): Post missing or not owned by user ({}). Unable to edit.", outcome);
+                  return "redirect:/posts";
+            }
 
-            return "redirect:/posts/" + post.getId();
+            logger.info("updatePost(): Post changed since the form was opened.");
+            // Shows the user's text against the saved post; saving again overwrites it on purpose.
+            updatedPost.setId(id);
+            updatedPost.setVersion(current.get().getVersion());
+            model.addAttribute("post", updatedPost);
+            model.addAttribute("currentPost", current.get());
+            return "edit-post";
       }
 
       /**
        * Handles the deletion of a post.
-       * Only the user who created the post can delete it.
+       * Only the user who created the post can delete it. A POST so that link
+       * prefetchers and crawlers can't delete posts.
        *
        * @param id      the ID of the post to delete.
-       * @param session the {@link HttpSession} to identify the logged-in user.
-       * @return a redirect to the list of posts after successful deletion.
+       * @param request the current request, to identify the logged-in user.
+       * @return a redirect to the list of posts.
        */
-      @GetMapping("/{id}/delete")
-      public String deletePost(@PathVariable int id, HttpSession session) {
-            logger.info("deletePost(): Attempting to delete post.");
-            Optional<Post> post = postRepository.findById(id);
-            if (post.isEmpty()) {
-                  logger.warn("deletePost(): Post is empty, unable to delete.");
+      @PostMapping("/{id}/delete")
+      public String deletePost(@PathVariable int id, HttpServletRequest request) {
+            Long userId = SessionUtils.currentUserId(request);
+            if (userId == null) {
+                  logger.warn("deletePost(): User not logged in, unable to delete.");
                   return "redirect:/posts";
             }
 
-            if(!verifyUserOwnsPost(session, post.get())) {
-                  logger.warn("deletePost(): Post not owned by user, unable to delete.");
+            WriteOutcome outcome = postService.delete(id, userId, null);
+            if (outcome != WriteOutcome.DONE) {
+                  logger.warn("deletePost(): Post missing or not owned by user ({}), unable to delete.", outcome);
                   return "redirect:/posts";
             }
-
-            postRepository.delete(post.get());
-            logger.info("deletePost(): Post successfully deleted. Exiting.");
+            logger.info("deletePost(): Post successfully deleted.");
             return "redirect:/posts";
       }
 
       /**
        * Verifies if the logged-in user is the owner of the specified post.
        *
-       * @param session the {@link HttpSession} to check the logged-in user.
+       * @param request the current request, to check the logged-in user.
        * @param post    the {@link Post} to verify ownership.
        * @return true if the user is logged in and owns the post; false otherwise.
        */
-      private boolean verifyUserOwnsPost(HttpSession session, Post post) {
-            logger.info("verifyUserOwnsPost(): Attempting to verify post ownership.");
-            // Check if the user is logged in
-            Boolean loggedIn = session.getAttribute("loggedIn") != null && (Boolean) session.getAttribute("loggedIn");
-            if (!loggedIn) {
-                  logger.warn("verifyUserOwnsPost(): User not logged in.");
-                  return false;
-            }
-
-            // Get the logged-in user's ID from the session
-            Long userId = (Long) session.getAttribute("userId");
+      private boolean verifyUserOwnsPost(HttpServletRequest request, Post post) {
+            // Get the logged-in user's ID, if any
+            Long userId = SessionUtils.currentUserId(request);
             if (userId == null) {
-                  logger.warn("verifyUserOwnsPost(): UserID is null.");
+                  logger.warn("verifyUserOwnsPost(): User not logged in.");
                   return false;
             }
 
-            logger.info("verifyUserOwnsPost(): Exiting.");
             // Check if the logged-in user is the owner of the post
-            return userId.equals(post.getUser().getId());
+            return postService.canModify(userId, post);
       }
 
 }
@@ -0,0 +1,135 @@
+package com.milestone.blogger.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.milestone.blogger.security.AuthenticatedUser;
+import com.milestone.blogger.transfer.PostExportService;
+import com.milestone.blogger.transfer.PostImportService;
+import com.milestone.blogger.transfer.TransferFormat;
+import com.milestone.blogger.util.SessionUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Bulk import and export of posts, for migrating content between platforms.
+ * <p>
+ * Both directions stream: the import reads the request body a record at a
+ * time and the export writes each batch as soon as it is read, so neither
+ * holds the whole data set in memory. Both require a login.
+ */
+@RestController
+@RequestMapping("/api/posts")
+public class PostTransferController {
+
+      @Autowired
+      private PostImportService postImportService;
+
+      @Autowired
+      private PostExportService postExportService;
+
+      @Autowired
+      private ObjectMapper objectMapper;
+
+      private static final Logger logger = LoggerFactory.getLogger(PostTransferController.class);
+
+      /**
+       * Imports posts from the request body, as NDJSON or CSV.
+       * Responds with NDJSON progress lines, one per batch as it commits and a
+       * last one (with {@code "done": true}) listing the rejected records.
+       *
+       * @param format   {@code ndjson} or {@code csv}; defaults from the request's content type.
+       * @param request  the current request, carrying the records.
+       * @param response the response the progress is streamed to.
+       * @throws IOException if the body can't be read or the progress can't be written.
+       */
+      @PostMapping("/import")
+      public void importPosts(@RequestParam(required = false) String format,
+                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+            AuthenticatedUser user = SessionUtils.currentUser(request);
+            if (user == null) {
+                  logger.warn("importPosts(): User not logged in.");
+                  response.sendError(HttpStatus.UNAUTHORIZED.value());
+                  return;
+            }
+            TransferFormat transferFormat = formatOrBadRequest(format, request.getContentType(), response);
+            if (transferFormat == null) {
+                  return;
+            }
+
+            response.setContentType(TransferFormat.NDJSON.getContentType());
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            PrintWriter out = response.getWriter();
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(request.getInputStream(), charset(request)))) {
+                  postImportService.importPosts(in, transferFormat, user, progress -> {
+                        try {
+                              out.write(objectMapper.writeValueAsString(progress));
+                              out.write('\n');
+                              // Flush so the client sees each batch as it commits.
+                              response.flushBuffer();
+                        } catch (IOException e) {
+                              throw new UncheckedIOException(e);
+                        }
+                  });
+            }
+      }
+
+      /**
+       * Streams every post out as NDJSON or CSV.
+       *
+       * @param format   {@code ndjson} (the default) or {@code csv}.
+       * @param request  the current request, to check login status.
+       * @param response the response the posts are streamed to.
+       * @throws IOException if the posts can't be written.
+       */
+      @GetMapping("/export")
+      public void exportPosts(@RequestParam(required = false) String format,
+                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+            if (!SessionUtils.isLoggedIn(request)) {
+                  logger.warn("exportPosts(): User not logged in.");
+                  response.sendError(HttpStatus.UNAUTHORIZED.value());
+                  return;
+            }
+            TransferFormat transferFormat = formatOrBadRequest(format, null, response);
+            if (transferFormat == null) {
+                  return;
+            }
+
+            response.setContentType(transferFormat.getContentType());
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"posts." + transferFormat.name().toLowerCase(Locale.ROOT) + "\"");
+            postExportService.export(response.getWriter(), transferFormat);
+      }
+
+      private static TransferFormat formatOrBadRequest(String format, String contentType, HttpServletResponse response)
+                  throws IOException {
+            try {
+                  return TransferFormat.of(format, contentType);
+            } catch (IllegalArgumentException e) {
+                  response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown format: " + format);
+                  return null;
+            }
+      }
+
+      private static String charset(HttpServletRequest request) {
+            return request.getCharacterEncoding() == null ? StandardCharsets.UTF_8.name() : request.getCharacterEncoding();
+      }
+}
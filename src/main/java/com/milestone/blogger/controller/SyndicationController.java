@@ -0,0 +1,144 @@
+package com.milestone.blogger.controller;
+
+import com.milestone.blogger.cache.ConditionalGetService;
+import com.milestone.blogger.model.PostStats;
+import com.milestone.blogger.model.User;
+import com.milestone.blogger.repository.PostRepository;
+import com.milestone.blogger.repository.UserRepository;
+import com.milestone.blogger.syndication.SyndicationService;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Serves the Atom feeds and sitemaps to feed readers and crawlers.
+ * <p>
+ * Every document carries validators, so a poller that already has the
+ * current version gets a 304 after one cheap query (or none, for an author
+ * feed whose author is cached), and shared caches may serve it without asking.
+ */
+@Controller
+public class SyndicationController {
+
+      private static final String ATOM_TYPE = "application/atom+xml;charset=UTF-8";
+      private static final String XML_TYPE = "application/xml;charset=UTF-8";
+
+      @Autowired
+      private SyndicationService syndicationService;
+
+      @Autowired
+      private ConditionalGetService conditionalGetService;
+
+      @Autowired
+      private PostRepository postRepository;
+
+      @Autowired
+      private UserRepository userRepository;
+
+      @Value("${blogger.site.base-url:}")
+      private String configuredBaseUrl;
+
+      private static final Logger logger = LoggerFactory.getLogger(SyndicationController.class);
+
+      /**
+       * Streams the Atom feed of the newest posts.
+       *
+       * @param webRequest the current request, for conditional GET handling.
+       * @param response   the response the document is streamed to.
+       * @throws IOException if the feed can't be written.
+       */
+      @GetMapping("/feed.atom")
+      public void siteFeed(ServletWebRequest webRequest, HttpServletResponse response) throws IOException {
+            PostStats stats = postRepository.findStats();
+            if (conditionalGetService.checkSyndicationNotModified(webRequest, "feed", stats)) {
+                  return;
+            }
+            response.setContentType(ATOM_TYPE);
+            syndicationService.writeSiteFeed(response.getOutputStream(), baseUrl(), stats.getLastUpdated());
+      }
+
+      /**
+       * Streams the Atom feed of an author's newest posts.
+       *
+       * @param username   the author's username.
+       * @param webRequest the current request, for conditional GET handling.
+       * @param response   the response the document is streamed to.
+       * @throws IOException if the feed can't be written.
+       */
+      @GetMapping("/users/{username}/feed.atom")
+      public void authorFeed(@PathVariable String username, ServletWebRequest webRequest, HttpServletResponse response)
+                  throws IOException {
+            Optional<User> author = userRepository.findByUsername(username);
+            if (author.isEmpty()) {
+                  logger.warn("authorFeed(): No such author.");
+                  response.sendError(HttpStatus.NOT_FOUND.value());
+                  return;
+            }
+            if (conditionalGetService.checkAuthorFeedNotModified(webRequest, author.get())) {
+                  return;
+            }
+            response.setContentType(ATOM_TYPE);
+            syndicationService.writeAuthorFeed(response.getOutputStream(), baseUrl(), author.get());
+      }
+
+      /**
+       * Streams the sitemap index.
+       *
+       * @param webRequest the current request, for conditional GET handling.
+       * @param response   the response the document is streamed to.
+       * @throws IOException if the index can't be written.
+       */
+      @GetMapping("/sitemap.xml")
+      public void sitemapIndex(ServletWebRequest webRequest, HttpServletResponse response) throws IOException {
+            PostStats stats = postRepository.findStats();
+            if (conditionalGetService.checkSyndicationNotModified(webRequest, "sitemap", stats)) {
+                  return;
+            }
+            response.setContentType(XML_TYPE);
+            syndicationService.writeSitemapIndex(response.getOutputStream(), baseUrl(), stats.getLastUpdated());
+      }
+
+      /**
+       * Streams one sitemap of post URLs.
+       *
+       * @param number     the sitemap's number in the index.
+       * @param webRequest the current request, for conditional GET handling.
+       * @param response   the response the document is streamed to.
+       * @throws IOException if the sitemap can't be written.
+       */
+      @GetMapping("/sitemaps/posts-{number}.xml")
+      public void sitemap(@PathVariable int number, ServletWebRequest webRequest, HttpServletResponse response)
+                  throws IOException {
+            if (number < 0 || number > Integer.MAX_VALUE / SyndicationService.URLS_PER_SITEMAP - 1) {
+                  response.sendError(HttpStatus.NOT_FOUND.value());
+                  return;
+            }
+            if (conditionalGetService.checkSyndicationNotModified(webRequest, "sitemap-" + number, postRepository.findStats())) {
+                  return;
+            }
+            response.setContentType(XML_TYPE);
+            syndicationService.writeSitemap(response.getOutputStream(), baseUrl(), number);
+      }
+
+      /**
+       * The configured {@code blogger.site.base-url}, or the one the request came in on.
+       */
+      private String baseUrl() {
+            String base = configuredBaseUrl.isBlank()
+                        ? ServletUriComponentsBuilder.fromCurrentContextPath().toUriString()
+                        : configuredBaseUrl;
+            return base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+      }
+}
@@ -0,0 +1,46 @@
+package com.milestone.blogger.controller;
+
+import com.milestone.blogger.model.PostSummary;
+import com.milestone.blogger.pagination.PostPage;
+import com.milestone.blogger.timeline.TimelineService;
+import com.milestone.blogger.util.SessionUtils;
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Controller for the logged-in user's feed of posts by the authors they follow.
+ */
+@Controller
+public class TimelineController {
+
+      @Autowired
+      private TimelineService timelineService;
+
+      /**
+       * Displays one page of the logged-in user's feed, newest first.
+       *
+       * @param after   cursor for paging towards older posts, may be null.
+       * @param model   the {@link Model} to pass attributes to the view.
+       * @param request the current request, to identify the logged-in user.
+       * @return the name of the Thymeleaf template for the feed, or a redirect to the login page.
+       */
+      @GetMapping("/feed")
+      public String showFeed(@RequestParam(required = false) String after, Model model, HttpServletRequest request) {
+            Long userId = SessionUtils.currentUserId(request);
+            if (userId == null) {
+                  return "redirect:/users/login";
+            }
+            PostPage<PostSummary> page = timelineService.getPage(userId, after);
+            model.addAttribute("posts", page.getItems());
+            model.addAttribute("nextCursor", page.getNextCursor());
+            model.addAttribute("prevCursor", page.getPreviousCursor());
+            model.addAttribute("pageUrl", "/feed");
+            model.addAttribute("listHeading", "Your Feed");
+            return "feed";
+      }
+}
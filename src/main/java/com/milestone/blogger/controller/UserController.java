@@ -1,22 +1,45 @@
 package com.milestone.blogger.controller;
 
+import com.milestone.blogger.availability.UserAvailabilityService;
+import com.milestone.blogger.availability.UserAvailabilityService.Availability;
+import com.milestone.blogger.model.PostSummary;
 import com.milestone.blogger.model.User;
+import com.milestone.blogger.pagination.PostPage;
+import com.milestone.blogger.repository.FollowRepository;
 import com.milestone.blogger.repository.UserRepository;
+import com.milestone.blogger.security.LoginStore;
+import com.milestone.blogger.security.LoginThrottle;
+import com.milestone.blogger.security.PasswordCheck;
+import com.milestone.blogger.security.PasswordHashingBusyException;
+import com.milestone.blogger.security.PasswordHashingService;
+import com.milestone.blogger.service.AuthorService;
+import com.milestone.blogger.service.FollowService;
+import com.milestone.blogger.service.PostFeedService;
+import com.milestone.blogger.util.SessionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
- * Controller to handle user-related operations such as registration, login, and
- * logout.
+ * Controller to handle user-related operations such as registration, login,
+ * logout, author pages and following authors.
  */
 @Controller
 @RequestMapping("/users")
@@ -25,7 +48,29 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private LoginStore loginStore;
+
+    @Autowired
+    private PostFeedService postFeedService;
+
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+
+    @Autowired
+    private FollowService followService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private FollowRepository followRepository;
 
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
@@ -33,14 +78,12 @@ public class UserController {
      * Adds a "loggedIn" attribute to the model for templates to check the login
      * status of the user.
      *
-     * @param session the current {@link HttpSession}.
+     * @param request the current request.
      * @return true if the user is logged in, false otherwise.
      */
     @ModelAttribute("loggedIn")
-    public Boolean addLoggedInAttribute(HttpSession session) {
-        logger.info("Entering addLoggedInAttribute()");
-        logger.info("Exiting addLoggedInAttribute()");
-        return session.getAttribute("loggedIn") != null && (Boolean) session.getAttribute("loggedIn");
+    public Boolean addLoggedInAttribute(HttpServletRequest request) {
+        return SessionUtils.isLoggedIn(request);
     }
 
     /**
@@ -50,49 +93,92 @@ public class UserController {
      */
     @GetMapping("/register")
     public String showRegistrationPage() {
-        logger.info("showRegistrationPage(): Accessing Registration Page");
         return "register";
     }
 
+    /**
+     * Tells the registration form whether a username or email is free, as the user types.
+     * Most answers come from memory without a query. Lookups are throttled per client
+     * address, so the endpoint can't be used to test emails for registration in bulk.
+     *
+     * @param username the username to check, if any.
+     * @param email    the email to check, if any.
+     * @param request  the current request, for the client address.
+     * @return a JSON object with {@code username} and/or {@code email} set to true if free,
+     *         or 429 with Retry-After when the client is throttled.
+     */
+    @GetMapping("/availability")
+    @ResponseBody
+    public ResponseEntity<Map<String, Boolean>> checkAvailability(@RequestParam(required = false) String username,
+            @RequestParam(required = false) String email, HttpServletRequest request) {
+        Duration retryAfter = loginThrottle.tryAcquireLookup(request.getRemoteAddr());
+        if (!retryAfter.isZero()) {
+            logger.warn("Availability lookup throttled for address: {}", request.getRemoteAddr());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds(retryAfter)))
+                    .build();
+        }
+        String checkedUsername = username == null || username.isBlank() ? null : username;
+        String checkedEmail = email == null || email.isBlank() ? null : email;
+        Availability availability = userAvailabilityService.check(checkedUsername, checkedEmail);
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        if (checkedUsername != null) {
+            result.put("username", availability.isUsernameAvailable());
+        }
+        if (checkedEmail != null) {
+            result.put("email", availability.isEmailAvailable());
+        }
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Handles user registration by validating input and saving the user if valid.
+     * A username or email that is already taken, including one registered
+     * between the check and the save, re-renders the form with an error.
      *
-     * @param user  the {@link User} object populated from the registration form.
-     * @param model the {@link Model} to pass attributes to the view.
+     * @param user     the {@link User} object populated from the registration form.
+     * @param model    the {@link Model} to pass attributes to the view.
+     * @param request  the current request, for the client address.
+     * @param response the current response, for 429/503 rejections.
      * @return the name of the Thymeleaf template to display, either the
      *         registration page on failure or the login page on success.
      */
     @PostMapping("/register")
-    public String registerUser(@ModelAttribute User user, Model model) {
-        logger.info("Entering registerUser()");
-        
+    public String registerUser(@ModelAttribute User user, Model model,
+            HttpServletRequest request, HttpServletResponse response) {
         String username = user.getUsername();
         String email = user.getEmail();
 
-        logger.info("Attempting to register user: {}", username);
-
-        boolean usernameExists = userRepository.findByUsername(username).isPresent();
-        boolean emailExists = userRepository.findByEmail(email).isPresent();
-
-        if (usernameExists) {
-            logger.warn("Registration failed: Username '{}' already exists.", username);
-            model.addAttribute("usernameError", "Username '" + username + "' is already taken.");
+        Duration retryAfter = loginThrottle.tryAcquireIp(request.getRemoteAddr());
+        if (!retryAfter.isZero()) {
+            logger.warn("Registration throttled for address: {}", request.getRemoteAddr());
+            return reject(response, model, HttpStatus.TOO_MANY_REQUESTS, retryAfter,
+                    "Too many attempts. Please try again later.", "register");
         }
-        if (emailExists) {
-            logger.warn("Registration failed: Email '{}' already exists.", email);
-            model.addAttribute("emailError", "Email '" + email + "' is already registered.");
-        }
-        if (usernameExists || emailExists) {
-            logger.info("Exiting registerUser()");
+
+        if (rejectTaken(userAvailabilityService.check(username, email), username, email, model)) {
             return "register";
         }
 
-        user.setPasswordHash(passwordEncoder.encode(user.getPasswordHash()));
+        try {
+            user.setPasswordHash(passwordHashingService.hash(user.getPasswordHash()));
+        } catch (PasswordHashingBusyException e) {
+            return reject(response, model, HttpStatus.SERVICE_UNAVAILABLE, e.getRetryAfter(),
+                    "The server is busy. Please try again in a moment.", "register");
+        }
         user.setDatejoined(new Date());
-        userRepository.save(user);
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Taken since the check, or equal to an existing name under the database's collation.
+            if (rejectTaken(userAvailabilityService.checkDatabase(username, email), username, email, model)) {
+                return "register";
+            }
+            throw e;
+        }
+        userAvailabilityService.recordRegistered(username, email);
         logger.info("User registered successfully: {}", username);
         model.addAttribute("success", "User registered successfully. Please log in.");
-        logger.info("Exiting registerUser()");
         return "login";
     }
 
@@ -103,56 +189,215 @@ public class UserController {
      */
     @GetMapping("/login")
     public String showLoginPage() {
-        logger.info("showLoginPage(): Accessed login page.");
         return "login";
     }
 
     /**
-     * Handles user login by validating credentials and setting the session
-     * attributes.
+     * Handles user login by validating credentials and recording the login in
+     * the {@link LoginStore}.
      *
      * @param username the username entered by the user.
      * @param password the password entered by the user.
-     * @param session  the current {@link HttpSession}.
      * @param model    the {@link Model} to pass attributes to the view.
+     * @param request  the current request, for the client address.
+     * @param response the current response, for 429/503 rejections and the login cookie.
      * @return a redirect to the homepage on success, or the login page on failure.
      */
     @PostMapping("/login")
     public String loginUser(@RequestParam String username,
             @RequestParam String password,
-            HttpSession session,
-            Model model) {
-        logger.info("Entering loginUser()");
-        logger.info("User login attempt: {}", username);
+            Model model,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        Duration retryAfter = loginThrottle.tryAcquireLogin(request.getRemoteAddr(), username);
+        if (!retryAfter.isZero()) {
+            logger.warn("Login throttled for username: {}", username);
+            return reject(response, model, HttpStatus.TOO_MANY_REQUESTS, retryAfter,
+                    "Too many login attempts. Please try again later.", "login");
+        }
+
         Optional<User> user = userRepository.findByUsername(username);
+        PasswordCheck check = null;
+        if (user.isPresent()) {
+            try {
+                check = passwordHashingService.verify(password, user.get().getPasswordHash());
+            } catch (PasswordHashingBusyException e) {
+                return reject(response, model, HttpStatus.SERVICE_UNAVAILABLE, e.getRetryAfter(),
+                        "The server is busy. Please try again in a moment.", "login");
+            }
+        }
 
-        if (user.isEmpty() || !passwordEncoder.matches(password, user.get().getPasswordHash())) {
+        if (check == null || !check.matches()) {
             logger.warn("Login failed for username: {}", username);
             model.addAttribute("error", "Invalid username or password.");
-            logger.info("Exiting loginUser()");
             return "login";
         }
 
-        session.setAttribute("loggedIn", true);
-        session.setAttribute("userId", user.get().getId());
+        if (check.getUpgradedHash() != null) {
+            user.get().setPasswordHash(check.getUpgradedHash());
+            authorService.updatePasswordHash(user.get().getId(), check.getUpgradedHash());
+            logger.info("Re-hashed password at the current cost for username: {}", username);
+        }
+
+        loginStore.logIn(request, response, user.get());
         logger.info("User logged in successfully: {}", username);
-        logger.info("Exiting loginUser()");
         return "redirect:/";
     }
 
     /**
-     * Logs out the user by invalidating the session and redirecting to the
-     * homepage.
+     * Logs out the user by ending the login in the {@link LoginStore} and
+     * redirecting to the homepage.
      *
-     * @param session the current {@link HttpSession}.
+     * @param request  the current request.
+     * @param response the current response, for clearing the login cookie.
      * @return a redirect to the homepage.
      */
     @GetMapping("/logout")
-    public String logoutUser(HttpSession session) {
-        logger.info("Entering logoutUser()");
-        session.invalidate();
+    public String logoutUser(HttpServletRequest request, HttpServletResponse response) {
+        loginStore.logOut(request, response);
         logger.info("User logged out.");
-        logger.info("Exiting logoutUser()");
         return "redirect:/";
     }
+
+    /**
+     * Redirects the logged-in user to their own author page.
+     *
+     * @param request the current request, to identify the logged-in user.
+     * @return a redirect to the user's author page, or to the login page.
+     */
+    @GetMapping("/profile")
+    public String showOwnProfile(HttpServletRequest request) {
+        Long userId = SessionUtils.currentUserId(request);
+        Optional<User> user = userId == null ? Optional.empty() : userRepository.findById(userId);
+        if (user.isEmpty()) {
+            return "redirect:/users/login";
+        }
+        return "redirect:/users/" + UriUtils.encodePathSegment(user.get().getUsername(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Displays an author's profile and one page of their posts, newest first.
+     * The header comes from the user's denormalized counters, which are
+     * usually served from the second-level cache.
+     *
+     * @param username the author's username.
+     * @param after    cursor for paging towards older posts, may be null.
+     * @param before   cursor for paging towards newer posts, may be null.
+     * @param model    the {@link Model} to pass attributes to the view.
+     * @param request  the current request, to show a logged-in visitor whether they follow the author.
+     * @return the name of the Thymeleaf template for the author page, or a redirect if there is no such user.
+     */
+    @GetMapping("/{username}")
+    public String showAuthorPage(@PathVariable String username,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            Model model, HttpServletRequest request) {
+        Optional<User> author = userRepository.findByUsername(username);
+        if (author.isEmpty()) {
+            logger.warn("showAuthorPage(): No user named {}.", username);
+            return "redirect:/posts";
+        }
+
+        PostPage<PostSummary> page = postFeedService.getAuthorPage(author.get().getId(), after, before);
+        Long userId = SessionUtils.currentUserId(request);
+        boolean canFollow = userId != null && !userId.equals(author.get().getId());
+        model.addAttribute("author", author.get());
+        model.addAttribute("canFollow", canFollow);
+        model.addAttribute("following", canFollow && followRepository.existsByFollowerIdAndFolloweeId(userId, author.get().getId()));
+        model.addAttribute("posts", page.getItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("prevCursor", page.getPreviousCursor());
+        model.addAttribute("pageUrl", "/users/" + UriUtils.encodePathSegment(username, StandardCharsets.UTF_8));
+        model.addAttribute("listHeading", "Posts by " + username);
+        return "author";
+    }
+
+    /**
+     * Makes the logged-in user follow an author, so the author's posts
+     * appear in their feed.
+     *
+     * @param username the author's username.
+     * @param request  the current request, to identify the logged-in user.
+     * @return a redirect to the author page, or to the login page.
+     */
+    @PostMapping("/{username}/follow")
+    public String followAuthor(@PathVariable String username, HttpServletRequest request) {
+        return changeFollow(username, request, true);
+    }
+
+    /**
+     * Makes the logged-in user stop following an author.
+     *
+     * @param username the author's username.
+     * @param request  the current request, to identify the logged-in user.
+     * @return a redirect to the author page, or to the login page.
+     */
+    @PostMapping("/{username}/unfollow")
+    public String unfollowAuthor(@PathVariable String username, HttpServletRequest request) {
+        return changeFollow(username, request, false);
+    }
+
+    private String changeFollow(String username, HttpServletRequest request, boolean follow) {
+        Long userId = SessionUtils.currentUserId(request);
+        if (userId == null) {
+            return "redirect:/users/login";
+        }
+        Optional<User> author = userRepository.findByUsername(username);
+        if (author.isEmpty()) {
+            logger.warn("changeFollow(): No user named {}.", username);
+            return "redirect:/posts";
+        }
+        if (follow) {
+            followService.follow(userId, author.get().getId());
+        } else {
+            followService.unfollow(userId, author.get().getId());
+        }
+        return "redirect:/users/" + UriUtils.encodePathSegment(author.get().getUsername(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Adds form errors for a taken username or email.
+     *
+     * @param availability which of the two are free.
+     * @param username     the username, for the message.
+     * @param email        the email, for the message.
+     * @param model        the {@link Model} to add the errors to.
+     * @return true if either is taken.
+     */
+    private boolean rejectTaken(Availability availability, String username, String email, Model model) {
+        if (!availability.isUsernameAvailable()) {
+            logger.warn("Registration failed: Username '{}' already exists.", username);
+            model.addAttribute("usernameError", "Username '" + username + "' is already taken.");
+        }
+        if (!availability.isEmailAvailable()) {
+            logger.warn("Registration failed: Email '{}' already exists.", email);
+            model.addAttribute("emailError", "Email '" + email + "' is already registered.");
+        }
+        return !availability.isUsernameAvailable() || !availability.isEmailAvailable();
+    }
+
+    /**
+     * Renders a form again with an error and a status telling the client when
+     * to retry.
+     *
+     * @param response   the current response.
+     * @param model      the {@link Model} to pass attributes to the view.
+     * @param status     429 when throttled, 503 when the hashing pool is saturated.
+     * @param retryAfter how long the client should wait.
+     * @param message    the error to show.
+     * @param view       the form to render.
+     * @return the name of the Thymeleaf template to display.
+     */
+    private String reject(HttpServletResponse response, Model model, HttpStatus status, Duration retryAfter,
+            String message, String view) {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds(retryAfter)));
+        model.addAttribute("error", message);
+        return view;
+    }
+
+    // Whole seconds, rounded up so the client never retries early.
+    private static long retryAfterSeconds(Duration retryAfter) {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
 }
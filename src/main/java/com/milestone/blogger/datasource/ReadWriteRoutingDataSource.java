@@ -0,0 +1,39 @@
+package com.milestone.blogger.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+
+import java.util.Map;
+
+/**
+ * Hands out connections from the replicas inside read-only transactions and
+ * from the primary everywhere else.
+ * <p>
+ * The transaction is only known to be read-only once it has started, after
+ * the transaction manager asks for its connection, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * that fetches the real connection at the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+      private enum Route {
+            PRIMARY, REPLICA
+      }
+
+      /**
+       * @param primary  the data source for writes and for reads outside read-only transactions.
+       * @param replicas the data source for read-only transactions.
+       */
+      public ReadWriteRoutingDataSource(DataSource primary, DataSource replicas) {
+            setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replicas));
+            setDefaultTargetDataSource(primary);
+            afterPropertiesSet();
+      }
+
+      @Override
+      protected Object determineCurrentLookupKey() {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+      }
+}
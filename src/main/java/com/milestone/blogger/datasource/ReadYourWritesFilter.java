@@ -0,0 +1,99 @@
+package com.milestone.blogger.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Sends a client's reads to the primary for a short window after it writes,
+ * so authors see their own new and edited posts even while the replicas lag.
+ * <p>
+ * Any request with an unsafe method (a form post, an API write, login) runs
+ * entirely on the primary, including the reads it makes before writing, and
+ * sets a short-lived cookie holding the end of the window. Requests carrying
+ * an unexpired cookie are pinned to the primary too. The cookie lives on the
+ * client, so the window holds whichever node serves the next request; a
+ * forged value can't extend it past one window from now.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+      static final String COOKIE_NAME = "blogger_primary";
+
+      private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+      private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+      private final Duration window;
+
+      public ReadYourWritesFilter(Duration window) {
+            this.window = window;
+      }
+
+      /**
+       * @return true if the current thread's request must read from the primary.
+       */
+      static boolean isPinned() {
+            return PINNED.get() != null;
+      }
+
+      @Override
+      protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                  throws ServletException, IOException {
+            long now = System.currentTimeMillis();
+            boolean write = !SAFE_METHODS.contains(request.getMethod());
+            if (write) {
+                  // Set before the chain runs: redirects after a write commit the response.
+                  setCookie(request, response, now + window.toMillis());
+            }
+            if (write || withinWindow(request, now)) {
+                  PINNED.set(Boolean.TRUE);
+            }
+            try {
+                  chain.doFilter(request, response);
+            } finally {
+                  PINNED.remove();
+            }
+      }
+
+      private boolean withinWindow(HttpServletRequest request, long now) {
+            Cookie[] cookies = request.getCookies();
+            if (cookies == null) {
+                  return false;
+            }
+            for (Cookie cookie : cookies) {
+                  if (COOKIE_NAME.equals(cookie.getName())) {
+                        try {
+                              long until = Long.parseLong(cookie.getValue());
+                              return until > now && until <= now + window.toMillis();
+                        } catch (NumberFormatException e) {
+                              return false;
+                        }
+                  }
+            }
+            return false;
+      }
+
+      private void setCookie(HttpServletRequest request, HttpServletResponse response, long until) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, Long.toString(until))
+                        .path("/")
+                        .httpOnly(true)
+                        .secure(request.isSecure())
+                        .sameSite("Lax")
+                        .maxAge(window.plusSeconds(1).toSeconds())
+                        .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+      }
+}
@@ -0,0 +1,135 @@
+package com.milestone.blogger.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The data source read-only transactions use: connections come from the
+ * replica pools in turn, skipping replicas that are down, and from the
+ * primary when every replica is down or the request is pinned by
+ * {@link ReadYourWritesFilter}.
+ * <p>
+ * A replica is marked down as soon as it fails to hand out a connection,
+ * and by a background check that validates a connection from each replica
+ * every {@code healthInterval}; the same check brings it back once it
+ * answers again. Failing over costs at most the replica pool's connection
+ * timeout, so that should be short.
+ */
+public class ReplicaPool extends AbstractDataSource implements AutoCloseable {
+
+      private static final Logger logger = LoggerFactory.getLogger(ReplicaPool.class);
+
+      private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+      private final HikariDataSource primary;
+      private final List<Replica> replicas;
+      private final AtomicInteger next = new AtomicInteger();
+      private final ScheduledExecutorService healthChecks;
+
+      /**
+       * @param primary        the pool to fall back to.
+       * @param replicas       the replica pools, closed with this one.
+       * @param healthInterval how often each replica is checked.
+       */
+      public ReplicaPool(HikariDataSource primary, List<HikariDataSource> replicas, Duration healthInterval) {
+            this.primary = primary;
+            this.replicas = replicas.stream().map(Replica::new).toList();
+            this.healthChecks = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                        .name("replica-health")
+                        .daemon()
+                        .factory());
+            healthChecks.scheduleWithFixedDelay(this::checkHealth, healthInterval.toMillis(), healthInterval.toMillis(),
+                        TimeUnit.MILLISECONDS);
+      }
+
+      @Override
+      public Connection getConnection() throws SQLException {
+            if (ReadYourWritesFilter.isPinned()) {
+                  return primary.getConnection();
+            }
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                  Replica replica = replicas.get((start + i) % replicas.size());
+                  if (!replica.healthy) {
+                        continue;
+                  }
+                  try {
+                        return replica.pool.getConnection();
+                  } catch (SQLException e) {
+                        markDown(replica, e);
+                  }
+            }
+            return primary.getConnection();
+      }
+
+      @Override
+      public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLException("ReplicaPool uses the replica pools' own credentials");
+      }
+
+      /**
+       * Validates a connection from every replica, marking each up or down.
+       */
+      public void checkHealth() {
+            for (Replica replica : replicas) {
+                  try (Connection connection = replica.pool.getConnection()) {
+                        if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                              throw new SQLException("connection is not valid");
+                        }
+                        if (!replica.healthy) {
+                              replica.healthy = true;
+                              logger.info("checkHealth(): Replica {} is back up.", replica.pool.getPoolName());
+                        }
+                  } catch (SQLException e) {
+                        markDown(replica, e);
+                  }
+            }
+      }
+
+      /**
+       * @return how many replicas are currently taking reads.
+       */
+      public int healthyReplicas() {
+            return (int) replicas.stream().filter(replica -> replica.healthy).count();
+      }
+
+      @Override
+      public void close() {
+            healthChecks.shutdownNow();
+            replicas.forEach(replica -> replica.pool.close());
+      }
+
+      private static void markDown(Replica replica, SQLException e) {
+            if (replica.healthy) {
+                  replica.healthy = false;
+                  // Connections handed out before the failure would fail again; let the pool replace them.
+                  if (replica.pool.getHikariPoolMXBean() != null) {
+                        replica.pool.getHikariPoolMXBean().softEvictConnections();
+                  }
+                  logger.warn("markDown(): Replica {} is down, reading from the others: {}", replica.pool.getPoolName(),
+                              e.getMessage());
+            }
+      }
+
+      private static class Replica {
+
+            private final HikariDataSource pool;
+            private volatile boolean healthy = true;
+
+            Replica(HikariDataSource pool) {
+                  this.pool = pool;
+            }
+      }
+}
@@ -0,0 +1,74 @@
+package com.milestone.blogger.logging;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs entry to and exit from controller methods for a sample of requests.
+ * <p>
+ * The sampling decision is made once per request, so a traced request shows
+ * every controller method it went through (model attributes included) and
+ * untraced requests log nothing. Lines go to the
+ * {@code com.milestone.blogger.trace} logger at INFO and carry the request ID
+ * from {@link RequestIdFilter}.
+ */
+@Aspect
+@Component
+public class ControllerTracingAspect {
+
+      private static final Logger traceLogger = LoggerFactory.getLogger("com.milestone.blogger.trace");
+
+      private static final String SAMPLED_ATTRIBUTE = ControllerTracingAspect.class.getName() + ".sampled";
+
+      private final double sampleRate;
+
+      public ControllerTracingAspect(@Value("${blogger.logging.trace.sample-rate:0.01}") double sampleRate) {
+            this.sampleRate = sampleRate;
+      }
+
+      @Around("within(com.milestone.blogger.controller..*) && execution(public * *(..))")
+      public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+            if (!isSampled()) {
+                  return joinPoint.proceed();
+            }
+
+            String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                        + joinPoint.getSignature().getName() + "()";
+            traceLogger.info("Entering {}", method);
+            long started = System.nanoTime();
+            try {
+                  Object result = joinPoint.proceed();
+                  traceLogger.info("Exiting {} in {} ms", method, (System.nanoTime() - started) / 1_000_000);
+                  return result;
+            } catch (Throwable e) {
+                  traceLogger.info("Exiting {} with {} in {} ms", method, e.getClass().getSimpleName(),
+                              (System.nanoTime() - started) / 1_000_000);
+                  throw e;
+            }
+      }
+
+      private boolean isSampled() {
+            if (sampleRate <= 0 || !traceLogger.isInfoEnabled()) {
+                  return false;
+            }
+            RequestAttributes request = RequestContextHolder.getRequestAttributes();
+            if (request == null) {
+                  return ThreadLocalRandom.current().nextDouble() < sampleRate;
+            }
+            Boolean sampled = (Boolean) request.getAttribute(SAMPLED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (sampled == null) {
+                  sampled = ThreadLocalRandom.current().nextDouble() < sampleRate;
+                  request.setAttribute(SAMPLED_ATTRIBUTE, sampled, RequestAttributes.SCOPE_REQUEST);
+            }
+            return sampled;
+      }
+}
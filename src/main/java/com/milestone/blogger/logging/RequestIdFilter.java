@@ -0,0 +1,50 @@
+package com.milestone.blogger.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Tags every log line written while handling a request with a request ID.
+ * <p>
+ * The ID is taken from an incoming {@code X-Request-Id} header, so a proxy's
+ * ID carries through, or generated otherwise. It is put in the MDC under
+ * {@code requestId} and echoed in the response header.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdFilter extends OncePerRequestFilter {
+
+      public static final String HEADER = "X-Request-Id";
+      public static final String MDC_KEY = "requestId";
+
+      // Client-supplied IDs end up in log output, so only short, plain tokens are accepted.
+      private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+      @Override
+      protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                  throws ServletException, IOException {
+            String requestId = request.getHeader(HEADER);
+            if (requestId == null || !VALID_ID.matcher(requestId).matches()) {
+                  requestId = UUID.randomUUID().toString();
+            }
+            MDC.put(MDC_KEY, requestId);
+            response.setHeader(HEADER, requestId);
+            try {
+                  chain.doFilter(request, response);
+            } finally {
+                  MDC.remove(MDC_KEY);
+            }
+      }
+}
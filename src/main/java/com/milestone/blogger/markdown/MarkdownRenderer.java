@@ -0,0 +1,134 @@
+package com.milestone.blogger.markdown;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.milestone.blogger.model.Post;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.commonmark.node.Link;
+import org.commonmark.node.Node;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.DefaultUrlSanitizer;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.commonmark.renderer.text.LineBreakRendering;
+import org.commonmark.renderer.text.TextContentRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Renders post content from Markdown, once, when a post is written.
+ * <p>
+ * The HTML is sanitized as it is rendered: raw HTML in the source is escaped
+ * rather than passed through, and links and images keep only http, https and
+ * mailto URLs (or relative ones). Links also get {@code rel="nofollow"}.
+ * <p>
+ * Results are cached by the SHA-256 of the source, bounded by total HTML
+ * size, so saving unchanged content and re-rendering after a
+ * {@link #RENDERER_VERSION} change don't parse the same text twice. Hit and
+ * miss counts are published as {@code cache.*} metrics with
+ * {@code cache=markdown}.
+ */
+@Component
+public class MarkdownRenderer implements MeterBinder {
+
+      /**
+       * Stored with each post's HTML. Bump it whenever a change here would
+       * render existing posts differently, and {@link MarkdownRerenderer}
+       * re-renders them on the next startup.
+       */
+      public static final int RENDERER_VERSION = 1;
+
+      private final Parser parser = Parser.builder().build();
+      private final HtmlRenderer htmlRenderer = HtmlRenderer.builder()
+                  .escapeHtml(true)
+                  .sanitizeUrls(true)
+                  .urlSanitizer(new DefaultUrlSanitizer(List.of("http", "https", "mailto")))
+                  .attributeProviderFactory(context -> (node, tagName, attributes) -> {
+                        if (node instanceof Link) {
+                              attributes.put("rel", "nofollow");
+                        }
+                  })
+                  .build();
+      private final TextContentRenderer textRenderer = TextContentRenderer.builder()
+                  .lineBreakRendering(LineBreakRendering.STRIP)
+                  .build();
+      private final Cache<String, RenderedContent> rendered;
+
+      public MarkdownRenderer(@Value("${blogger.markdown.cache-size-mb:16}") long maxSizeMb) {
+            this.rendered = Caffeine.newBuilder()
+                        .maximumWeight(maxSizeMb * 1024 * 1024)
+                        .weigher((String hash, RenderedContent content) -> content.getHtml().length() + content.getText().length())
+                        .recordStats()
+                        .build();
+      }
+
+      /**
+       * Renders Markdown, or returns the cached rendering of the same source.
+       *
+       * @param source the Markdown source.
+       * @return the rendered HTML and plain text.
+       */
+      public RenderedContent render(String source) {
+            String hash = hash(source);
+            return rendered.get(hash, h -> {
+                  Node document = parser.parse(source);
+                  return new RenderedContent(h, htmlRenderer.render(document), textRenderer.render(document).strip());
+            });
+      }
+
+      /**
+       * Renders a post's content and stores the HTML, hash, renderer version
+       * and excerpt on it.
+       *
+       * @param post a post whose content is set.
+       */
+      public void renderInto(Post post) {
+            RenderedContent content = render(post.getContent());
+            post.setContentHtml(content.getHtml());
+            post.setContentHash(content.getHash());
+            post.setRenderVersion(RENDERER_VERSION);
+            post.setExcerpt(content.getExcerpt());
+      }
+
+      /**
+       * Returns a post's HTML, re-rendering it if it was stored by an older
+       * renderer and {@link MarkdownRerenderer} hasn't reached it yet.
+       *
+       * @param post the post.
+       * @return the post's sanitized HTML.
+       */
+      public String htmlOf(Post post) {
+            Integer version = post.getRenderVersion();
+            if (version != null && version == RENDERER_VERSION && post.getContentHtml() != null) {
+                  return post.getContentHtml();
+            }
+            return render(post.getContent()).getHtml();
+      }
+
+      /**
+       * @param source the Markdown source.
+       * @return the SHA-256 of the source's UTF-8 bytes, as hex.
+       */
+      public static String hash(String source) {
+            try {
+                  MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                  return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+            } catch (NoSuchAlgorithmException e) {
+                  throw new IllegalStateException("SHA-256 is not available", e);
+            }
+      }
+
+      @Override
+      public void bindTo(MeterRegistry registry) {
+            CaffeineCacheMetrics.monitor(registry, rendered, "markdown");
+      }
+}
@@ -0,0 +1,116 @@
+package com.milestone.blogger.markdown;
+
+import com.milestone.blogger.cache.RenderedPageCache;
+import com.milestone.blogger.model.Post;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Re-renders posts stored by an older {@link MarkdownRenderer#RENDERER_VERSION}
+ * (or never rendered, such as rows from {@code init.sql}) in the background
+ * after startup.
+ * <p>
+ * Walks the post table in id order, a batch at a time, and writes each
+ * batch with one JDBC batch update. Neither the version nor the update time
+ * changes, and a post edited since it was read already has the current
+ * renderer's HTML, so the write skips it. Until a post is reached, viewing it
+ * renders it on the fly through the renderer's cache.
+ */
+@Component
+public class MarkdownRerenderer {
+
+      private static final Logger logger = LoggerFactory.getLogger(MarkdownRerenderer.class);
+
+      private final JdbcTemplate jdbcTemplate;
+      private final MarkdownRenderer markdownRenderer;
+      private final RenderedPageCache renderedPageCache;
+      private final jakarta.persistence.Cache entityCache;
+      private final int batchSize;
+      private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "markdown-rerender");
+            thread.setDaemon(true);
+            return thread;
+      });
+
+      public MarkdownRerenderer(JdbcTemplate jdbcTemplate, MarkdownRenderer markdownRenderer,
+                  RenderedPageCache renderedPageCache, EntityManagerFactory entityManagerFactory,
+                  @Value("${blogger.markdown.rerender-batch-size:200}") int batchSize) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.markdownRenderer = markdownRenderer;
+            this.renderedPageCache = renderedPageCache;
+            this.entityCache = entityManagerFactory.getCache();
+            this.batchSize = batchSize;
+      }
+
+      /**
+       * Starts re-rendering in the background once the application is up.
+       */
+      @EventListener(ApplicationReadyEvent.class)
+      public void start() {
+            worker.execute(() -> {
+                  try {
+                        rerenderAll();
+                  } catch (RuntimeException e) {
+                        logger.error("start(): Re-rendering stopped; remaining posts render on view.", e);
+                  }
+            });
+      }
+
+      /**
+       * Re-renders every post not rendered by the current renderer.
+       *
+       * @return the number of posts re-rendered.
+       */
+      public int rerenderAll() {
+            long started = System.nanoTime();
+            int version = MarkdownRenderer.RENDERER_VERSION;
+            int rerendered = 0;
+            int lastId = -1;
+            boolean more = true;
+            while (more) {
+                  List<Object[]> batch = new ArrayList<>(batchSize);
+                  jdbcTemplate.query("select id, content from post where id > ? "
+                              + "and (render_version is null or render_version <> ?) order by id limit ?", rs -> {
+                                    RenderedContent content = markdownRenderer.render(rs.getString("content"));
+                                    batch.add(new Object[] { content.getHtml(), content.getHash(), content.getExcerpt(),
+                                                version, rs.getInt("id"), version });
+                              }, lastId, version, batchSize);
+                  if (batch.isEmpty()) {
+                        break;
+                  }
+                  jdbcTemplate.batchUpdate("update post set content_html = ?, content_hash = ?, excerpt = ?, render_version = ? "
+                              + "where id = ? and (render_version is null or render_version <> ?)", batch);
+                  for (Object[] row : batch) {
+                        entityCache.evict(Post.class, row[4]);
+                  }
+                  rerendered += batch.size();
+                  lastId = (int) batch.get(batch.size() - 1)[4];
+                  more = batch.size() == batchSize;
+            }
+
+            if (rerendered > 0) {
+                  renderedPageCache.invalidateAll();
+                  logger.info("rerenderAll(): Re-rendered {} posts in {} ms.", rerendered, (System.nanoTime() - started) / 1_000_000);
+            }
+            return rerendered;
+      }
+
+      @PreDestroy
+      public void shutdown() {
+            worker.shutdownNow();
+      }
+}
@@ -0,0 +1,47 @@
+package com.milestone.blogger.markdown;
+
+import com.milestone.blogger.util.TextUtils;
+
+/**
+ * A post's Markdown source rendered to sanitized HTML and to plain text.
+ */
+public class RenderedContent {
+
+      private final String hash;
+      private final String html;
+      private final String text;
+
+      public RenderedContent(String hash, String html, String text) {
+            this.hash = hash;
+            this.html = html;
+            this.text = text;
+      }
+
+      /**
+       * @return the SHA-256 of the source, as hex.
+       */
+      public String getHash() {
+            return hash;
+      }
+
+      /**
+       * @return the sanitized HTML, safe to write unescaped.
+       */
+      public String getHtml() {
+            return html;
+      }
+
+      /**
+       * @return the text without Markdown syntax, on one line.
+       */
+      public String getText() {
+            return text;
+      }
+
+      /**
+       * @return the list-page excerpt, taken from the plain text.
+       */
+      public String getExcerpt() {
+            return TextUtils.excerpt(text);
+      }
+}
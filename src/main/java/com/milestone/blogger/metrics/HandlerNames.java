@@ -0,0 +1,31 @@
+package com.milestone.blogger.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Names the controller method that handled a request, for metric tags.
+ */
+public final class HandlerNames {
+
+      /**
+       * Value for requests that never reached a controller, such as page cache hits and static resources.
+       */
+      public static final String NONE = "none";
+
+      private HandlerNames() {
+      }
+
+      /**
+       * @param request the current request, after handler mapping.
+       * @return the handler as {@code PostController#viewPost}, or {@link #NONE}.
+       */
+      public static String of(HttpServletRequest request) {
+            if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+                  return handler.getBeanType().getSimpleName() + "#" + handler.getMethod().getName();
+            }
+            return NONE;
+      }
+}
@@ -0,0 +1,23 @@
+package com.milestone.blogger.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds a {@code handler} tag ({@code PostController#viewPost}) to the
+ * {@code http.server.requests} metrics, so latency histograms are broken down
+ * per controller method rather than only per URI template.
+ */
+@Component
+public class HandlerObservationConvention extends DefaultServerRequestObservationConvention {
+
+      @Override
+      public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+            return super.getLowCardinalityKeyValues(context)
+                        .and(KeyValue.of("handler", HandlerNames.of(context.getCarrier())));
+      }
+}
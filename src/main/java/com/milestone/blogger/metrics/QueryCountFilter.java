@@ -0,0 +1,68 @@
+package com.milestone.blogger.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request ran, as the
+ * {@code blogger.request.queries} distribution tagged by handler.
+ * <p>
+ * Requests above {@code blogger.metrics.query-warn-threshold} are logged at
+ * WARN with their handler and URI. A count that grows with page size is the
+ * signature of an N+1 (e.g. a lazy {@code Post.user} per row) or of an
+ * unbounded {@code findAll()}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+      private static final Logger logger = LoggerFactory.getLogger(QueryCountFilter.class);
+
+      private final MeterRegistry registry;
+      private final int warnThreshold;
+
+      public QueryCountFilter(MeterRegistry registry,
+                  @Value("${blogger.metrics.query-warn-threshold:20}") int warnThreshold) {
+            this.registry = registry;
+            this.warnThreshold = warnThreshold;
+      }
+
+      @Override
+      protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                  throws ServletException, IOException {
+            QueryCounter.reset();
+            try {
+                  chain.doFilter(request, response);
+            } finally {
+                  int queries = QueryCounter.count();
+                  QueryCounter.clear();
+                  String handler = HandlerNames.of(request);
+                  DistributionSummary.builder("blogger.request.queries")
+                              .description("SQL statements run per request")
+                              .baseUnit("statements")
+                              .tag("handler", handler)
+                              .publishPercentileHistogram()
+                              .register(registry)
+                              .record(queries);
+                  if (queries > warnThreshold) {
+                        logger.warn("doFilterInternal(): {} ran {} SQL statements for {}.", handler, queries,
+                                    request.getRequestURI());
+                  }
+            }
+      }
+}
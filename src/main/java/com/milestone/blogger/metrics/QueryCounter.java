@@ -0,0 +1,51 @@
+package com.milestone.blogger.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Counts the SQL statements run on the current thread.
+ * <p>
+ * Listens on a proxy around the application's DataSource, so statements from
+ * Hibernate and from {@code JdbcTemplate} are both counted.
+ * {@link QueryCountFilter} resets it at the start of each request and reads it
+ * at the end. Requests run on one thread from start to finish, so a
+ * thread-local count is the request's count.
+ */
+public class QueryCounter implements QueryExecutionListener {
+
+      private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+      @Override
+      public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+      }
+
+      @Override
+      public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            COUNT.get()[0] += queryInfoList.size();
+      }
+
+      /**
+       * Starts counting from zero on the current thread.
+       */
+      static void reset() {
+            COUNT.get()[0] = 0;
+      }
+
+      /**
+       * @return the statements run on the current thread since {@link #reset()}.
+       */
+      static int count() {
+            return COUNT.get()[0];
+      }
+
+      /**
+       * Releases the current thread's counter.
+       */
+      static void clear() {
+            COUNT.remove();
+      }
+}
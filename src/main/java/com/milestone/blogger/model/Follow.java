@@ -0,0 +1,74 @@
+package com.milestone.blogger.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * One user following another.
+ * <p>
+ * Rows are written by {@link com.milestone.blogger.service.FollowService},
+ * which keeps the followed user's {@code followerCount} in step. The primary
+ * key, led by the follower, backs loading whom a user follows when their
+ * timeline is rebuilt; the followee index backs pushing a new post to its
+ * author's followers.
+ */
+@Entity
+@Table(name = "follow", indexes = {
+            @Index(name = "idx_follow_followee_follower", columnList = "followee_id, follower_id")
+})
+@IdClass(Follow.Key.class)
+public class Follow {
+
+      /**
+       * The ID of the user who follows.
+       */
+      @Id
+      @Column(name = "follower_id")
+      private long followerId;
+
+      /**
+       * The ID of the user being followed.
+       */
+      @Id
+      @Column(name = "followee_id")
+      private long followeeId;
+
+      /**
+       * When the follow started.
+       */
+      @Column(nullable = false)
+      private Date createdAt;
+
+      public long getFollowerId() {
+            return followerId;
+      }
+
+      public long getFolloweeId() {
+            return followeeId;
+      }
+
+      public Date getCreatedAt() {
+            return createdAt;
+      }
+
+      /**
+       * The primary key: a follower and a followee.
+       */
+      public static class Key implements Serializable {
+
+            private long followerId;
+            private long followeeId;
+
+            @Override
+            public boolean equals(Object other) {
+                  return other instanceof Key key && followerId == key.followerId && followeeId == key.followeeId;
+            }
+
+            @Override
+            public int hashCode() {
+                  return Long.hashCode(followerId) * 31 + Long.hashCode(followeeId);
+            }
+      }
+}
@@ -3,22 +3,36 @@ package com.milestone.blogger.model;
 import jakarta.persistence.*;
 import java.util.Date;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.format.annotation.DateTimeFormat;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "posts")
+@Table(indexes = {
+            // Backs the keyset-paginated feed ordered by (updatedAt, id).
+            @Index(name = "idx_post_updated_at_id", columnList = "updated_at, id"),
+            // Backs each author's feed, the same keyset scoped to one user_id.
+            @Index(name = "idx_post_user_updated_at_id", columnList = "user_id, updated_at, id"),
+            // Backs the per-author posts merged into followers' timelines, newest created first.
+            @Index(name = "idx_post_user_created_at_id", columnList = "user_id, created_at, id")
+})
 public class Post {
 
       /**
       * The unique ID of the post.
       */
       @Id
-      @GeneratedValue(strategy = GenerationType.IDENTITY)
+      @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+      @SequenceGenerator(name = "post_seq", sequenceName = "post_seq", allocationSize = 50)
       private int id;
 
       /**
        * The user who created this post.
+       * Loaded lazily; list pages read the username through {@link PostSummary} instead.
        */
-      @ManyToOne
+      @ManyToOne(fetch = FetchType.LAZY)
       @JoinColumn(name = "user_id", nullable = false)
       private User user;
 
@@ -29,11 +43,37 @@ public class Post {
       private String title;
 
       /**
-       * The content of the blog post.
+       * The content of the blog post, as Markdown.
        */
       @Column(nullable = false, columnDefinition = "TEXT")
       private String content;
 
+      /**
+       * The content rendered to sanitized HTML on write, so viewing a post
+       * never parses Markdown. Null until first rendered.
+       */
+      @Column(columnDefinition = "TEXT")
+      private String contentHtml;
+
+      /**
+       * The SHA-256 of the content {@link #contentHtml} was rendered from.
+       */
+      @Column(length = 64)
+      private String contentHash;
+
+      /**
+       * The renderer version that produced {@link #contentHtml}; posts from
+       * an older one are re-rendered in the background.
+       */
+      private Integer renderVersion;
+
+      /**
+       * A short plain-text preview of the rendered content, precomputed on
+       * write so list pages never need to read the content column.
+       */
+      @Column(nullable = false)
+      private String excerpt;
+
       /**
        * The timestamp when the post was created.
        */
@@ -48,6 +88,15 @@ public class Post {
       @DateTimeFormat(pattern = "dd MMM yyyy HH:mm")
       private Date updatedAt;
 
+      /**
+       * Incremented on every edit. Edits carry the version they started from
+       * and are refused if the post has changed since, instead of silently
+       * overwriting someone else's edit.
+       */
+      @Version
+      @Column(nullable = false)
+      private int version;
+
       // Getters and Setters
 
       public int getId() {
@@ -82,6 +131,38 @@ public class Post {
             this.content = content;
       }
 
+      public String getContentHtml() {
+            return contentHtml;
+      }
+
+      public void setContentHtml(String contentHtml) {
+            this.contentHtml = contentHtml;
+      }
+
+      public String getContentHash() {
+            return contentHash;
+      }
+
+      public void setContentHash(String contentHash) {
+            this.contentHash = contentHash;
+      }
+
+      public Integer getRenderVersion() {
+            return renderVersion;
+      }
+
+      public void setRenderVersion(Integer renderVersion) {
+            this.renderVersion = renderVersion;
+      }
+
+      public String getExcerpt() {
+            return excerpt;
+      }
+
+      public void setExcerpt(String excerpt) {
+            this.excerpt = excerpt;
+      }
+
       public Date getCreatedAt() {
             return createdAt;
       }
@@ -97,4 +178,12 @@ public class Post {
       public void setUpdatedAt(Date updatedAt) {
             this.updatedAt = updatedAt;
       }
+
+      public int getVersion() {
+            return version;
+      }
+
+      public void setVersion(int version) {
+            this.version = version;
+      }
 }
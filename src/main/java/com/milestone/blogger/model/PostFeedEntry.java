@@ -0,0 +1,68 @@
+package com.milestone.blogger.model;
+
+import java.util.Date;
+
+/**
+ * A post as an Atom feed entry: its rendered HTML and the author's username.
+ * <p>
+ * The Markdown source is only read for posts whose HTML was stored by an
+ * older renderer, so the feed can render them itself; otherwise it is null.
+ */
+public class PostFeedEntry {
+
+      private final int id;
+      private final String title;
+      private final String contentHtml;
+      private final String staleContent;
+      private final String author;
+      private final Date createdAt;
+      private final Date updatedAt;
+
+      public PostFeedEntry(int id, String title, String contentHtml, String staleContent, String author, Date createdAt,
+                  Date updatedAt) {
+            this.id = id;
+            this.title = title;
+            this.contentHtml = contentHtml;
+            this.staleContent = staleContent;
+            this.author = author;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+      }
+
+      public int getId() {
+            return id;
+      }
+
+      public String getTitle() {
+            return title;
+      }
+
+      /**
+       * @return the stored HTML, which is out of date if {@link #getStaleContent()} isn't null.
+       */
+      public String getContentHtml() {
+            return contentHtml;
+      }
+
+      /**
+       * @return the Markdown source if the stored HTML is missing or out of date, otherwise null.
+       */
+      public String getStaleContent() {
+            return staleContent;
+      }
+
+      /**
+       * @return the author's username.
+       */
+      public String getAuthor() {
+            return author;
+      }
+
+      public Date getCreatedAt() {
+            return createdAt;
+      }
+
+      public Date getUpdatedAt() {
+            return updatedAt;
+      }
+}
@@ -0,0 +1,83 @@
+package com.milestone.blogger.model;
+
+import java.util.Date;
+
+/**
+ * A post as it is exported and imported: its own columns plus the author's
+ * username, without the excerpt (which is derived from the content).
+ * <p>
+ * Mutable with a no-argument constructor so Jackson and the CSV reader can
+ * fill it field by field. On import the ID is ignored and a new one assigned.
+ */
+public class PostRecord {
+
+      private Integer id;
+      private String title;
+      private String content;
+      private String author;
+      private Date createdAt;
+      private Date updatedAt;
+
+      public PostRecord() {
+      }
+
+      public PostRecord(int id, String title, String content, String author, Date createdAt, Date updatedAt) {
+            this.id = id;
+            this.title = title;
+            this.content = content;
+            this.author = author;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+      }
+
+      public Integer getId() {
+            return id;
+      }
+
+      public void setId(Integer id) {
+            this.id = id;
+      }
+
+      public String getTitle() {
+            return title;
+      }
+
+      public void setTitle(String title) {
+            this.title = title;
+      }
+
+      public String getContent() {
+            return content;
+      }
+
+      public void setContent(String content) {
+            this.content = content;
+      }
+
+      /**
+       * @return the author's username.
+       */
+      public String getAuthor() {
+            return author;
+      }
+
+      public void setAuthor(String author) {
+            this.author = author;
+      }
+
+      public Date getCreatedAt() {
+            return createdAt;
+      }
+
+      public void setCreatedAt(Date createdAt) {
+            this.createdAt = createdAt;
+      }
+
+      public Date getUpdatedAt() {
+            return updatedAt;
+      }
+
+      public void setUpdatedAt(Date updatedAt) {
+            this.updatedAt = updatedAt;
+      }
+}
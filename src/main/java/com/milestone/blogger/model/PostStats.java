@@ -0,0 +1,30 @@
+package com.milestone.blogger.model;
+
+import java.util.Date;
+
+/**
+ * Aggregate facts about the post table: how many posts exist and when the
+ * most recent change happened. Cheap to query and changes whenever a post is
+ * created, edited or deleted, so it serves as a version stamp for the corpus.
+ */
+public class PostStats {
+
+      private final long count;
+      private final Date lastUpdated;
+
+      public PostStats(long count, Date lastUpdated) {
+            this.count = count;
+            this.lastUpdated = lastUpdated;
+      }
+
+      public long getCount() {
+            return count;
+      }
+
+      /**
+       * @return the newest updatedAt of any post, or null if there are no posts.
+       */
+      public Date getLastUpdated() {
+            return lastUpdated;
+      }
+}
@@ -0,0 +1,45 @@
+package com.milestone.blogger.model;
+
+import java.util.Date;
+
+/**
+ * Read-only view of a post for list pages.
+ * Carries only the columns the post list renders, with the author's username
+ * joined in, so listing posts never loads the full content or the author entity.
+ */
+public class PostSummary {
+
+      private final int id;
+      private final String title;
+      private final String excerpt;
+      private final Date updatedAt;
+      private final String username;
+
+      public PostSummary(int id, String title, String excerpt, Date updatedAt, String username) {
+            this.id = id;
+            this.title = title;
+            this.excerpt = excerpt;
+            this.updatedAt = updatedAt;
+            this.username = username;
+      }
+
+      public int getId() {
+            return id;
+      }
+
+      public String getTitle() {
+            return title;
+      }
+
+      public String getExcerpt() {
+            return excerpt;
+      }
+
+      public Date getUpdatedAt() {
+            return updatedAt;
+      }
+
+      public String getUsername() {
+            return username;
+      }
+}
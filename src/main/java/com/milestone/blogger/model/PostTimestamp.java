@@ -0,0 +1,25 @@
+package com.milestone.blogger.model;
+
+import java.util.Date;
+
+/**
+ * A post's ID and last update time, all a sitemap entry needs.
+ */
+public class PostTimestamp {
+
+      private final int id;
+      private final Date updatedAt;
+
+      public PostTimestamp(int id, Date updatedAt) {
+            this.id = id;
+            this.updatedAt = updatedAt;
+      }
+
+      public int getId() {
+            return id;
+      }
+
+      public Date getUpdatedAt() {
+            return updatedAt;
+      }
+}
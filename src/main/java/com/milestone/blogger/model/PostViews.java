@@ -0,0 +1,76 @@
+package com.milestone.blogger.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * How many times a post was viewed on one day (UTC).
+ * <p>
+ * Rows are written only by {@link com.milestone.blogger.views.ViewCounter}'s
+ * batched upserts, which add to the day's count; the entity exists so the
+ * table is part of the schema. Per-day rows let the "most read this week"
+ * ranking be rebuilt from one week's rows on startup.
+ */
+@Entity
+@Table(name = "post_views", indexes = {
+            // Backs the startup scan of the last week's rows.
+            @Index(name = "idx_post_views_viewed_on", columnList = "viewed_on")
+})
+@IdClass(PostViews.Key.class)
+public class PostViews {
+
+      /**
+       * The viewed post. Not a foreign key: counts are written in the
+       * background and may arrive after the post is deleted.
+       */
+      @Id
+      @Column(name = "post_id")
+      private int postId;
+
+      /**
+       * The day the views happened.
+       */
+      @Id
+      @Column(name = "viewed_on")
+      private LocalDate viewedOn;
+
+      /**
+       * The number of views that day.
+       */
+      @Column(nullable = false)
+      private long views;
+
+      public int getPostId() {
+            return postId;
+      }
+
+      public LocalDate getViewedOn() {
+            return viewedOn;
+      }
+
+      public long getViews() {
+            return views;
+      }
+
+      /**
+       * The primary key: a post and a day.
+       */
+      public static class Key implements Serializable {
+
+            private int postId;
+            private LocalDate viewedOn;
+
+            @Override
+            public boolean equals(Object other) {
+                  return other instanceof Key key && postId == key.postId && Objects.equals(viewedOn, key.viewedOn);
+            }
+
+            @Override
+            public int hashCode() {
+                  return Objects.hash(postId, viewedOn);
+            }
+      }
+}
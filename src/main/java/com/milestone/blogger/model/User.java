@@ -3,17 +3,24 @@ package com.milestone.blogger.model;
 import jakarta.persistence.*;
 import java.util.Date;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
 /**
  * Represents a user in the Blogging application.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User {
 
     /**
      * The unique ID of the user.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -45,6 +52,28 @@ public class User {
      */
     private Date datejoined;
 
+    /**
+     * The number of posts the user has written.
+     * Denormalized and maintained on every post write, so author pages never count posts.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int postCount;
+
+    /**
+     * When the user last created, edited or deleted a post, or null if never.
+     */
+    private Date lastActiveAt;
+
+    /**
+     * The number of users following this one.
+     * Denormalized and maintained on every follow, so timelines can tell
+     * without a count which authors have too many followers to push posts to.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int followerCount;
+
     // Getters and Setters
 
     public String getUsername() {
@@ -87,6 +116,30 @@ public class User {
         this.id = id;
     }
 
+    public int getPostCount() {
+        return postCount;
+    }
+
+    public void setPostCount(int postCount) {
+        this.postCount = postCount;
+    }
+
+    public Date getLastActiveAt() {
+        return lastActiveAt;
+    }
+
+    public void setLastActiveAt(Date lastActiveAt) {
+        this.lastActiveAt = lastActiveAt;
+    }
+
+    public int getFollowerCount() {
+        return followerCount;
+    }
+
+    public void setFollowerCount(int followerCount) {
+        this.followerCount = followerCount;
+    }
+
     public String getRole() {
         return role;
     }
@@ -0,0 +1,63 @@
+package com.milestone.blogger.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque keyset ("seek") cursor into the post feed.
+ * A cursor remembers the sort key of a boundary row, (updatedAt, id), so the
+ * next query can seek directly past it instead of counting rows with OFFSET.
+ */
+public final class PostCursor {
+
+      private final Date updatedAt;
+      private final int id;
+
+      public PostCursor(Date updatedAt, int id) {
+            this.updatedAt = updatedAt;
+            this.id = id;
+      }
+
+      public Date getUpdatedAt() {
+            return updatedAt;
+      }
+
+      public int getId() {
+            return id;
+      }
+
+      /**
+       * Encodes this cursor as a URL-safe token.
+       *
+       * @return the opaque cursor token.
+       */
+      public String encode() {
+            String raw = updatedAt.getTime() + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+      }
+
+      /**
+       * Decodes a token produced by {@link #encode()}.
+       *
+       * @param token the opaque cursor token, may be null or blank.
+       * @return the decoded cursor, or null if the token is missing or malformed.
+       */
+      public static PostCursor decode(String token) {
+            if (token == null || token.isBlank()) {
+                  return null;
+            }
+            try {
+                  String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                  int separator = raw.indexOf(':');
+                  if (separator < 0) {
+                        return null;
+                  }
+                  long millis = Long.parseLong(raw.substring(0, separator));
+                  int id = Integer.parseInt(raw.substring(separator + 1));
+                  return new PostCursor(new Date(millis), id);
+            } catch (IllegalArgumentException e) {
+                  return null;
+            }
+      }
+}
@@ -0,0 +1,43 @@
+package com.milestone.blogger.pagination;
+
+import java.util.List;
+
+/**
+ * One page of the post feed together with the cursors needed to move
+ * to the neighbouring pages.
+ *
+ * @param <T> the type of the rows on the page.
+ */
+public class PostPage<T> {
+
+      private final List<T> items;
+      private final String nextCursor;
+      private final String previousCursor;
+
+      public PostPage(List<T> items, String nextCursor, String previousCursor) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+            this.previousCursor = previousCursor;
+      }
+
+      /**
+       * @return the rows on this page, newest first.
+       */
+      public List<T> getItems() {
+            return items;
+      }
+
+      /**
+       * @return the cursor for the page of older posts, or null if this is the last page.
+       */
+      public String getNextCursor() {
+            return nextCursor;
+      }
+
+      /**
+       * @return the cursor for the page of newer posts, or null if this is the first page.
+       */
+      public String getPreviousCursor() {
+            return previousCursor;
+      }
+}
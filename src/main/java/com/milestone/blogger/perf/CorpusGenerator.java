@@ -0,0 +1,234 @@
+package com.milestone.blogger.perf;
+
+import com.milestone.blogger.markdown.MarkdownRenderer;
+import com.milestone.blogger.markdown.RenderedContent;
+import com.milestone.blogger.repository.IdSequenceAligner;
+import com.milestone.blogger.service.AuthorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills an empty database with a synthetic corpus of users and posts for
+ * production-scale testing under the {@code perf} profile.
+ * <p>
+ * Rows are generated on the fly and inserted in fixed-size JDBC batches, so
+ * memory use doesn't grow with the corpus size. Output is deterministic for a
+ * given seed:
+ * <ul>
+ * <li>Content length is log-normal, so most posts are short and a few are very long.</li>
+ * <li>Word choice is skewed toward common words, which gives search realistic posting-list lengths.</li>
+ * <li>Authorship is skewed, so a few users write most of the posts.</li>
+ * <li>Posts are spread over the last two years, and some are edited after creation.</li>
+ * <li>Content is Markdown with some emphasis and links, rendered as it is written, so
+ * {@link com.milestone.blogger.markdown.MarkdownRerenderer} finds nothing to do on startup.</li>
+ * </ul>
+ * Every user is {@code user<n>} with the password {@code blogger.perf.password},
+ * so load tests can log in as any of them.
+ * <p>
+ * Runs before the application reports ready, and does nothing if the database
+ * already has posts.
+ */
+@Component
+@Profile("perf")
+public class CorpusGenerator implements ApplicationRunner {
+
+      private static final Logger logger = LoggerFactory.getLogger(CorpusGenerator.class);
+
+      private static final String[] WORDS = ("the of and to a in is it you that he was for on are with as his they be at one "
+                  + "have this from or had by hot word but what some we can out other were all there when up use your how "
+                  + "said an each she which do their time if will way about many then them write would like so these her "
+                  + "long make thing see him two has look more day could go come did number sound no most people my over "
+                  + "know water than call first who may down side been now find any new work part take get place made live "
+                  + "where after back little only round man year came show every good me give our under name very through "
+                  + "just form sentence great think say help low line differ turn cause much mean before move right boy old "
+                  + "too same tell does set three want air well also play small end put home read hand port large spell add "
+                  + "even land here must big high such follow act why ask men change went light kind off need house picture "
+                  + "try us again animal point mother world near build self earth father java spring database cache latency "
+                  + "thread query index server request memory garden recipe travel mountain coffee music guitar camera ocean").split(" ");
+
+      private static final long TWO_YEARS_MS = TimeUnit.DAYS.toMillis(730);
+
+      private final JdbcTemplate jdbcTemplate;
+      private final AuthorService authorService;
+      private final IdSequenceAligner idSequenceAligner;
+      private final MarkdownRenderer markdownRenderer;
+      private final int users;
+      private final int posts;
+      private final int batchSize;
+      private final long seed;
+      private final String password;
+      private final int bcryptStrength;
+
+      public CorpusGenerator(JdbcTemplate jdbcTemplate, AuthorService authorService, IdSequenceAligner idSequenceAligner,
+                  MarkdownRenderer markdownRenderer,
+                  @Value("${blogger.perf.users:100000}") int users,
+                  @Value("${blogger.perf.posts:1000000}") int posts,
+                  @Value("${blogger.perf.batch-size:5000}") int batchSize,
+                  @Value("${blogger.perf.seed:42}") long seed,
+                  @Value("${blogger.perf.password:perf-password}") String password,
+                  @Value("${blogger.password.bcrypt-strength:10}") int bcryptStrength) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.authorService = authorService;
+            this.idSequenceAligner = idSequenceAligner;
+            this.markdownRenderer = markdownRenderer;
+            this.users = users;
+            this.posts = posts;
+            this.batchSize = batchSize;
+            this.seed = seed;
+            this.password = password;
+            this.bcryptStrength = bcryptStrength;
+      }
+
+      @Override
+      public void run(ApplicationArguments args) {
+            Long existing = jdbcTemplate.queryForObject("select count(*) from post", Long.class);
+            if (existing != null && existing > 0) {
+                  logger.info("run(): Database already has {} posts, skipping corpus generation.", existing);
+                  return;
+            }
+            long started = System.nanoTime();
+            SplittableRandom random = new SplittableRandom(seed);
+            long firstUserId = generateUsers(random);
+            generatePosts(random, firstUserId);
+            // IDs were written directly, so move the ID sequences past them.
+            idSequenceAligner.align();
+            // Posts were inserted behind the application's back, so fill in the authors' counters.
+            authorService.reconcileCounters();
+            logger.info("run(): Generated {} users and {} posts in {} s.", users, posts,
+                        TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+      }
+
+      private long generateUsers(SplittableRandom random) {
+            // One hash for everyone; hashing a million passwords would take hours.
+            String passwordHash = new BCryptPasswordEncoder(bcryptStrength).encode(password);
+            long now = System.currentTimeMillis();
+            long firstId = nextId("user");
+            List<Object[]> batch = new ArrayList<>(batchSize);
+            for (int i = 1; i <= users; i++) {
+                  Timestamp joined = new Timestamp(now - TWO_YEARS_MS - random.nextLong(TWO_YEARS_MS));
+                  batch.add(new Object[] { firstId + i - 1, "user" + i, "user" + i + "@example.com", passwordHash, "user", joined });
+                  if (batch.size() == batchSize || i == users) {
+                        jdbcTemplate.batchUpdate("insert into user (id, username, email, password_hash, role, datejoined) "
+                                    + "values (?, ?, ?, ?, ?, ?)", batch);
+                        batch.clear();
+                  }
+            }
+            return firstId;
+      }
+
+      /**
+       * Finds the first free ID in a table. IDs are assigned here rather than
+       * by the database because the columns have no auto-increment; the
+       * application takes them from sequences.
+       */
+      private long nextId(String table) {
+            Long max = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+            return max == null ? 1 : max + 1;
+      }
+
+      private void generatePosts(SplittableRandom random, long firstUserId) {
+            long end = System.currentTimeMillis();
+            long start = end - TWO_YEARS_MS;
+            long started = System.nanoTime();
+            long firstId = nextId("post");
+            List<Object[]> batch = new ArrayList<>(batchSize);
+            for (int i = 1; i <= posts; i++) {
+                  // Creation times rise with the row number, with jitter, like a real posting history.
+                  long createdAt = start + (long) ((double) i / posts * TWO_YEARS_MS) - random.nextLong(TimeUnit.HOURS.toMillis(6));
+                  long updatedAt = random.nextInt(10) == 0
+                              ? Math.min(end, createdAt + random.nextLong(TimeUnit.DAYS.toMillis(30)))
+                              : createdAt;
+                  String content = content(random);
+                  RenderedContent rendered = markdownRenderer.render(content);
+                  batch.add(new Object[] { firstId + i - 1, firstUserId + author(random), title(random), content,
+                              rendered.getHtml(), rendered.getHash(), MarkdownRenderer.RENDERER_VERSION, rendered.getExcerpt(),
+                              new Timestamp(createdAt), new Timestamp(updatedAt), 0 });
+                  if (batch.size() == batchSize || i == posts) {
+                        jdbcTemplate.batchUpdate("insert into post (id, user_id, title, content, content_html, content_hash, "
+                                    + "render_version, excerpt, created_at, updated_at, version) "
+                                    + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                        batch.clear();
+                  }
+                  if (i % 100_000 == 0) {
+                        double seconds = (System.nanoTime() - started) / 1e9;
+                        logger.info("generatePosts(): {} of {} posts ({} posts/s).", i, posts, (long) (i / seconds));
+                  }
+            }
+      }
+
+      /**
+       * Picks an author index with a heavy skew toward the first users.
+       */
+      private int author(SplittableRandom random) {
+            return (int) (Math.pow(random.nextDouble(), 3) * users);
+      }
+
+      private String title(SplittableRandom random) {
+            StringBuilder title = new StringBuilder();
+            int words = 3 + random.nextInt(10);
+            for (int w = 0; w < words; w++) {
+                  String word = word(random);
+                  title.append(w == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : " " + word);
+            }
+            return title.toString();
+      }
+
+      /**
+       * Builds Markdown post content with a log-normal length, a median of
+       * about 1,200 characters and a cap of 30,000. About one word in 40 is
+       * emphasized and one in 200 is a link.
+       */
+      private String content(SplittableRandom random) {
+            double gaussian = gaussian(random);
+            int length = (int) Math.min(30_000, Math.max(40, Math.exp(Math.log(1200) + 0.8 * gaussian)));
+            StringBuilder content = new StringBuilder(length + 16);
+            int wordsInParagraph = 0;
+            int paragraphLength = 60 + random.nextInt(60);
+            while (content.length() < length) {
+                  if (wordsInParagraph == paragraphLength) {
+                        content.append(".\r\n\r\n");
+                        wordsInParagraph = 0;
+                        paragraphLength = 60 + random.nextInt(60);
+                  } else if (wordsInParagraph > 0) {
+                        content.append(' ');
+                  }
+                  String word = word(random);
+                  int markup = random.nextInt(200);
+                  if (markup < 5) {
+                        content.append("**").append(word).append("**");
+                  } else if (markup == 5) {
+                        content.append('[').append(word).append("](https://example.com/").append(word).append(')');
+                  } else {
+                        content.append(word);
+                  }
+                  wordsInParagraph++;
+            }
+            return content.append('.').toString();
+      }
+
+      /**
+       * Picks a word, favoring the front of the list like natural word frequencies.
+       */
+      private static String word(SplittableRandom random) {
+            return WORDS[(int) (Math.pow(random.nextDouble(), 2.5) * WORDS.length)];
+      }
+
+      private static double gaussian(SplittableRandom random) {
+            // Box-Muller; SplittableRandom has no nextGaussian.
+            return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+      }
+}
@@ -0,0 +1,22 @@
+package com.milestone.blogger.repository;
+
+import com.milestone.blogger.model.Follow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for reading follows. Follows are written by
+ * {@link com.milestone.blogger.service.FollowService}.
+ */
+@Repository
+public interface FollowRepository extends JpaRepository<Follow, Follow.Key> {
+
+    /**
+     * Checks whether one user follows another, from the primary key.
+     *
+     * @param followerId the ID of the user who may follow.
+     * @param followeeId the ID of the user who may be followed.
+     * @return true if the follow exists.
+     */
+    boolean existsByFollowerIdAndFolloweeId(long followerId, long followeeId);
+}
@@ -0,0 +1,74 @@
+package com.milestone.blogger.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the {@code post_seq} and {@code user_seq} ID generators past the
+ * highest existing ID.
+ * <p>
+ * Posts and users take IDs from pooled sequences so Hibernate can batch
+ * inserts. Rows created under the old auto-increment columns, or bulk-loaded
+ * with explicit IDs, would otherwise collide with newly allocated IDs. Runs
+ * once on startup, before the web server accepts requests, and again after
+ * any bulk load that writes IDs directly.
+ * <p>
+ * Databases with sequences (H2) restart the sequence. MySQL has no sequences,
+ * so Hibernate keeps each one in a single-row {@code next_val} table, which is
+ * moved forward with a guarded UPDATE.
+ */
+@Component
+public class IdSequenceAligner implements SmartInitializingSingleton {
+
+      private static final Logger logger = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+      // Sequence -> table whose IDs it allocates.
+      private static final Map<String, String> SEQUENCES = Map.of("post_seq", "post", "user_seq", "user");
+
+      private final JdbcTemplate jdbcTemplate;
+      private final Dialect dialect;
+
+      public IdSequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+      }
+
+      @Override
+      public void afterSingletonsInstantiated() {
+            align();
+      }
+
+      /**
+       * Ensures every sequence's next value is above its table's highest ID.
+       */
+      public void align() {
+            SEQUENCES.forEach(this::align);
+      }
+
+      private void align(String sequence, String table) {
+            Long max = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+            if (max == null) {
+                  return;
+            }
+            long next = max + 1;
+            if (dialect.getSequenceSupport().supportsSequences()) {
+                  // Reading the next value consumes one pooled block, which is harmless.
+                  Long current = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+                  if (current != null && current < next) {
+                        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + next);
+                        logger.info("align(): Restarted {} at {}.", sequence, next);
+                  }
+            } else if (jdbcTemplate.update("update " + sequence + " set next_val = ? where next_val < ?", next, next) > 0) {
+                  logger.info("align(): Moved {} to {}.", sequence, next);
+            }
+      }
+}
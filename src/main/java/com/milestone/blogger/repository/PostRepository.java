@@ -1,11 +1,249 @@
 package com.milestone.blogger.repository;
 
+import com.milestone.blogger.markdown.MarkdownRenderer;
 import com.milestone.blogger.model.Post;
+import com.milestone.blogger.model.PostFeedEntry;
+import com.milestone.blogger.model.PostRecord;
+import com.milestone.blogger.model.PostStats;
+import com.milestone.blogger.model.PostSummary;
+import com.milestone.blogger.model.PostTimestamp;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * Repository interface for accessing and managing post data.
+ * <p>
+ * Feed queries use keyset pagination ordered by (updatedAt, id), backed by the
+ * {@code idx_post_updated_at_id} index ({@code idx_post_user_updated_at_id}
+ * for a single author's posts), so every page costs the same
+ * regardless of how deep into the feed it is. They return {@link PostSummary}
+ * rows with the author's username joined in, so a page is a single statement
+ * that never reads the content column.
+ * <p>
+ * The {@code stream} queries feed the Atom feeds and sitemaps. They read
+ * through a forward-only cursor {@value #STREAM_FETCH_SIZE} rows at a time
+ * into unmanaged projections, so memory use doesn't depend on how many rows
+ * there are. They must be consumed inside a transaction, and the stream closed.
  */
 @Repository
-public interface PostRepository extends JpaRepository<Post, Integer> {}
+public interface PostRepository extends JpaRepository<Post, Integer> {
+
+    /**
+     * Rows fetched per round trip by the streaming queries.
+     */
+    int STREAM_FETCH_SIZE = 200;
+
+    /**
+     * The {@link PostFeedEntry} constructor arguments. The Markdown source is
+     * only selected where the stored HTML is missing or out of date.
+     */
+    String FEED_ENTRY_COLUMNS = "p.id, p.title, p.contentHtml, case when p.renderVersion = "
+            + MarkdownRenderer.RENDERER_VERSION + " and p.contentHtml is not null then null else p.content end, "
+            + "u.username, p.createdAt, p.updatedAt";
+
+    /**
+     * Finds the newest posts.
+     *
+     * @param limit the maximum number of posts to return.
+     * @return the newest posts, ordered by updatedAt then id, descending.
+     */
+    @Query("select new com.milestone.blogger.model.PostSummary(p.id, p.title, p.excerpt, p.updatedAt, u.username) "
+            + "from Post p join p.user u order by p.updatedAt desc, p.id desc")
+    List<PostSummary> findLatest(Limit limit);
+
+    /**
+     * Finds the posts that come after the given cursor position in the feed.
+     *
+     * @param updatedAt the updatedAt of the last post on the current page.
+     * @param id        the id of the last post on the current page.
+     * @param limit     the maximum number of posts to return.
+     * @return older posts, ordered by updatedAt then id, descending.
+     */
+    @Query("select new com.milestone.blogger.model.PostSummary(p.id, p.title, p.excerpt, p.updatedAt, u.username) "
+            + "from Post p join p.user u "
+            + "where p.updatedAt < :updatedAt or (p.updatedAt = :updatedAt and p.id < :id) "
+            + "order by p.updatedAt desc, p.id desc")
+    List<PostSummary> findOlderThan(@Param("updatedAt") Date updatedAt, @Param("id") int id, Limit limit);
+
+    /**
+     * Finds the posts that come before the given cursor position in the feed.
+     *
+     * @param updatedAt the updatedAt of the first post on the current page.
+     * @param id        the id of the first post on the current page.
+     * @param limit     the maximum number of posts to return.
+     * @return newer posts, ordered by updatedAt then id, ascending (closest first).
+     */
+    @Query("select new com.milestone.blogger.model.PostSummary(p.id, p.title, p.excerpt, p.updatedAt, u.username) "
+            + "from Post p join p.user u "
+            + "where p.updatedAt > :updatedAt or (p.updatedAt = :updatedAt and p.id > :id) "
+            + "order by p.updatedAt asc, p.id asc")
+    List<PostSummary> findNewerThan(@Param("updatedAt") Date updatedAt, @Param("id") int id, Limit limit);
+
+    /**
+     * Finds an author's newest posts.
+     *
+     * @param userId the author's ID.
+     * @param limit  the maximum number of posts to return.
+     * @return the author's newest posts, ordered by updatedAt then id, descending.
+     */
+    @Query("select new com.milestone.blogger.model.PostSummary(p.id, p.title, p.excerpt, p.updatedAt, u.username) "
+            + "from Post p join p.user u where p.user.id = :userId order by p.updatedAt desc, p.id desc")
+    List<PostSummary> findLatestByUser(@Param("userId") long userId, Limit limit);
+
+    /**
+     * Finds an author's posts that come after the given cursor position in their feed.
+     *
+     * @param userId    the author's ID.
+     * @param updatedAt the updatedAt of the last post on the current page.
+     * @param id        the id of the last post on the current page.
+     * @param limit     the maximum number of posts to return.
+     * @return older posts by the author, ordered by updatedAt then id, descending.
+     */
+    @Query("select new com.milestone.blogger.model.PostSummary(p.id, p.title, p.excerpt, p.updatedAt, u.username) "
+            + "from Post p join p.user u "
+            + "where p.user.id = :userId and (p.updatedAt < :updatedAt or (p.updatedAt = :updatedAt and p.id < :id)) "
+            + "order by p.updatedAt desc, p.id desc")
+    List<PostSummary> findOlderThanByUser(@Param("userId") long userId, @Param("updatedAt") Date updatedAt,
+            @Param("id") int id, Limit limit);
+
+    /**
+     * Finds an author's posts that come before the given cursor position in their feed.
+     *
+     * @param userId    the author's ID.
+     * @param updatedAt the updatedAt of the first post on the current page.
+     * @param id        the id of the first post on the current page.
+     * @param limit     the maximum number of posts to return.
+     * @return newer posts by the author, ordered by updatedAt then id, ascending (closest first).
+     */
+    @Query("select new com.milestone.blogger.model.PostSummary(p.id, p.title, p.excerpt, p.updatedAt, u.username) "
+            + "from Post p join p.user u "
+            + "where p.user.id = :userId and (p.updatedAt > :updatedAt or (p.updatedAt = :updatedAt and p.id > :id)) "
+            + "order by p.updatedAt asc, p.id asc")
+    List<PostSummary> findNewerThanByUser(@Param("userId") long userId, @Param("updatedAt") Date updatedAt,
+            @Param("id") int id, Limit limit);
+
+    /**
+     * Finds a post with its author in one statement, bypassing the
+     * second-level cache, to answer a write with the row just written.
+     *
+     * @param id the ID of the post.
+     * @return the post with its author loaded, or empty if it doesn't exist.
+     */
+    @Query("select p from Post p join fetch p.user where p.id = :id")
+    Optional<Post> findWithUserById(@Param("id") int id);
+
+    /**
+     * Finds the summaries of the given posts, in no particular order.
+     *
+     * @param ids the IDs of the posts.
+     * @return the summaries of the posts that exist.
+     */
+    @Query("select new com.milestone.blogger.model.PostSummary(p.id, p.title, p.excerpt, p.updatedAt, u.username) "
+            + "from Post p join p.user u where p.id in :ids")
+    List<PostSummary> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Finds the given posts with their content, in no particular order, to
+     * fill in a page of summaries when an API client asks for the content.
+     *
+     * @param ids the IDs of the posts.
+     * @return records for the posts that exist.
+     */
+    @Query("select new com.milestone.blogger.model.PostRecord(p.id, p.title, p.content, u.username, p.createdAt, p.updatedAt) "
+            + "from Post p join p.user u where p.id in :ids")
+    List<PostRecord> findRecordsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Finds the next batch of posts in id order, for walking the whole table.
+     *
+     * @param id    the last id of the previous batch, or -1 to start.
+     * @param limit the batch size.
+     * @return posts with an id greater than the given one, ascending.
+     */
+    @Query("select p from Post p where p.id > :id order by p.id")
+    List<Post> findBatchAfter(@Param("id") int id, Limit limit);
+
+    /**
+     * Finds the next batch of posts in id order as export records, for
+     * streaming the whole table without holding it in memory.
+     *
+     * @param id    the last id of the previous batch, or -1 to start.
+     * @param limit the batch size.
+     * @return records for posts with an id greater than the given one, ascending.
+     */
+    @Query("select new com.milestone.blogger.model.PostRecord(p.id, p.title, p.content, u.username, p.createdAt, p.updatedAt) "
+            + "from Post p join p.user u where p.id > :id order by p.id")
+    List<PostRecord> findRecordsAfter(@Param("id") int id, Limit limit);
+
+    /**
+     * Streams the newest posts with their HTML, for the site's Atom feed.
+     *
+     * @param limit the maximum number of posts to return.
+     * @return the newest posts, ordered by updatedAt then id, descending.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("select new com.milestone.blogger.model.PostFeedEntry(" + FEED_ENTRY_COLUMNS + ") "
+            + "from Post p join p.user u order by p.updatedAt desc, p.id desc")
+    Stream<PostFeedEntry> streamLatest(Limit limit);
+
+    /**
+     * Streams an author's newest posts with their HTML, for their Atom feed.
+     *
+     * @param userId the author's ID.
+     * @param limit  the maximum number of posts to return.
+     * @return the author's newest posts, ordered by updatedAt then id, descending.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("select new com.milestone.blogger.model.PostFeedEntry(" + FEED_ENTRY_COLUMNS + ") "
+            + "from Post p join p.user u where p.user.id = :userId order by p.updatedAt desc, p.id desc")
+    Stream<PostFeedEntry> streamLatestByUser(@Param("userId") long userId, Limit limit);
+
+    /**
+     * Streams the IDs and update times of the posts in an ID range, for one sitemap file.
+     *
+     * @param fromId the lowest ID, inclusive.
+     * @param toId   the highest ID, exclusive.
+     * @return the posts in the range, in id order.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("select new com.milestone.blogger.model.PostTimestamp(p.id, p.updatedAt) "
+            + "from Post p where p.id >= :fromId and p.id < :toId order by p.id")
+    Stream<PostTimestamp> streamTimestampsBetween(@Param("fromId") int fromId, @Param("toId") int toId);
+
+    /**
+     * Finds the highest post ID, read from the end of the primary key.
+     *
+     * @return the highest ID, or null if there are no posts.
+     */
+    @Query("select max(p.id) from Post p")
+    Integer findMaxId();
+
+    /**
+     * Counts posts and finds the newest update time in one aggregate query.
+     *
+     * @return the post count and newest updatedAt.
+     */
+    @Query("select new com.milestone.blogger.model.PostStats(count(p), max(p.updatedAt)) from Post p")
+    PostStats findStats();
+
+    /**
+     * Finds only the last update time of a post, for HTTP validators.
+     *
+     * @param id the ID of the post.
+     * @return the post's updatedAt, or empty if the post doesn't exist.
+     */
+    @Query("select p.updatedAt from Post p where p.id = :id")
+    Optional<Date> findUpdatedAtById(@Param("id") int id);
+}
@@ -1,29 +1,75 @@
 package com.milestone.blogger.repository;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.milestone.blogger.model.User;
+import jakarta.persistence.QueryHint;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for accessing and managing user data.
+ * <p>
+ * Lookups by username go through the Hibernate query cache; the
+ * matching user then comes from the {@code users} entity region. Any write
+ * to the user table invalidates the cached lookups when it commits.
+ * <p>
+ * The {@code stream} queries read only the unique username and email
+ * indexes, {@value #STREAM_FETCH_SIZE} rows at a time, to build the
+ * availability filter. They must be consumed inside a transaction, and the
+ * stream closed.
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * Rows fetched per round trip by the streaming queries.
+     */
+    int STREAM_FETCH_SIZE = 1000;
+
     /**
      * Finds a user by their username.
      *
      * @param username the username to search for.
      * @return an {@link Optional} containing the user if found, or empty otherwise.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsername(String username);
 
     /**
-     * Finds a user by their email address.
+     * Checks a username and an email against the existing users in one query,
+     * comparing with the database's own collation.
      *
-     * @param email the email to search for.
-     * @return an {@link Optional} containing the user if found, or empty otherwise.
+     * @param username the username to look for.
+     * @param email    the email to look for.
+     * @return one row per matching user (at most two), each holding whether
+     *         its username and whether its email matched.
+     */
+    @Query("select case when u.username = :username then true else false end, "
+            + "case when u.email = :email then true else false end "
+            + "from User u where u.username = :username or u.email = :email")
+    List<Object[]> findMatches(@Param("username") String username, @Param("email") String email);
+
+    /**
+     * Streams every username.
+     *
+     * @return all usernames, in no particular order.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("select u.username from User u")
+    Stream<String> streamUsernames();
+
+    /**
+     * Streams every email address.
+     *
+     * @return all emails, in no particular order.
      */
-    Optional<User> findByEmail(String email);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("select u.email from User u")
+    Stream<String> streamEmails();
 }
@@ -0,0 +1,110 @@
+package com.milestone.blogger.search;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads and writes the tokenized corpus to a local file.
+ * <p>
+ * Layout: magic, version, document count, then per document its id,
+ * updatedAt, length and (term, frequency) pairs. Snapshots are written to a
+ * temporary file and moved into place so a crash never leaves a torn file,
+ * and read through a memory-mapped buffer.
+ */
+final class IndexSnapshot {
+
+      private static final int MAGIC = 0x42534958; // "BSIX"
+      private static final int VERSION = 1;
+
+      private IndexSnapshot() {
+      }
+
+      /**
+       * Writes a snapshot.
+       *
+       * @param path      the snapshot file.
+       * @param documents the documents to persist.
+       * @throws IOException if the file cannot be written.
+       */
+      static void write(Path path, Collection<IndexedDocument> documents) throws IOException {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                  out.writeInt(MAGIC);
+                  out.writeInt(VERSION);
+                  out.writeInt(documents.size());
+                  for (IndexedDocument document : documents) {
+                        out.writeInt(document.id());
+                        out.writeLong(document.updatedAt());
+                        out.writeInt(document.length());
+                        String[] terms = document.terms();
+                        int[] frequencies = document.frequencies();
+                        out.writeInt(terms.length);
+                        for (int i = 0; i < terms.length; i++) {
+                              byte[] bytes = terms[i].getBytes(StandardCharsets.UTF_8);
+                              out.writeShort(bytes.length);
+                              out.write(bytes);
+                              out.writeInt(frequencies[i]);
+                        }
+                  }
+            } catch (IOException e) {
+                  Files.deleteIfExists(temp);
+                  throw e;
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+
+      /**
+       * Reads a snapshot.
+       *
+       * @param path the snapshot file.
+       * @return the persisted documents.
+       * @throws IOException if the file is missing, unreadable or corrupt.
+       */
+      static List<IndexedDocument> read(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                  MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                  if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                        throw new IOException("Unrecognised search snapshot format: " + path);
+                  }
+
+                  int documentCount = buffer.getInt();
+                  List<IndexedDocument> documents = new ArrayList<>(documentCount);
+                  byte[] scratch = new byte[Tokenizer.MAX_TERM_LENGTH * 4];
+                  for (int d = 0; d < documentCount; d++) {
+                        int id = buffer.getInt();
+                        long updatedAt = buffer.getLong();
+                        int length = buffer.getInt();
+                        int termCount = buffer.getInt();
+                        String[] terms = new String[termCount];
+                        int[] frequencies = new int[termCount];
+                        for (int t = 0; t < termCount; t++) {
+                              int size = buffer.getShort();
+                              if (size < 0 || size > scratch.length) {
+                                    throw new IOException("Corrupt search snapshot: " + path);
+                              }
+                              buffer.get(scratch, 0, size);
+                              terms[t] = new String(scratch, 0, size, StandardCharsets.UTF_8);
+                              frequencies[t] = buffer.getInt();
+                        }
+                        documents.add(new IndexedDocument(id, updatedAt, length, terms, frequencies));
+                  }
+                  return documents;
+            } catch (BufferUnderflowException e) {
+                  throw new IOException("Truncated search snapshot: " + path, e);
+            }
+      }
+}
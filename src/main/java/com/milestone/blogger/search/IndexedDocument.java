@@ -0,0 +1,85 @@
+package com.milestone.blogger.search;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The tokenized form of one post: its distinct terms with their frequencies.
+ * This is what the index keeps per document and what snapshots persist, so a
+ * restart can rebuild postings without tokenizing the corpus again.
+ */
+final class IndexedDocument {
+
+      /**
+       * Each title occurrence counts this many times, so title matches rank higher.
+       */
+      static final int TITLE_WEIGHT = 3;
+
+      private final int id;
+      private final long updatedAt;
+      private final int length;
+      private final String[] terms;
+      private final int[] frequencies;
+
+      IndexedDocument(int id, long updatedAt, int length, String[] terms, int[] frequencies) {
+            this.id = id;
+            this.updatedAt = updatedAt;
+            this.length = length;
+            this.terms = terms;
+            this.frequencies = frequencies;
+      }
+
+      /**
+       * Tokenizes a post's title and content.
+       *
+       * @param id        the post id.
+       * @param updatedAt the post's last update time in epoch millis.
+       * @param title     the post title.
+       * @param content   the post content.
+       * @return the indexed form of the post.
+       */
+      static IndexedDocument of(int id, long updatedAt, String title, String content) {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            int length = 0;
+            for (String term : Tokenizer.tokenize(title)) {
+                  counts.merge(term, TITLE_WEIGHT, Integer::sum);
+                  length += TITLE_WEIGHT;
+            }
+            for (String term : Tokenizer.tokenize(content)) {
+                  counts.merge(term, 1, Integer::sum);
+                  length++;
+            }
+
+            String[] terms = new String[counts.size()];
+            int[] frequencies = new int[counts.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                  terms[i] = entry.getKey();
+                  frequencies[i++] = entry.getValue();
+            }
+            return new IndexedDocument(id, updatedAt, length, terms, frequencies);
+      }
+
+      int id() {
+            return id;
+      }
+
+      long updatedAt() {
+            return updatedAt;
+      }
+
+      /**
+       * @return the weighted number of terms in the document, used for BM25 length normalisation.
+       */
+      int length() {
+            return length;
+      }
+
+      String[] terms() {
+            return terms;
+      }
+
+      int[] frequencies() {
+            return frequencies;
+      }
+}
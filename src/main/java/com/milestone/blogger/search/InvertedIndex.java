@@ -0,0 +1,129 @@
+package com.milestone.blogger.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Term to postings map with Okapi BM25 ranking.
+ * <p>
+ * Not thread-safe; {@link PostSearchService} allows concurrent searches but
+ * serialises changes.
+ */
+final class InvertedIndex {
+
+      private static final double K1 = 1.2;
+      private static final double B = 0.75;
+
+      private final Map<String, PostingsList> postings = new HashMap<>();
+      private final Map<Integer, IndexedDocument> documents = new HashMap<>();
+      private long totalLength;
+
+      /**
+       * Adds a document, replacing any previous version with the same id.
+       *
+       * @param document the tokenized document.
+       */
+      void put(IndexedDocument document) {
+            remove(document.id());
+            String[] terms = document.terms();
+            int[] frequencies = document.frequencies();
+            for (int i = 0; i < terms.length; i++) {
+                  postings.computeIfAbsent(terms[i], t -> new PostingsList()).add(document.id(), frequencies[i]);
+            }
+            documents.put(document.id(), document);
+            totalLength += document.length();
+      }
+
+      /**
+       * Removes a document, if present.
+       *
+       * @param docId the document id.
+       */
+      void remove(int docId) {
+            IndexedDocument existing = documents.remove(docId);
+            if (existing == null) {
+                  return;
+            }
+            for (String term : existing.terms()) {
+                  PostingsList list = postings.get(term);
+                  if (list != null && list.remove(docId)) {
+                        postings.remove(term);
+                  }
+            }
+            totalLength -= existing.length();
+      }
+
+      /**
+       * Ranks documents against a query with BM25.
+       *
+       * @param queryTerms the tokenized query.
+       * @param limit      the maximum number of hits to return.
+       * @return the best hits, highest score first.
+       */
+      List<SearchHit> search(List<String> queryTerms, int limit) {
+            if (documents.isEmpty() || queryTerms.isEmpty() || limit <= 0) {
+                  return Collections.emptyList();
+            }
+
+            double documentCount = documents.size();
+            double averageLength = Math.max(1.0, (double) totalLength / documentCount);
+            Map<Integer, Double> scores = new HashMap<>();
+
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                  PostingsList list = postings.get(term);
+                  if (list == null) {
+                        continue;
+                  }
+                  double df = list.documentCount();
+                  double idf = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+                  list.forEach((docId, tf) -> {
+                        double norm = K1 * (1 - B + B * documents.get(docId).length() / averageLength);
+                        double score = idf * tf * (K1 + 1) / (tf + norm);
+                        scores.merge(docId, score, Double::sum);
+                  });
+            }
+
+            // Keep only the best `limit` hits in a min-heap rather than sorting every match.
+            PriorityQueue<SearchHit> best = new PriorityQueue<>(
+                        (a, b) -> Double.compare(a.getScore(), b.getScore()));
+            for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                  if (best.size() < limit) {
+                        best.add(new SearchHit(entry.getKey(), entry.getValue()));
+                  } else if (entry.getValue() > best.peek().getScore()) {
+                        best.poll();
+                        best.add(new SearchHit(entry.getKey(), entry.getValue()));
+                  }
+            }
+
+            List<SearchHit> hits = new ArrayList<>(best);
+            hits.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+            return hits;
+      }
+
+      /**
+       * @return the number of indexed documents.
+       */
+      int size() {
+            return documents.size();
+      }
+
+      /**
+       * @return the number of distinct terms.
+       */
+      int termCount() {
+            return postings.size();
+      }
+
+      /**
+       * @return the indexed documents, for snapshotting.
+       */
+      Collection<IndexedDocument> documents() {
+            return documents.values();
+      }
+}
@@ -0,0 +1,305 @@
+package com.milestone.blogger.search;
+
+import com.milestone.blogger.model.Post;
+import com.milestone.blogger.model.PostStats;
+import com.milestone.blogger.model.PostSummary;
+import com.milestone.blogger.repository.PostRepository;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over post titles and content.
+ * <p>
+ * Posts are kept in an in-memory {@link InvertedIndex} that the post
+ * controller updates on every create, update and delete. On startup the index
+ * is loaded from the local snapshot if it still matches the database, and
+ * otherwise rebuilt in the background by walking the post table in batches.
+ * A snapshot is written after each rebuild and on shutdown.
+ */
+@Service
+public class PostSearchService {
+
+      private static final Logger logger = LoggerFactory.getLogger(PostSearchService.class);
+
+      private final PostRepository postRepository;
+      private final Path snapshotPath;
+      private final int maxResults;
+      private final int batchSize;
+
+      private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+      private final ExecutorService indexer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "search-indexer");
+            thread.setDaemon(true);
+            return thread;
+      });
+
+      // Guarded by lock.
+      private InvertedIndex index = new InvertedIndex();
+      // Changes made while a rebuild is in flight; replayed onto the new index before it is swapped in.
+      private List<Consumer<InvertedIndex>> pendingChanges;
+
+      private volatile boolean ready;
+
+      public PostSearchService(PostRepository postRepository,
+                  @Value("${blogger.search.snapshot-path}") Path snapshotPath,
+                  @Value("${blogger.search.max-results:50}") int maxResults,
+                  @Value("${blogger.search.rebuild-batch-size:500}") int batchSize) {
+            this.postRepository = postRepository;
+            this.snapshotPath = snapshotPath;
+            this.maxResults = maxResults;
+            this.batchSize = batchSize;
+      }
+
+      /**
+       * Loads or rebuilds the index in the background once the application is up.
+       */
+      @EventListener(ApplicationReadyEvent.class)
+      public void initialize() {
+            indexer.execute(this::loadOrRebuild);
+      }
+
+      /**
+       * Adds or re-indexes a post.
+       *
+       * @param post the post that was created or updated.
+       */
+      public void index(Post post) {
+            index(post.getId(), post.getUpdatedAt(), post.getTitle(), post.getContent());
+      }
+
+      /**
+       * Re-indexes a post from its new values, for edits that don't load the entity.
+       *
+       * @param postId    the ID of the post.
+       * @param updatedAt when it was updated.
+       * @param title     its title.
+       * @param content   its content.
+       */
+      public void index(int postId, Date updatedAt, String title, String content) {
+            IndexedDocument document = IndexedDocument.of(postId, updatedAt.getTime(), title, content);
+            apply(index -> index.put(document));
+      }
+
+      /**
+       * Removes a post from the index.
+       *
+       * @param postId the ID of the deleted post.
+       */
+      public void remove(int postId) {
+            apply(index -> index.remove(postId));
+      }
+
+      /**
+       * Searches post titles and content.
+       *
+       * @param query the user's query.
+       * @return summaries of the best matching posts, most relevant first.
+       */
+      public List<PostSummary> search(String query) {
+            List<String> terms = Tokenizer.tokenize(query);
+            if (terms.isEmpty()) {
+                  return List.of();
+            }
+
+            List<SearchHit> hits;
+            lock.readLock().lock();
+            try {
+                  hits = index.search(terms, maxResults);
+            } finally {
+                  lock.readLock().unlock();
+            }
+            if (hits.isEmpty()) {
+                  return List.of();
+            }
+
+            List<Integer> ids = hits.stream().map(SearchHit::getPostId).toList();
+            Map<Integer, PostSummary> summaries = postRepository.findSummariesByIdIn(ids).stream()
+                        .collect(Collectors.toMap(PostSummary::getId, Function.identity()));
+            List<PostSummary> results = new ArrayList<>(ids.size());
+            for (Integer id : ids) {
+                  PostSummary summary = summaries.get(id);
+                  if (summary != null) {
+                        results.add(summary);
+                  }
+            }
+            return results;
+      }
+
+      /**
+       * @return true once the initial load or rebuild has finished.
+       */
+      public boolean isReady() {
+            return ready;
+      }
+
+      /**
+       * Rebuilds the index from the database, then writes a fresh snapshot.
+       * Searches keep using the old index until the new one is complete.
+       */
+      public void rebuild() {
+            logger.info("rebuild(): Rebuilding search index from the database.");
+            long started = System.nanoTime();
+            beginRebuild();
+
+            InvertedIndex rebuilt = new InvertedIndex();
+            try {
+                  int lastId = -1;
+                  List<Post> batch;
+                  do {
+                        batch = postRepository.findBatchAfter(lastId, Limit.of(batchSize));
+                        for (Post post : batch) {
+                              rebuilt.put(IndexedDocument.of(post.getId(), post.getUpdatedAt().getTime(),
+                                          post.getTitle(), post.getContent()));
+                              lastId = post.getId();
+                        }
+                  } while (batch.size() == batchSize);
+            } catch (RuntimeException e) {
+                  abortRebuild();
+                  throw e;
+            }
+
+            swapIn(rebuilt);
+            logger.info("rebuild(): Indexed {} posts in {} ms.", rebuilt.size(), (System.nanoTime() - started) / 1_000_000);
+            saveSnapshot();
+      }
+
+      /**
+       * Writes the current index to the snapshot file.
+       */
+      public void saveSnapshot() {
+            if (!ready) {
+                  return;
+            }
+            // Documents are immutable, so copying the references is enough to write outside the lock.
+            List<IndexedDocument> documents;
+            lock.readLock().lock();
+            try {
+                  documents = new ArrayList<>(index.documents());
+            } finally {
+                  lock.readLock().unlock();
+            }
+            try {
+                  IndexSnapshot.write(snapshotPath, documents);
+                  logger.info("saveSnapshot(): Wrote {} documents to {}.", documents.size(), snapshotPath);
+            } catch (IOException e) {
+                  logger.warn("saveSnapshot(): Unable to write search snapshot to {}.", snapshotPath, e);
+            }
+      }
+
+      /**
+       * Stops background indexing and persists the index for the next start.
+       */
+      @PreDestroy
+      public void shutdown() {
+            indexer.shutdownNow();
+            saveSnapshot();
+      }
+
+      private void loadOrRebuild() {
+            try {
+                  if (!loadSnapshot()) {
+                        rebuild();
+                  }
+            } catch (RuntimeException e) {
+                  logger.error("loadOrRebuild(): Unable to build search index.", e);
+                  abortRebuild();
+            }
+      }
+
+      private boolean loadSnapshot() {
+            beginRebuild();
+            try {
+                  List<IndexedDocument> documents = IndexSnapshot.read(snapshotPath);
+                  if (matchesDatabase(documents)) {
+                        InvertedIndex loaded = new InvertedIndex();
+                        documents.forEach(loaded::put);
+                        swapIn(loaded);
+                        logger.info("loadSnapshot(): Loaded {} documents from search snapshot.", loaded.size());
+                        return true;
+                  }
+                  logger.info("loadSnapshot(): Search snapshot is stale.");
+            } catch (NoSuchFileException e) {
+                  logger.info("loadSnapshot(): No search snapshot at {}.", snapshotPath);
+            } catch (IOException e) {
+                  logger.warn("loadSnapshot(): Unable to read search snapshot.", e);
+            }
+            return false;
+      }
+
+      /**
+       * A snapshot is current if it holds as many posts as the database and
+       * saw the same newest update.
+       */
+      private boolean matchesDatabase(List<IndexedDocument> documents) {
+            PostStats stats = postRepository.findStats();
+            long newest = documents.stream().mapToLong(IndexedDocument::updatedAt).max().orElse(-1);
+            long databaseNewest = stats.getLastUpdated() == null ? -1 : stats.getLastUpdated().getTime();
+            return stats.getCount() == documents.size() && newest == databaseNewest;
+      }
+
+      private void apply(Consumer<InvertedIndex> change) {
+            lock.writeLock().lock();
+            try {
+                  change.accept(index);
+                  if (pendingChanges != null) {
+                        pendingChanges.add(change);
+                  }
+            } finally {
+                  lock.writeLock().unlock();
+            }
+      }
+
+      private void beginRebuild() {
+            lock.writeLock().lock();
+            try {
+                  if (pendingChanges == null) {
+                        pendingChanges = new ArrayList<>();
+                  }
+            } finally {
+                  lock.writeLock().unlock();
+            }
+      }
+
+      private void abortRebuild() {
+            lock.writeLock().lock();
+            try {
+                  pendingChanges = null;
+            } finally {
+                  lock.writeLock().unlock();
+            }
+      }
+
+      private void swapIn(InvertedIndex replacement) {
+            lock.writeLock().lock();
+            try {
+                  pendingChanges.forEach(change -> change.accept(replacement));
+                  pendingChanges = null;
+                  index = replacement;
+                  ready = true;
+            } finally {
+                  lock.writeLock().unlock();
+            }
+      }
+}
@@ -0,0 +1,157 @@
+package com.milestone.blogger.search;
+
+import java.util.Arrays;
+
+/**
+ * The postings of a single term: the sorted ids of the documents that contain
+ * it, each with its term frequency.
+ * <p>
+ * Entries are stored as variable-length integers, doc ids as gaps from the
+ * previous id, so a typical posting takes two or three bytes instead of eight.
+ * Appending an id larger than every existing one (the common case for new
+ * posts) is O(1); any other change re-encodes the list.
+ * <p>
+ * Not thread-safe; {@link PostSearchService} guards access.
+ */
+final class PostingsList {
+
+      /**
+       * Receives the entries of a postings list in doc id order.
+       */
+      @FunctionalInterface
+      interface PostingConsumer {
+            void accept(int docId, int frequency);
+      }
+
+      private byte[] data = new byte[16];
+      private int length;
+      private int documentCount;
+      private int lastDocId = -1;
+
+      /**
+       * @return the number of documents containing the term.
+       */
+      int documentCount() {
+            return documentCount;
+      }
+
+      /**
+       * @return the number of bytes used by the encoded postings.
+       */
+      int encodedSize() {
+            return length;
+      }
+
+      /**
+       * Adds or replaces the entry for a document.
+       *
+       * @param docId     the document id, must be non-negative.
+       * @param frequency the number of occurrences of the term in the document.
+       */
+      void add(int docId, int frequency) {
+            if (docId > lastDocId) {
+                  append(docId, frequency);
+                  return;
+            }
+
+            int[] ids = new int[documentCount + 1];
+            int[] frequencies = new int[documentCount + 1];
+            int[] count = { 0 };
+            boolean[] inserted = { false };
+            forEach((id, tf) -> {
+                  if (!inserted[0] && docId <= id) {
+                        ids[count[0]] = docId;
+                        frequencies[count[0]++] = frequency;
+                        inserted[0] = true;
+                        if (docId == id) {
+                              return;
+                        }
+                  }
+                  ids[count[0]] = id;
+                  frequencies[count[0]++] = tf;
+            });
+            reencode(ids, frequencies, count[0]);
+      }
+
+      /**
+       * Removes the entry for a document, if present.
+       *
+       * @param docId the document id.
+       * @return true if the list is now empty.
+       */
+      boolean remove(int docId) {
+            int[] ids = new int[documentCount];
+            int[] frequencies = new int[documentCount];
+            int[] count = { 0 };
+            forEach((id, tf) -> {
+                  if (id != docId) {
+                        ids[count[0]] = id;
+                        frequencies[count[0]++] = tf;
+                  }
+            });
+            if (count[0] != documentCount) {
+                  reencode(ids, frequencies, count[0]);
+            }
+            return documentCount == 0;
+      }
+
+      /**
+       * Decodes every entry in doc id order.
+       *
+       * @param consumer receives each (docId, frequency) pair.
+       */
+      void forEach(PostingConsumer consumer) {
+            int position = 0;
+            int docId = -1;
+            while (position < length) {
+                  int gap = 0;
+                  int shift = 0;
+                  byte b;
+                  do {
+                        b = data[position++];
+                        gap |= (b & 0x7F) << shift;
+                        shift += 7;
+                  } while (b < 0);
+
+                  int frequency = 0;
+                  shift = 0;
+                  do {
+                        b = data[position++];
+                        frequency |= (b & 0x7F) << shift;
+                        shift += 7;
+                  } while (b < 0);
+
+                  docId += gap;
+                  consumer.accept(docId, frequency);
+            }
+      }
+
+      private void append(int docId, int frequency) {
+            // Gaps are measured from -1 so the first gap is always at least 1.
+            writeVarInt(docId - lastDocId);
+            writeVarInt(frequency);
+            lastDocId = docId;
+            documentCount++;
+      }
+
+      private void reencode(int[] ids, int[] frequencies, int count) {
+            data = new byte[Math.max(16, length)];
+            length = 0;
+            documentCount = 0;
+            lastDocId = -1;
+            for (int i = 0; i < count; i++) {
+                  append(ids[i], frequencies[i]);
+            }
+      }
+
+      private void writeVarInt(int value) {
+            if (length + 5 > data.length) {
+                  data = Arrays.copyOf(data, data.length * 2);
+            }
+            while ((value & ~0x7F) != 0) {
+                  data[length++] = (byte) ((value & 0x7F) | 0x80);
+                  value >>>= 7;
+            }
+            data[length++] = (byte) value;
+      }
+}
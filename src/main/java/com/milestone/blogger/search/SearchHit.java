@@ -0,0 +1,23 @@
+package com.milestone.blogger.search;
+
+/**
+ * A matching post and its relevance score.
+ */
+public class SearchHit {
+
+      private final int postId;
+      private final double score;
+
+      public SearchHit(int postId, double score) {
+            this.postId = postId;
+            this.score = score;
+      }
+
+      public int getPostId() {
+            return postId;
+      }
+
+      public double getScore() {
+            return score;
+      }
+}
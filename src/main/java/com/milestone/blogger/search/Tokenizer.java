@@ -0,0 +1,66 @@
+package com.milestone.blogger.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits text into lower-cased search terms.
+ * A term is a run of letters or digits; common English stop words are dropped
+ * and very long runs are truncated so one pasted blob can't bloat the index.
+ */
+public final class Tokenizer {
+
+      /**
+       * Longest term kept in the index; longer runs are truncated.
+       */
+      static final int MAX_TERM_LENGTH = 64;
+
+      private static final Set<String> STOP_WORDS = Set.of(
+                  "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into",
+                  "is", "it", "no", "not", "of", "on", "or", "such", "that", "the", "their", "then",
+                  "there", "these", "they", "this", "to", "was", "will", "with");
+
+      private Tokenizer() {
+      }
+
+      /**
+       * Tokenizes the given text.
+       *
+       * @param text the text to tokenize, may be null.
+       * @return the terms in the order they appear, including duplicates.
+       */
+      public static List<String> tokenize(String text) {
+            List<String> terms = new ArrayList<>();
+            if (text == null) {
+                  return terms;
+            }
+
+            StringBuilder current = new StringBuilder();
+            int i = 0;
+            while (i < text.length()) {
+                  int codePoint = text.codePointAt(i);
+                  i += Character.charCount(codePoint);
+                  if (Character.isLetterOrDigit(codePoint)) {
+                        if (current.length() < MAX_TERM_LENGTH) {
+                              current.appendCodePoint(Character.toLowerCase(codePoint));
+                        }
+                  } else {
+                        addTerm(terms, current);
+                  }
+            }
+            addTerm(terms, current);
+            return terms;
+      }
+
+      private static void addTerm(List<String> terms, StringBuilder current) {
+            if (current.isEmpty()) {
+                  return;
+            }
+            String term = current.toString();
+            current.setLength(0);
+            if (!STOP_WORDS.contains(term)) {
+                  terms.add(term);
+            }
+      }
+}
@@ -0,0 +1,31 @@
+package com.milestone.blogger.security;
+
+/**
+ * The logged-in user behind a request, as resolved by the {@link LoginStore}.
+ */
+public class AuthenticatedUser {
+
+      /**
+       * Request attribute holding the current {@link AuthenticatedUser}; absent for anonymous visitors.
+       */
+      public static final String ATTRIBUTE = AuthenticatedUser.class.getName();
+
+      private final long userId;
+      private final String role;
+
+      public AuthenticatedUser(long userId, String role) {
+            this.userId = userId;
+            this.role = role;
+      }
+
+      public long getUserId() {
+            return userId;
+      }
+
+      /**
+       * @return the user's role, such as {@code user} or {@code admin}.
+       */
+      public String getRole() {
+            return role;
+      }
+}
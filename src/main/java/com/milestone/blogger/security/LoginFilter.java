@@ -0,0 +1,47 @@
+package com.milestone.blogger.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Resolves the logged-in user once per request from the {@link LoginStore}.
+ * <p>
+ * The user is stored as the {@link AuthenticatedUser#ATTRIBUTE} request
+ * attribute, which {@code SessionUtils} reads, and as the Spring Security
+ * authentication with a {@code ROLE_<role>} authority. Runs inside the
+ * security filter chain, ahead of the page cache.
+ */
+public class LoginFilter extends OncePerRequestFilter {
+
+      private final LoginStore loginStore;
+
+      public LoginFilter(LoginStore loginStore) {
+            this.loginStore = loginStore;
+      }
+
+      @Override
+      protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                  throws ServletException, IOException {
+            AuthenticatedUser user = loginStore.read(request);
+            if (user != null) {
+                  request.setAttribute(AuthenticatedUser.ATTRIBUTE, user);
+                  SecurityContext context = SecurityContextHolder.createEmptyContext();
+                  context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user.getUserId(), null,
+                              List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().toUpperCase(Locale.ROOT)))));
+                  SecurityContextHolder.setContext(context);
+            }
+            chain.doFilter(request, response);
+      }
+}
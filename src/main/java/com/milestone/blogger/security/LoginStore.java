@@ -0,0 +1,42 @@
+package com.milestone.blogger.security;
+
+import com.milestone.blogger.model.User;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Where login state is kept between requests.
+ * <p>
+ * {@code blogger.auth.mode=session} selects {@link SessionLoginStore}, which
+ * keeps it in the servlet session. {@code token} selects
+ * {@link TokenLoginStore}, which keeps it in a signed cookie so any node can
+ * serve any request.
+ */
+public interface LoginStore {
+
+      /**
+       * Resolves the logged-in user. Must not create a session.
+       *
+       * @param request the current request.
+       * @return the logged-in user, or null for an anonymous visitor.
+       */
+      AuthenticatedUser read(HttpServletRequest request);
+
+      /**
+       * Records a successful login.
+       *
+       * @param request  the current request.
+       * @param response the current response, for cookies.
+       * @param user     the user who logged in.
+       */
+      void logIn(HttpServletRequest request, HttpServletResponse response, User user);
+
+      /**
+       * Ends the current login, if any.
+       *
+       * @param request  the current request.
+       * @param response the current response, for cookies.
+       */
+      void logOut(HttpServletRequest request, HttpServletResponse response);
+}
@@ -0,0 +1,132 @@
+package com.milestone.blogger.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Per-IP and per-username token buckets for login and registration attempts.
+ * <p>
+ * Every attempt costs a BCrypt computation, so attempts are limited before
+ * any hashing happens. The IP bucket stops one client from flooding the
+ * hashing pool. The username bucket stops a distributed guessing attack on a
+ * single account. Availability lookups from the registration form hash
+ * nothing but would otherwise let a client test emails for registration as
+ * fast as it can ask, so they get a per-IP bucket of their own, roomier than
+ * the login one so that typing doesn't use up a user's attempts. Buckets are
+ * held in a bounded cache and dropped once they would have refilled anyway.
+ */
+@Component
+public class LoginThrottle {
+
+      private static final int MAX_TRACKED_KEYS = 100_000;
+
+      private final Cache<String, TokenBucket> ipBuckets;
+      private final Cache<String, TokenBucket> usernameBuckets;
+      private final Cache<String, TokenBucket> lookupBuckets;
+      private final int ipCapacity;
+      private final Duration ipRefillPeriod;
+      private final int usernameCapacity;
+      private final Duration usernameRefillPeriod;
+      private final int lookupCapacity;
+      private final Duration lookupRefillPeriod;
+      private final Counter ipThrottled;
+      private final Counter usernameThrottled;
+      private final Counter lookupThrottled;
+
+      public LoginThrottle(MeterRegistry registry,
+                  @Value("${blogger.login-throttle.ip.capacity:20}") int ipCapacity,
+                  @Value("${blogger.login-throttle.ip.refill-period:3s}") Duration ipRefillPeriod,
+                  @Value("${blogger.login-throttle.username.capacity:5}") int usernameCapacity,
+                  @Value("${blogger.login-throttle.username.refill-period:30s}") Duration usernameRefillPeriod,
+                  @Value("${blogger.login-throttle.lookup.capacity:30}") int lookupCapacity,
+                  @Value("${blogger.login-throttle.lookup.refill-period:1s}") Duration lookupRefillPeriod) {
+            this.ipCapacity = ipCapacity;
+            this.ipRefillPeriod = ipRefillPeriod;
+            this.usernameCapacity = usernameCapacity;
+            this.usernameRefillPeriod = usernameRefillPeriod;
+            this.lookupCapacity = lookupCapacity;
+            this.lookupRefillPeriod = lookupRefillPeriod;
+            this.ipBuckets = buildCache(ipRefillPeriod.multipliedBy(ipCapacity));
+            this.usernameBuckets = buildCache(usernameRefillPeriod.multipliedBy(usernameCapacity));
+            this.lookupBuckets = buildCache(lookupRefillPeriod.multipliedBy(lookupCapacity));
+            this.ipThrottled = Counter.builder("blogger.login.throttled").tag("scope", "ip")
+                        .description("Login and registration attempts rejected by the per-IP limit")
+                        .register(registry);
+            this.usernameThrottled = Counter.builder("blogger.login.throttled").tag("scope", "username")
+                        .description("Login attempts rejected by the per-username limit")
+                        .register(registry);
+            this.lookupThrottled = Counter.builder("blogger.login.throttled").tag("scope", "lookup")
+                        .description("Username and email availability lookups rejected by the per-IP limit")
+                        .register(registry);
+      }
+
+      /**
+       * Takes a token for a login attempt from both the client's and the account's bucket.
+       *
+       * @param ip       the client address.
+       * @param username the username being logged in to.
+       * @return {@link Duration#ZERO} if the attempt may proceed, otherwise how long to wait.
+       */
+      public Duration tryAcquireLogin(String ip, String username) {
+            Duration wait = tryAcquireIp(ip);
+            if (!wait.isZero()) {
+                  return wait;
+            }
+            long now = System.nanoTime();
+            String key = username == null ? "" : username.toLowerCase(Locale.ROOT);
+            long nanos = usernameBuckets.get(key, k -> new TokenBucket(usernameCapacity, usernameRefillPeriod.toNanos(), now))
+                        .tryConsume(now);
+            if (nanos > 0) {
+                  usernameThrottled.increment();
+            }
+            return Duration.ofNanos(nanos);
+      }
+
+      /**
+       * Takes a token from the client's bucket, for attempts not tied to an existing account.
+       *
+       * @param ip the client address.
+       * @return {@link Duration#ZERO} if the attempt may proceed, otherwise how long to wait.
+       */
+      public Duration tryAcquireIp(String ip) {
+            long now = System.nanoTime();
+            long nanos = ipBuckets.get(ip, k -> new TokenBucket(ipCapacity, ipRefillPeriod.toNanos(), now))
+                        .tryConsume(now);
+            if (nanos > 0) {
+                  ipThrottled.increment();
+            }
+            return Duration.ofNanos(nanos);
+      }
+
+      /**
+       * Takes a token from the client's bucket for availability lookups.
+       *
+       * @param ip the client address.
+       * @return {@link Duration#ZERO} if the lookup may proceed, otherwise how long to wait.
+       */
+      public Duration tryAcquireLookup(String ip) {
+            long now = System.nanoTime();
+            long nanos = lookupBuckets.get(ip, k -> new TokenBucket(lookupCapacity, lookupRefillPeriod.toNanos(), now))
+                        .tryConsume(now);
+            if (nanos > 0) {
+                  lookupThrottled.increment();
+            }
+            return Duration.ofNanos(nanos);
+      }
+
+      private static Cache<String, TokenBucket> buildCache(Duration timeToFull) {
+            return Caffeine.newBuilder()
+                        .maximumSize(MAX_TRACKED_KEYS)
+                        .expireAfterAccess(timeToFull)
+                        .build();
+      }
+}
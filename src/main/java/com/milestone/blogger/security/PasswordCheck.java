@@ -0,0 +1,30 @@
+package com.milestone.blogger.security;
+
+/**
+ * The outcome of verifying a password against a stored hash.
+ */
+public class PasswordCheck {
+
+      private final boolean matches;
+      private final String upgradedHash;
+
+      PasswordCheck(boolean matches, String upgradedHash) {
+            this.matches = matches;
+            this.upgradedHash = upgradedHash;
+      }
+
+      /**
+       * @return true if the password matched the stored hash.
+       */
+      public boolean matches() {
+            return matches;
+      }
+
+      /**
+       * @return a new hash at the configured cost if the stored one used a
+       *         different cost and should be replaced, otherwise null.
+       */
+      public String getUpgradedHash() {
+            return upgradedHash;
+      }
+}
@@ -0,0 +1,24 @@
+package com.milestone.blogger.security;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the password hashing pool is saturated and a request should be
+ * retried later rather than queued.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+      private final Duration retryAfter;
+
+      public PasswordHashingBusyException(String message, Duration retryAfter) {
+            super(message);
+            this.retryAfter = retryAfter;
+      }
+
+      /**
+       * @return how long the client should wait before retrying.
+       */
+      public Duration getRetryAfter() {
+            return retryAfter;
+      }
+}
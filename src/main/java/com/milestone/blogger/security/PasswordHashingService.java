@@ -0,0 +1,188 @@
+package com.milestone.blogger.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes and verifies passwords with BCrypt on a dedicated, bounded pool.
+ * <p>
+ * A BCrypt computation takes tens of milliseconds of CPU. Running it on the
+ * request thread lets a login burst occupy every request thread, so pages
+ * that need no hashing queue behind it. The pool has a fixed number of
+ * threads and a bounded queue. When both are full, callers get a
+ * {@link PasswordHashingBusyException} at once instead of waiting.
+ * <p>
+ * The BCrypt cost is configurable. Stored hashes with a different cost are
+ * replaced on the next successful login; see {@link PasswordCheck#getUpgradedHash()}.
+ * <p>
+ * Publishes {@code blogger.password.queue.depth}, {@code blogger.password.wait},
+ * {@code blogger.password.hash} and {@code blogger.password.rejected}.
+ */
+@Service
+public class PasswordHashingService {
+
+      private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+      private final BCryptPasswordEncoder encoder;
+      private final int strength;
+      private final Duration maxWait;
+      private final ThreadPoolExecutor executor;
+
+      private final Timer waitTimer;
+      private final Timer hashTimer;
+      private final Timer verifyTimer;
+      private final Counter rejected;
+
+      public PasswordHashingService(MeterRegistry registry,
+                  @Value("${blogger.password.bcrypt-strength:10}") int strength,
+                  @Value("${blogger.password.pool-size:0}") int poolSize,
+                  @Value("${blogger.password.queue-capacity:64}") int queueCapacity,
+                  @Value("${blogger.password.max-wait:2s}") Duration maxWait) {
+            this.strength = strength;
+            this.encoder = new BCryptPasswordEncoder(strength);
+            this.maxWait = maxWait;
+
+            int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity), r -> {
+                              Thread thread = new Thread(r, "password-hasher-" + threadNumber.incrementAndGet());
+                              thread.setDaemon(true);
+                              return thread;
+                        }, new ThreadPoolExecutor.AbortPolicy());
+
+            Gauge.builder("blogger.password.queue.depth", executor, e -> e.getQueue().size())
+                        .description("Password hashing tasks waiting for a thread")
+                        .register(registry);
+            Gauge.builder("blogger.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                        .description("Password hashing threads busy")
+                        .register(registry);
+            this.waitTimer = Timer.builder("blogger.password.wait")
+                        .description("Time password hashing tasks spend queued")
+                        .register(registry);
+            this.hashTimer = Timer.builder("blogger.password.hash").tag("operation", "encode")
+                        .description("Time spent computing BCrypt hashes")
+                        .register(registry);
+            this.verifyTimer = Timer.builder("blogger.password.hash").tag("operation", "verify")
+                        .description("Time spent computing BCrypt hashes")
+                        .register(registry);
+            this.rejected = Counter.builder("blogger.password.rejected")
+                        .description("Password hashing requests turned away because the pool was saturated")
+                        .register(registry);
+            logger.info("PasswordHashingService(): {} threads, queue of {}, BCrypt cost {}.", threads, queueCapacity, strength);
+      }
+
+      /**
+       * Hashes a new password at the configured cost.
+       *
+       * @param rawPassword the password entered by the user.
+       * @return the BCrypt hash.
+       * @throws PasswordHashingBusyException if the pool is saturated.
+       */
+      public String hash(String rawPassword) {
+            return submit(() -> hashTimer.record(() -> encoder.encode(rawPassword)));
+      }
+
+      /**
+       * Verifies a password, re-hashing it if the stored hash uses a different cost.
+       *
+       * @param rawPassword the password entered by the user.
+       * @param storedHash  the user's stored hash.
+       * @return the result of the check.
+       * @throws PasswordHashingBusyException if the pool is saturated.
+       */
+      public PasswordCheck verify(String rawPassword, String storedHash) {
+            return submit(() -> {
+                  boolean matches = verifyTimer.record(() -> encoder.matches(rawPassword, storedHash));
+                  if (!matches || costOf(storedHash) == strength) {
+                        return new PasswordCheck(matches, null);
+                  }
+                  return new PasswordCheck(true, hashTimer.record(() -> encoder.encode(rawPassword)));
+            });
+      }
+
+      /**
+       * Stops the pool; queued tasks are abandoned.
+       */
+      @PreDestroy
+      public void shutdown() {
+            executor.shutdownNow();
+      }
+
+      private <T> T submit(Callable<T> task) {
+            long queuedAt = System.nanoTime();
+            Future<T> future;
+            try {
+                  future = executor.submit(() -> {
+                        waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                        return task.call();
+                  });
+            } catch (RejectedExecutionException e) {
+                  rejected.increment();
+                  logger.warn("submit(): Password hashing pool is saturated, rejecting request.");
+                  throw new PasswordHashingBusyException("Password hashing pool is saturated.", retryAfter());
+            }
+
+            try {
+                  return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                  future.cancel(true);
+                  rejected.increment();
+                  logger.warn("submit(): Password hashing did not finish within {}.", maxWait);
+                  throw new PasswordHashingBusyException("Password hashing timed out.", retryAfter());
+            } catch (InterruptedException e) {
+                  future.cancel(true);
+                  Thread.currentThread().interrupt();
+                  throw new IllegalStateException("Interrupted while waiting for password hashing.", e);
+            } catch (ExecutionException e) {
+                  if (e.getCause() instanceof RuntimeException cause) {
+                        throw cause;
+                  }
+                  throw new IllegalStateException("Password hashing failed.", e.getCause());
+            }
+      }
+
+      /**
+       * Estimates how long the current backlog takes to drain, rounded up to whole seconds.
+       */
+      private Duration retryAfter() {
+            double meanSeconds = verifyTimer.count() == 0 ? 0.1 : verifyTimer.mean(TimeUnit.MILLISECONDS) / 1000;
+            double backlog = executor.getQueue().size() + executor.getActiveCount();
+            return Duration.ofSeconds(Math.max(1, (long) Math.ceil(backlog * meanSeconds / executor.getMaximumPoolSize())));
+      }
+
+      /**
+       * Reads the cost from a BCrypt hash such as {@code $2a$10$...}, or -1 if it isn't one.
+       */
+      private static int costOf(String hash) {
+            if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$') {
+                  return -1;
+            }
+            try {
+                  return Integer.parseInt(hash.substring(4, 6));
+            } catch (NumberFormatException e) {
+                  return -1;
+            }
+      }
+}
@@ -0,0 +1,47 @@
+package com.milestone.blogger.security;
+
+import com.milestone.blogger.model.User;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps login state in the servlet session's {@code loggedIn}, {@code userId}
+ * and {@code role} attributes. Sessions live in one node's memory, so
+ * multi-node deployments need sticky routing in this mode.
+ */
+@Component
+@ConditionalOnProperty(name = "blogger.auth.mode", havingValue = "session", matchIfMissing = true)
+public class SessionLoginStore implements LoginStore {
+
+      @Override
+      public AuthenticatedUser read(HttpServletRequest request) {
+            HttpSession session = request.getSession(false);
+            if (session == null || !Boolean.TRUE.equals(session.getAttribute("loggedIn"))
+                        || !(session.getAttribute("userId") instanceof Long userId)) {
+                  return null;
+            }
+            Object role = session.getAttribute("role");
+            return new AuthenticatedUser(userId, role == null ? "user" : role.toString());
+      }
+
+      @Override
+      public void logIn(HttpServletRequest request, HttpServletResponse response, User user) {
+            HttpSession session = request.getSession();
+            session.setAttribute("loggedIn", true);
+            session.setAttribute("userId", user.getId());
+            session.setAttribute("role", user.getRole());
+      }
+
+      @Override
+      public void logOut(HttpServletRequest request, HttpServletResponse response) {
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                  session.invalidate();
+            }
+      }
+}
@@ -0,0 +1,38 @@
+package com.milestone.blogger.security;
+
+/**
+ * A token bucket that starts full and refills one token per period.
+ * Each attempt takes a token; an empty bucket rejects until the next refill.
+ */
+class TokenBucket {
+
+      private final int capacity;
+      private final long refillNanos;
+
+      // Guarded by this.
+      private double tokens;
+      private long lastRefill;
+
+      TokenBucket(int capacity, long refillNanos, long now) {
+            this.capacity = capacity;
+            this.refillNanos = refillNanos;
+            this.tokens = capacity;
+            this.lastRefill = now;
+      }
+
+      /**
+       * Takes a token if one is available.
+       *
+       * @param now the current {@link System#nanoTime()}.
+       * @return 0 if a token was taken, otherwise the nanoseconds until the next one.
+       */
+      synchronized long tryConsume(long now) {
+            tokens = Math.min(capacity, tokens + (double) (now - lastRefill) / refillNanos);
+            lastRefill = now;
+            if (tokens >= 1) {
+                  tokens -= 1;
+                  return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * refillNanos);
+      }
+}
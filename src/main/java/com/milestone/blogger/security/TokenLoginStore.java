@@ -0,0 +1,144 @@
+package com.milestone.blogger.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.milestone.blogger.model.User;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Keeps login state in an HMAC-signed, expiring cookie instead of a session.
+ * <p>
+ * The token carries the user ID, role, expiry and a random token ID, and is
+ * verified on every request without touching the database or any shared
+ * state, so requests can go to any node and anonymous visitors never get a
+ * session. Logging out clears the cookie and adds the token ID to a bounded
+ * in-memory revocation set until the token would have expired anyway. The
+ * set is per node; a copied token can still be replayed on another node
+ * until it expires.
+ */
+@Component
+@ConditionalOnProperty(name = "blogger.auth.mode", havingValue = "token")
+public class TokenLoginStore implements LoginStore {
+
+      /**
+       * Name of the cookie holding the signed token.
+       */
+      public static final String COOKIE_NAME = "blogger_auth";
+
+      private static final Logger logger = LoggerFactory.getLogger(TokenLoginStore.class);
+
+      private final SecureRandom random = new SecureRandom();
+      private final SignedTokenCodec codec;
+      private final Duration ttl;
+      private final Cache<String, Boolean> revoked;
+
+      public TokenLoginStore(@Value("${blogger.auth.token.keys:}") List<String> keys,
+                  @Value("${blogger.auth.token.ttl:8h}") Duration ttl,
+                  @Value("${blogger.auth.token.max-revoked:100000}") long maxRevoked) {
+            List<String> configured = keys.stream().filter(key -> !key.isBlank()).toList();
+            if (configured.isEmpty()) {
+                  logger.warn("TokenLoginStore(): No blogger.auth.token.keys configured; using a random key. "
+                              + "Logins won't survive a restart or work across nodes.");
+                  configured = List.of("ephemeral:" + Base64.getEncoder().encodeToString(randomBytes(32)));
+            }
+            this.codec = new SignedTokenCodec(configured);
+            this.ttl = ttl;
+            this.revoked = Caffeine.newBuilder()
+                        .maximumSize(maxRevoked)
+                        .expireAfterWrite(ttl)
+                        .build();
+      }
+
+      @Override
+      public AuthenticatedUser read(HttpServletRequest request) {
+            Token token = currentToken(request);
+            return token == null ? null : new AuthenticatedUser(token.userId, token.role);
+      }
+
+      @Override
+      public void logIn(HttpServletRequest request, HttpServletResponse response, User user) {
+            long expiresAt = Instant.now().plus(ttl).getEpochSecond();
+            String tokenId = Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes(12));
+            String payload = user.getId() + ":" + user.getRole() + ":" + expiresAt + ":" + tokenId;
+            setCookie(request, response, codec.sign(payload), ttl);
+      }
+
+      @Override
+      public void logOut(HttpServletRequest request, HttpServletResponse response) {
+            Token token = currentToken(request);
+            if (token != null) {
+                  revoked.put(token.tokenId, Boolean.TRUE);
+            }
+            setCookie(request, response, "", Duration.ZERO);
+      }
+
+      private Token currentToken(HttpServletRequest request) {
+            Cookie[] cookies = request.getCookies();
+            if (cookies == null) {
+                  return null;
+            }
+            for (Cookie cookie : cookies) {
+                  if (COOKIE_NAME.equals(cookie.getName())) {
+                        return parse(cookie.getValue());
+                  }
+            }
+            return null;
+      }
+
+      private Token parse(String value) {
+            String payload = codec.verify(value);
+            if (payload == null) {
+                  return null;
+            }
+            String[] fields = payload.split(":");
+            if (fields.length != 4) {
+                  return null;
+            }
+            try {
+                  Token token = new Token(Long.parseLong(fields[0]), fields[1], Long.parseLong(fields[2]), fields[3]);
+                  if (token.expiresAt <= Instant.now().getEpochSecond() || revoked.getIfPresent(token.tokenId) != null) {
+                        return null;
+                  }
+                  return token;
+            } catch (NumberFormatException e) {
+                  return null;
+            }
+      }
+
+      private static void setCookie(HttpServletRequest request, HttpServletResponse response, String value, Duration maxAge) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, value)
+                        .path("/")
+                        .httpOnly(true)
+                        .secure(request.isSecure())
+                        .sameSite("Lax")
+                        .maxAge(maxAge)
+                        .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+      }
+
+      private byte[] randomBytes(int length) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            return bytes;
+      }
+
+      private record Token(long userId, String role, long expiresAt, String tokenId) {
+      }
+}
@@ -0,0 +1,147 @@
+package com.milestone.blogger.service;
+
+import com.milestone.blogger.model.User;
+import com.milestone.blogger.util.TransactionUtils;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Maintains each author's denormalized post count and last-active time.
+ * <p>
+ * Counters change with a single atomic UPDATE, so concurrent posts by one
+ * author can't lose increments. The UPDATE runs through JDBC rather than
+ * JPQL because Hibernate empties the whole {@code users} cache region after
+ * a bulk JPQL update. Here only the changed user is evicted, after commit,
+ * and the cached username lookups stay valid. Author pages therefore get
+ * their header from the second-level cache and never count posts.
+ * <p>
+ * Other changes to a user row go through here as targeted UPDATEs too: saving
+ * a cached {@link User} would write back whatever counters it was loaded with.
+ */
+@Service
+public class AuthorService {
+
+      private static final Logger logger = LoggerFactory.getLogger(AuthorService.class);
+
+      private final JdbcTemplate jdbcTemplate;
+      private final jakarta.persistence.Cache entityCache;
+      private final boolean reconcileOnStartup;
+
+      public AuthorService(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                  @Value("${blogger.authors.reconcile-on-startup:false}") boolean reconcileOnStartup) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.entityCache = entityManagerFactory.getCache();
+            this.reconcileOnStartup = reconcileOnStartup;
+      }
+
+      /**
+       * Counts a new post and marks the author active.
+       *
+       * @param userId the author's ID.
+       * @param at     when the post was created.
+       */
+      @Transactional
+      public void recordPostCreated(long userId, Date at) {
+            adjust(userId, 1, at);
+      }
+
+      /**
+       * Marks the author active after editing a post.
+       *
+       * @param userId the author's ID.
+       * @param at     when the post was edited.
+       */
+      @Transactional
+      public void recordPostUpdated(long userId, Date at) {
+            adjust(userId, 0, at);
+      }
+
+      /**
+       * Uncounts a deleted post and marks the author active.
+       *
+       * @param userId the author's ID.
+       * @param at     when the post was deleted.
+       */
+      @Transactional
+      public void recordPostDeleted(long userId, Date at) {
+            adjust(userId, -1, at);
+      }
+
+      /**
+       * Counts a batch of imported posts. Imported posts keep their original
+       * dates, so the last-active time only moves forward.
+       *
+       * @param userId the author's ID.
+       * @param count  the number of posts imported.
+       * @param latest the newest update time among them.
+       */
+      @Transactional
+      public void recordPostsImported(long userId, int count, Date latest) {
+            Timestamp at = new Timestamp(latest.getTime());
+            jdbcTemplate.update("update user set post_count = post_count + ?, last_active_at = case "
+                        + "when last_active_at is null or last_active_at < ? then ? else last_active_at end where id = ?",
+                        count, at, at, userId);
+            TransactionUtils.afterCommit(() -> entityCache.evict(User.class, userId));
+      }
+
+      /**
+       * Recomputes every author's counters from the post table, for data
+       * written before the counters existed or loaded in bulk.
+       *
+       * @return the number of users updated.
+       */
+      @Transactional
+      public int reconcileCounters() {
+            long started = System.nanoTime();
+            // Each subquery is a range scan of idx_post_user_updated_at_id.
+            int updated = jdbcTemplate.update("update user u set "
+                        + "post_count = (select count(*) from post p where p.user_id = u.id), "
+                        + "last_active_at = (select max(p.updated_at) from post p where p.user_id = u.id)");
+            TransactionUtils.afterCommit(() -> entityCache.evict(User.class));
+            logger.info("reconcileCounters(): Recomputed counters for {} users in {} ms.", updated,
+                        (System.nanoTime() - started) / 1_000_000);
+            return updated;
+      }
+
+      /**
+       * Replaces a user's password hash, as on login after the BCrypt cost is
+       * raised, without touching the counters.
+       *
+       * @param userId       the user's ID.
+       * @param passwordHash the new hash.
+       */
+      @Transactional
+      public void updatePasswordHash(long userId, String passwordHash) {
+            jdbcTemplate.update("update user set password_hash = ? where id = ?", passwordHash, userId);
+            TransactionUtils.afterCommit(() -> entityCache.evict(User.class, userId));
+      }
+
+      /**
+       * Recomputes the counters once the application is up, if
+       * {@code blogger.authors.reconcile-on-startup} is set.
+       */
+      @EventListener(ApplicationReadyEvent.class)
+      public void reconcileIfConfigured() {
+            if (reconcileOnStartup) {
+                  reconcileCounters();
+            }
+      }
+
+      private void adjust(long userId, int delta, Date at) {
+            jdbcTemplate.update("update user set post_count = post_count + ?, last_active_at = ? where id = ?",
+                        delta, new Timestamp(at.getTime()), userId);
+            TransactionUtils.afterCommit(() -> entityCache.evict(User.class, userId));
+      }
+}
@@ -0,0 +1,90 @@
+package com.milestone.blogger.service;
+
+import com.milestone.blogger.model.User;
+import com.milestone.blogger.timeline.TimelineService;
+import com.milestone.blogger.util.TransactionUtils;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+
+/**
+ * Follows and unfollows authors, keeping each author's denormalized
+ * follower count and the follower's cached timeline in step.
+ * <p>
+ * As in {@link AuthorService}, the count changes with one atomic UPDATE
+ * through JDBC, and only the changed user is evicted from the second-level
+ * cache, after commit. Following twice or unfollowing someone not followed
+ * changes nothing.
+ */
+@Service
+public class FollowService {
+
+      private final JdbcTemplate jdbcTemplate;
+      private final jakarta.persistence.Cache entityCache;
+      private final TimelineService timelineService;
+
+      public FollowService(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                  TimelineService timelineService) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.entityCache = entityManagerFactory.getCache();
+            this.timelineService = timelineService;
+      }
+
+      /**
+       * Makes one user follow another.
+       *
+       * @param followerId the ID of the user following.
+       * @param followeeId the ID of the user to follow.
+       * @return true if the follow is new.
+       */
+      @Transactional
+      public boolean follow(long followerId, long followeeId) {
+            if (followerId == followeeId) {
+                  return false;
+            }
+            int inserted = jdbcTemplate.update("insert ignore into follow (follower_id, followee_id, created_at) values (?, ?, ?)",
+                        followerId, followeeId, new Timestamp(System.currentTimeMillis()));
+            if (inserted == 0) {
+                  return false;
+            }
+            int followers = adjust(followeeId, 1);
+            TransactionUtils.afterCommit(() -> {
+                  entityCache.evict(User.class, followeeId);
+                  timelineService.followed(followerId, followers);
+            });
+            return true;
+      }
+
+      /**
+       * Makes one user stop following another.
+       *
+       * @param followerId the ID of the user following.
+       * @param followeeId the ID of the user to stop following.
+       * @return true if the user was following.
+       */
+      @Transactional
+      public boolean unfollow(long followerId, long followeeId) {
+            int deleted = jdbcTemplate.update("delete from follow where follower_id = ? and followee_id = ?",
+                        followerId, followeeId);
+            if (deleted == 0) {
+                  return false;
+            }
+            adjust(followeeId, -1);
+            TransactionUtils.afterCommit(() -> {
+                  entityCache.evict(User.class, followeeId);
+                  timelineService.unfollowed(followerId);
+            });
+            return true;
+      }
+
+      private int adjust(long userId, int delta) {
+            jdbcTemplate.update("update user set follower_count = follower_count + ? where id = ?", delta, userId);
+            // The row is locked by the update, so this is the count this change produced.
+            return jdbcTemplate.queryForObject("select follower_count from user where id = ?", Integer.class, userId);
+      }
+}
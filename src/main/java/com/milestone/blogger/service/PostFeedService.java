@@ -0,0 +1,111 @@
+package com.milestone.blogger.service;
+
+import com.milestone.blogger.model.PostSummary;
+import com.milestone.blogger.pagination.PostCursor;
+import com.milestone.blogger.pagination.PostPage;
+import com.milestone.blogger.repository.PostRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Builds keyset-paginated pages of the post feed shared by the homepage
+ * and the post list, and of each author's posts.
+ */
+@Service
+public class PostFeedService {
+
+      private final PostRepository postRepository;
+
+      private final int pageSize;
+
+      public PostFeedService(PostRepository postRepository,
+                  @Value("${blogger.feed.page-size:20}") int pageSize) {
+            this.postRepository = postRepository;
+            this.pageSize = pageSize;
+      }
+
+      /**
+       * Loads one page of the feed.
+       * At most one of the cursors is honoured; {@code before} wins if both are given.
+       *
+       * @param after  cursor of the last post on the previous page, to page towards older posts.
+       * @param before cursor of the first post on the previous page, to page towards newer posts.
+       * @return the requested page, or the first page if neither cursor is valid.
+       */
+      public PostPage<PostSummary> getPage(String after, String before) {
+            return page(after, before, postRepository::findLatest,
+                        postRepository::findOlderThan, postRepository::findNewerThan);
+      }
+
+      /**
+       * Loads one page of an author's posts, with the same cursors as {@link #getPage}.
+       *
+       * @param userId the author's ID.
+       * @param after  cursor of the last post on the previous page, to page towards older posts.
+       * @param before cursor of the first post on the previous page, to page towards newer posts.
+       * @return the requested page, or the first page if neither cursor is valid.
+       */
+      public PostPage<PostSummary> getAuthorPage(long userId, String after, String before) {
+            return page(after, before, limit -> postRepository.findLatestByUser(userId, limit),
+                        (updatedAt, id, limit) -> postRepository.findOlderThanByUser(userId, updatedAt, id, limit),
+                        (updatedAt, id, limit) -> postRepository.findNewerThanByUser(userId, updatedAt, id, limit));
+      }
+
+      private PostPage<PostSummary> page(String after, String before, Function<Limit, List<PostSummary>> latest,
+                  SeekQuery older, SeekQuery newer) {
+            // Fetch one extra row so we know whether another page exists without a COUNT(*).
+            Limit limit = Limit.of(pageSize + 1);
+
+            PostCursor beforeCursor = PostCursor.decode(before);
+            if (beforeCursor != null) {
+                  List<PostSummary> rows = new ArrayList<>(newer.find(
+                              beforeCursor.getUpdatedAt(), beforeCursor.getId(), limit));
+                  boolean hasNewer = rows.size() > pageSize;
+                  if (hasNewer) {
+                        rows = rows.subList(0, pageSize);
+                  }
+                  Collections.reverse(rows);
+                  return toPage(rows, true, hasNewer);
+            }
+
+            PostCursor afterCursor = PostCursor.decode(after);
+            List<PostSummary> rows = afterCursor == null
+                        ? latest.apply(limit)
+                        : older.find(afterCursor.getUpdatedAt(), afterCursor.getId(), limit);
+            boolean hasOlder = rows.size() > pageSize;
+            if (hasOlder) {
+                  rows = rows.subList(0, pageSize);
+            }
+            return toPage(rows, hasOlder, afterCursor != null);
+      }
+
+      private PostPage<PostSummary> toPage(List<PostSummary> rows, boolean hasOlder, boolean hasNewer) {
+            if (rows.isEmpty()) {
+                  return new PostPage<>(rows, null, null);
+            }
+            String next = hasOlder ? cursorOf(rows.get(rows.size() - 1)) : null;
+            String previous = hasNewer ? cursorOf(rows.get(0)) : null;
+            return new PostPage<>(rows, next, previous);
+      }
+
+      private static String cursorOf(PostSummary post) {
+            return new PostCursor(post.getUpdatedAt(), post.getId()).encode();
+      }
+
+      /**
+       * A repository query seeking past a cursor position.
+       */
+      @FunctionalInterface
+      private interface SeekQuery {
+
+            List<PostSummary> find(Date updatedAt, int id, Limit limit);
+      }
+}
@@ -0,0 +1,236 @@
+package com.milestone.blogger.service;
+
+import com.milestone.blogger.cache.RenderedPageCache;
+import com.milestone.blogger.markdown.MarkdownRenderer;
+import com.milestone.blogger.markdown.RenderedContent;
+import com.milestone.blogger.model.Post;
+import com.milestone.blogger.model.User;
+import com.milestone.blogger.repository.PostRepository;
+import com.milestone.blogger.repository.UserRepository;
+import com.milestone.blogger.search.PostSearchService;
+import com.milestone.blogger.timeline.TimelineService;
+import com.milestone.blogger.util.TransactionUtils;
+import com.milestone.blogger.views.MostReadRanking;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Creates, edits and deletes posts, and decides who may edit them.
+ * <p>
+ * Shared by the HTML forms and the JSON API so both keep the author
+ * counters, the search index, the rendered-page cache and followers'
+ * timelines in step with every write.
+ * <p>
+ * Edits and deletes are single JDBC statements whose WHERE clause does the
+ * ownership and version checks, as {@link AuthorService} does for the
+ * counters: a JPQL bulk statement would empty the whole {@code posts} cache
+ * region, where here only the changed post is evicted, after commit.
+ */
+@Service
+public class PostService {
+
+      /**
+       * The longest title the post table holds.
+       */
+      public static final int MAX_TITLE_LENGTH = 255;
+
+      private final PostRepository postRepository;
+      private final UserRepository userRepository;
+      private final AuthorService authorService;
+      private final PostSearchService postSearchService;
+      private final RenderedPageCache renderedPageCache;
+      private final JdbcTemplate jdbcTemplate;
+      private final jakarta.persistence.Cache entityCache;
+      private final MostReadRanking mostReadRanking;
+      private final MarkdownRenderer markdownRenderer;
+      private final TimelineService timelineService;
+
+      public PostService(PostRepository postRepository, UserRepository userRepository, AuthorService authorService,
+                  PostSearchService postSearchService, RenderedPageCache renderedPageCache, JdbcTemplate jdbcTemplate,
+                  EntityManagerFactory entityManagerFactory, MostReadRanking mostReadRanking,
+                  MarkdownRenderer markdownRenderer, TimelineService timelineService) {
+            this.postRepository = postRepository;
+            this.userRepository = userRepository;
+            this.authorService = authorService;
+            this.postSearchService = postSearchService;
+            this.renderedPageCache = renderedPageCache;
+            this.jdbcTemplate = jdbcTemplate;
+            this.entityCache = entityManagerFactory.getCache();
+            this.mostReadRanking = mostReadRanking;
+            this.markdownRenderer = markdownRenderer;
+            this.timelineService = timelineService;
+      }
+
+      /**
+       * Checks a title and content before they are saved.
+       *
+       * @param title   the title.
+       * @param content the content.
+       * @return why they can't be saved, or null if they can.
+       */
+      public static String validate(String title, String content) {
+            if (title == null || title.isBlank()) {
+                  return "title is required";
+            }
+            if (title.trim().length() > MAX_TITLE_LENGTH) {
+                  return "title is longer than " + MAX_TITLE_LENGTH + " characters";
+            }
+            if (content == null || content.isBlank()) {
+                  return "content is required";
+            }
+            return null;
+      }
+
+      /**
+       * Checks whether a user may edit or delete a post: only its author can.
+       *
+       * @param userId the logged-in user's ID, or null if not logged in.
+       * @param post   the post.
+       * @return true if the user is logged in and wrote the post.
+       */
+      public boolean canModify(Long userId, Post post) {
+            return userId != null && userId.equals(post.getUser().getId());
+      }
+
+      /**
+       * Creates a post.
+       *
+       * @param userId  the author's ID.
+       * @param title   the title.
+       * @param content the content.
+       * @return the new post, or empty if the author doesn't exist.
+       */
+      @Transactional
+      public Optional<Post> create(long userId, String title, String content) {
+            Optional<User> user = userRepository.findById(userId);
+            if (user.isEmpty()) {
+                  return Optional.empty();
+            }
+            Date now = new Date();
+            Post post = new Post();
+            post.setUser(user.get());
+            post.setTitle(title);
+            post.setContent(content);
+            markdownRenderer.renderInto(post);
+            post.setCreatedAt(now);
+            post.setUpdatedAt(now);
+            postRepository.save(post);
+            authorService.recordPostCreated(userId, now);
+            TransactionUtils.afterCommit(() -> {
+                  postSearchService.index(post);
+                  renderedPageCache.invalidatePostCreated();
+                  timelineService.postCreated(user.get(), post.getId(), now);
+            });
+            return Optional.of(post);
+      }
+
+      /**
+       * Renders the new content, then replaces a post's title and content in
+       * one conditional UPDATE that also checks the author and, if given, the
+       * version the edit started from. Nothing is read before the write; only
+       * a refused write reads the post to say why.
+       *
+       * @param postId          the ID of the post.
+       * @param userId          the logged-in user's ID.
+       * @param expectedVersion the version the edit started from, or null to overwrite any version.
+       * @param title           the new title.
+       * @param content         the new content.
+       * @return {@link WriteOutcome#DONE}, or why the post wasn't updated.
+       */
+      @Transactional
+      public WriteOutcome update(int postId, long userId, Integer expectedVersion, String title, String content) {
+            Date now = new Date();
+            RenderedContent rendered = markdownRenderer.render(content);
+            String sql = "update post set title = ?, content = ?, content_html = ?, content_hash = ?, render_version = ?, "
+                        + "excerpt = ?, updated_at = ?, version = version + 1 where id = ? and user_id = ?";
+            int updated = expectedVersion == null
+                        ? jdbcTemplate.update(sql, title, content, rendered.getHtml(), rendered.getHash(),
+                                    MarkdownRenderer.RENDERER_VERSION, rendered.getExcerpt(), new Timestamp(now.getTime()),
+                                    postId, userId)
+                        : jdbcTemplate.update(sql + " and version = ?", title, content, rendered.getHtml(), rendered.getHash(),
+                                    MarkdownRenderer.RENDERER_VERSION, rendered.getExcerpt(), new Timestamp(now.getTime()),
+                                    postId, userId, expectedVersion);
+            if (updated == 0) {
+                  return whyRefused(postId, userId);
+            }
+            authorService.recordPostUpdated(userId, now);
+            TransactionUtils.afterCommit(() -> {
+                  entityCache.evict(Post.class, postId);
+                  postSearchService.index(postId, now, title, content);
+                  renderedPageCache.invalidatePostUpdated(postId);
+                  mostReadRanking.postChanged(postId);
+            });
+            return WriteOutcome.DONE;
+      }
+
+      /**
+       * Deletes a post in one conditional DELETE that also checks the author
+       * and, if given, the version.
+       *
+       * @param postId          the ID of the post.
+       * @param userId          the logged-in user's ID.
+       * @param expectedVersion the version the user last saw, or null to delete any version.
+       * @return {@link WriteOutcome#DONE}, or why the post wasn't deleted.
+       */
+      @Transactional
+      public WriteOutcome delete(int postId, long userId, Integer expectedVersion) {
+            String sql = "delete from post where id = ? and user_id = ?";
+            int deleted = expectedVersion == null
+                        ? jdbcTemplate.update(sql, postId, userId)
+                        : jdbcTemplate.update(sql + " and version = ?", postId, userId, expectedVersion);
+            if (deleted == 0) {
+                  return whyRefused(postId, userId);
+            }
+            authorService.recordPostDeleted(userId, new Date());
+            TransactionUtils.afterCommit(() -> {
+                  entityCache.evict(Post.class, postId);
+                  postSearchService.remove(postId);
+                  renderedPageCache.invalidatePostDeleted(postId);
+                  mostReadRanking.postChanged(postId);
+            });
+            return WriteOutcome.DONE;
+      }
+
+      private WriteOutcome whyRefused(int postId, long userId) {
+            List<Long> authors = jdbcTemplate.queryForList("select user_id from post where id = ?", Long.class, postId);
+            if (authors.isEmpty()) {
+                  return WriteOutcome.NOT_FOUND;
+            }
+            return authors.get(0) == userId ? WriteOutcome.CONFLICT : WriteOutcome.FORBIDDEN;
+      }
+
+      /**
+       * The result of an update or delete.
+       */
+      public enum WriteOutcome {
+
+            /**
+             * The post was written.
+             */
+            DONE,
+
+            /**
+             * There is no post with that ID.
+             */
+            NOT_FOUND,
+
+            /**
+             * The post belongs to someone else.
+             */
+            FORBIDDEN,
+
+            /**
+             * The post has been edited since the given version.
+             */
+            CONFLICT
+      }
+}
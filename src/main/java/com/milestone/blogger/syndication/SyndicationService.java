@@ -0,0 +1,218 @@
+package com.milestone.blogger.syndication;
+
+import com.milestone.blogger.markdown.MarkdownRenderer;
+import com.milestone.blogger.model.PostFeedEntry;
+import com.milestone.blogger.model.PostTimestamp;
+import com.milestone.blogger.model.User;
+import com.milestone.blogger.repository.PostRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.UriUtils;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the Atom feeds and sitemaps.
+ * <p>
+ * Rows are streamed from {@link PostRepository} through a forward-only cursor
+ * straight into a StAX writer on the response, so a document is never built
+ * in memory and memory use stays flat however many posts there are. The read
+ * transaction stays open while the document is written. Entries carry the
+ * post's stored HTML as {@code type="html"} content, so feed readers show the
+ * formatted post rather than its Markdown.
+ * <p>
+ * Sitemaps are split by post ID into files of at most
+ * {@value #URLS_PER_SITEMAP} URLs, the protocol's limit, listed by a sitemap
+ * index. Splitting by ID range rather than by position means a file's
+ * contents only change when one of its own posts does.
+ */
+@Service
+public class SyndicationService {
+
+      /**
+       * The most URLs one sitemap file may hold.
+       */
+      public static final int URLS_PER_SITEMAP = 50_000;
+
+      private static final String ATOM_NS = "http://www.w3.org/2005/Atom";
+      private static final String SITEMAP_NS = "http://www.sitemaps.org/schemas/sitemap/0.9";
+
+      private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newFactory();
+      private final PostRepository postRepository;
+      private final MarkdownRenderer markdownRenderer;
+      private final String siteTitle;
+      private final int feedSize;
+
+      public SyndicationService(PostRepository postRepository, MarkdownRenderer markdownRenderer,
+                  @Value("${blogger.feeds.title:BloggingApp}") String siteTitle,
+                  @Value("${blogger.feeds.size:50}") int feedSize) {
+            this.postRepository = postRepository;
+            this.markdownRenderer = markdownRenderer;
+            this.siteTitle = siteTitle;
+            this.feedSize = feedSize;
+      }
+
+      /**
+       * Writes the Atom feed of the newest posts.
+       *
+       * @param out         where to write the document; not closed.
+       * @param baseUrl     the site's absolute base URL, without a trailing slash.
+       * @param lastUpdated the newest post's update time, or null if there are no posts.
+       * @throws IOException if writing fails.
+       */
+      @Transactional(readOnly = true)
+      public void writeSiteFeed(OutputStream out, String baseUrl, Date lastUpdated) throws IOException {
+            try (Stream<PostFeedEntry> posts = postRepository.streamLatest(Limit.of(feedSize))) {
+                  writeFeed(out, baseUrl, siteTitle, "/feed.atom", "/", lastUpdated, posts.iterator());
+            }
+      }
+
+      /**
+       * Writes the Atom feed of an author's newest posts.
+       *
+       * @param out     where to write the document; not closed.
+       * @param baseUrl the site's absolute base URL, without a trailing slash.
+       * @param author  the author.
+       * @throws IOException if writing fails.
+       */
+      @Transactional(readOnly = true)
+      public void writeAuthorFeed(OutputStream out, String baseUrl, User author) throws IOException {
+            String page = "/users/" + UriUtils.encodePathSegment(author.getUsername(), StandardCharsets.UTF_8);
+            try (Stream<PostFeedEntry> posts = postRepository.streamLatestByUser(author.getId(), Limit.of(feedSize))) {
+                  writeFeed(out, baseUrl, author.getUsername() + " - " + siteTitle, page + "/feed.atom", page,
+                              author.getLastActiveAt(), posts.iterator());
+            }
+      }
+
+      /**
+       * Writes the sitemap index listing one sitemap per block of post IDs.
+       *
+       * @param out         where to write the document; not closed.
+       * @param baseUrl     the site's absolute base URL, without a trailing slash.
+       * @param lastUpdated the newest post's update time, or null if there are no posts.
+       * @throws IOException if writing fails.
+       */
+      public void writeSitemapIndex(OutputStream out, String baseUrl, Date lastUpdated) throws IOException {
+            Integer maxId = postRepository.findMaxId();
+            int sitemaps = maxId == null ? 1 : maxId / URLS_PER_SITEMAP + 1;
+            try {
+                  XMLStreamWriter xml = start(out);
+                  xml.writeStartElement("sitemapindex");
+                  xml.writeDefaultNamespace(SITEMAP_NS);
+                  for (int i = 0; i < sitemaps; i++) {
+                        xml.writeStartElement("sitemap");
+                        element(xml, "loc", baseUrl + "/sitemaps/posts-" + i + ".xml");
+                        if (lastUpdated != null) {
+                              element(xml, "lastmod", lastUpdated.toInstant().toString());
+                        }
+                        xml.writeEndElement();
+                  }
+                  end(xml);
+            } catch (XMLStreamException e) {
+                  throw new IOException(e);
+            }
+      }
+
+      /**
+       * Writes one sitemap, covering posts with IDs from
+       * {@code number * URLS_PER_SITEMAP} up to the next multiple.
+       *
+       * @param out     where to write the document; not closed.
+       * @param baseUrl the site's absolute base URL, without a trailing slash.
+       * @param number  the sitemap's number in the index, from 0.
+       * @throws IOException if writing fails.
+       */
+      @Transactional(readOnly = true)
+      public void writeSitemap(OutputStream out, String baseUrl, int number) throws IOException {
+            int fromId = number * URLS_PER_SITEMAP;
+            try (Stream<PostTimestamp> posts = postRepository.streamTimestampsBetween(fromId, fromId + URLS_PER_SITEMAP)) {
+                  XMLStreamWriter xml = start(out);
+                  xml.writeStartElement("urlset");
+                  xml.writeDefaultNamespace(SITEMAP_NS);
+                  Iterator<PostTimestamp> iterator = posts.iterator();
+                  while (iterator.hasNext()) {
+                        PostTimestamp post = iterator.next();
+                        xml.writeStartElement("url");
+                        element(xml, "loc", baseUrl + "/posts/" + post.getId());
+                        element(xml, "lastmod", post.getUpdatedAt().toInstant().toString());
+                        xml.writeEndElement();
+                  }
+                  end(xml);
+            } catch (XMLStreamException e) {
+                  throw new IOException(e);
+            }
+      }
+
+      private void writeFeed(OutputStream out, String baseUrl, String title, String selfPath, String pagePath,
+                  Date lastUpdated, Iterator<PostFeedEntry> posts) throws IOException {
+            try {
+                  XMLStreamWriter xml = start(out);
+                  xml.writeStartElement("feed");
+                  xml.writeDefaultNamespace(ATOM_NS);
+                  element(xml, "id", baseUrl + selfPath);
+                  element(xml, "title", title);
+                  // An empty feed still needs an updated time; the epoch says "never".
+                  element(xml, "updated", (lastUpdated == null ? new Date(0) : lastUpdated).toInstant().toString());
+                  link(xml, "self", baseUrl + selfPath);
+                  link(xml, "alternate", baseUrl + pagePath);
+                  while (posts.hasNext()) {
+                        PostFeedEntry post = posts.next();
+                        String url = baseUrl + "/posts/" + post.getId();
+                        xml.writeStartElement("entry");
+                        element(xml, "id", url);
+                        element(xml, "title", post.getTitle());
+                        element(xml, "published", post.getCreatedAt().toInstant().toString());
+                        element(xml, "updated", post.getUpdatedAt().toInstant().toString());
+                        xml.writeStartElement("author");
+                        element(xml, "name", post.getAuthor());
+                        xml.writeEndElement();
+                        link(xml, "alternate", url);
+                        xml.writeStartElement("content");
+                        xml.writeAttribute("type", "html");
+                        // Stored by an older renderer and not yet re-rendered: render it here, as MarkdownRenderer.htmlOf does.
+                        xml.writeCharacters(post.getStaleContent() == null ? post.getContentHtml()
+                                    : markdownRenderer.render(post.getStaleContent()).getHtml());
+                        xml.writeEndElement();
+                        xml.writeEndElement();
+                  }
+                  end(xml);
+            } catch (XMLStreamException e) {
+                  throw new IOException(e);
+            }
+      }
+
+      private XMLStreamWriter start(OutputStream out) throws XMLStreamException {
+            XMLStreamWriter xml = xmlOutputFactory.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            return xml;
+      }
+
+      private static void end(XMLStreamWriter xml) throws XMLStreamException {
+            xml.writeEndDocument();
+            xml.flush();
+            xml.close();
+      }
+
+      private static void element(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+            xml.writeStartElement(name);
+            xml.writeCharacters(text);
+            xml.writeEndElement();
+      }
+
+      private static void link(XMLStreamWriter xml, String rel, String href) throws XMLStreamException {
+            xml.writeEmptyElement("link");
+            xml.writeAttribute("rel", rel);
+            xml.writeAttribute("href", href);
+      }
+}
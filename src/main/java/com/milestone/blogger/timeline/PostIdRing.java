@@ -0,0 +1,145 @@
+package com.milestone.blogger.timeline;
+
+import java.util.List;
+
+/**
+ * A bounded list of post IDs, newest first by {@link PostKey}, in circular
+ * arrays of creation times and IDs.
+ * <p>
+ * New posts are usually the newest, so adding one is usually a single write
+ * at the head; a post that arrives late, or an imported one, is inserted in
+ * place. When the ring is full the oldest entry is overwritten. A ring built
+ * from every post its source has is complete; once it has dropped an entry,
+ * or was built from a truncated query, reads past its oldest entry must go
+ * to the database.
+ * <p>
+ * Thread-safe: fan-out adds and page reads may run at the same time.
+ */
+public class PostIdRing {
+
+      private final long[] createdAt;
+      private final int[] ids;
+      private int head;
+      private int size;
+      private boolean complete;
+
+      /**
+       * @param capacity the most posts kept.
+       */
+      public PostIdRing(int capacity) {
+            this.createdAt = new long[capacity];
+            this.ids = new int[capacity];
+            this.complete = true;
+      }
+
+      /**
+       * Creates a ring from the result of a query.
+       *
+       * @param capacity    the most posts kept.
+       * @param newestFirst keys in descending order, at most {@code capacity} of them.
+       * @return the ring, complete if the query returned fewer rows than its capacity.
+       */
+      public static PostIdRing of(int capacity, List<PostKey> newestFirst) {
+            PostIdRing ring = new PostIdRing(capacity);
+            for (int i = newestFirst.size() - 1; i >= 0; i--) {
+                  ring.add(newestFirst.get(i));
+            }
+            ring.complete = newestFirst.size() < capacity;
+            return ring;
+      }
+
+      /**
+       * Adds a post in order, ignoring one already present.
+       *
+       * @param key the post's key.
+       */
+      public synchronized void add(PostKey key) {
+            if (ids.length == 0) {
+                  complete = false;
+                  return;
+            }
+            // Usually the newest: write it in front of the head.
+            if (size == 0 || compareAt(0, key) < 0) {
+                  if (size == ids.length) {
+                        complete = false;
+                  } else {
+                        size++;
+                  }
+                  head = Math.floorMod(head - 1, ids.length);
+                  set(0, key.getCreatedAt(), key.getId());
+                  return;
+            }
+            int position = 0;
+            while (position < size && compareAt(position, key) > 0) {
+                  position++;
+            }
+            if (position < size && compareAt(position, key) == 0) {
+                  return;
+            }
+            if (size == ids.length) {
+                  complete = false;
+                  if (position == size) {
+                        // Older than everything kept.
+                        return;
+                  }
+            } else {
+                  size++;
+            }
+            for (int i = size - 1; i > position; i--) {
+                  int from = slot(i - 1);
+                  set(i, createdAt[from], ids[from]);
+            }
+            set(position, key.getCreatedAt(), key.getId());
+      }
+
+      /**
+       * Returns the newest posts older than a cursor.
+       *
+       * @param before only posts older than this are returned; null for the newest.
+       * @param limit  the most posts to return.
+       * @return up to {@code limit} keys, newest first.
+       */
+      public synchronized PostKey[] newestBefore(PostKey before, int limit) {
+            int start = 0;
+            while (before != null && start < size && compareAt(start, before) >= 0) {
+                  start++;
+            }
+            PostKey[] result = new PostKey[Math.max(0, Math.min(limit, size - start))];
+            for (int i = 0; i < result.length; i++) {
+                  int slot = slot(start + i);
+                  result[i] = new PostKey(createdAt[slot], ids[slot]);
+            }
+            return result;
+      }
+
+      /**
+       * @return true if the ring holds every post its source has, so a short read means there are no more.
+       */
+      public synchronized boolean isComplete() {
+            return complete;
+      }
+
+      /**
+       * @return the number of posts held.
+       */
+      public synchronized int size() {
+            return size;
+      }
+
+      // Compares the entry at a position with a key, as PostKey.compareTo would.
+      private int compareAt(int index, PostKey key) {
+            int slot = slot(index);
+            int byTime = Long.compare(createdAt[slot], key.getCreatedAt());
+            return byTime != 0 ? byTime : Integer.compare(ids[slot], key.getId());
+      }
+
+      private int slot(int index) {
+            return (head + index) % ids.length;
+      }
+
+      private void set(int index, long postCreatedAt, int postId) {
+            int slot = slot(index);
+            createdAt[slot] = postCreatedAt;
+            ids[slot] = postId;
+      }
+}
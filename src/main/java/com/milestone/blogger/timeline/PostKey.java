@@ -0,0 +1,73 @@
+package com.milestone.blogger.timeline;
+
+import com.milestone.blogger.pagination.PostCursor;
+
+import java.util.Date;
+
+/**
+ * A post's place in timelines, (createdAt, id): newer posts sort higher, and
+ * of posts created in the same millisecond the higher ID does.
+ * <p>
+ * Ordering by ID alone would not be creation order: pooled sequences hand
+ * each node its own block of IDs, and imported posts get new IDs whatever
+ * their age. Keys double as the timeline's paging cursor.
+ */
+public final class PostKey implements Comparable<PostKey> {
+
+      private final long createdAt;
+      private final int id;
+
+      /**
+       * @param createdAt the post's creation time, in epoch milliseconds.
+       * @param id        the post's ID.
+       */
+      public PostKey(long createdAt, int id) {
+            this.createdAt = createdAt;
+            this.id = id;
+      }
+
+      public long getCreatedAt() {
+            return createdAt;
+      }
+
+      public int getId() {
+            return id;
+      }
+
+      @Override
+      public int compareTo(PostKey other) {
+            int byTime = Long.compare(createdAt, other.createdAt);
+            return byTime != 0 ? byTime : Integer.compare(id, other.id);
+      }
+
+      @Override
+      public boolean equals(Object other) {
+            return other instanceof PostKey key && key.createdAt == createdAt && key.id == id;
+      }
+
+      @Override
+      public int hashCode() {
+            return Long.hashCode(createdAt) * 31 + id;
+      }
+
+      /**
+       * Encodes this key as a URL-safe cursor token, in the same format as the
+       * other feeds' {@link PostCursor}.
+       *
+       * @return the opaque cursor token.
+       */
+      public String encode() {
+            return new PostCursor(new Date(createdAt), id).encode();
+      }
+
+      /**
+       * Decodes a token produced by {@link #encode()}.
+       *
+       * @param token the opaque cursor token, may be null or blank.
+       * @return the decoded key, or null if the token is missing or malformed.
+       */
+      public static PostKey decode(String token) {
+            PostCursor cursor = PostCursor.decode(token);
+            return cursor == null ? null : new PostKey(cursor.getUpdatedAt().getTime(), cursor.getId());
+      }
+}
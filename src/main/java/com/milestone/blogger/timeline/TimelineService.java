@@ -0,0 +1,273 @@
+package com.milestone.blogger.timeline;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.milestone.blogger.model.PostSummary;
+import com.milestone.blogger.model.User;
+import com.milestone.blogger.pagination.PostPage;
+import com.milestone.blogger.repository.PostRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Each user's timeline: the posts of the authors they follow, newest first.
+ * <p>
+ * Timelines are ordered by {@link PostKey}, creation time then ID, and
+ * built by fan-out on write. A new post is pushed into the cached
+ * {@link PostIdRing} of every follower of its author, so loading
+ * a timeline reads IDs from memory and costs one query for the summaries,
+ * never a join across follows and posts. Authors with more than
+ * {@code blogger.timeline.fan-out-limit} followers are not pushed: each
+ * follower's timeline keeps a list of them and merges in their own recent
+ * posts (fan-out on read), also cached per author.
+ * <p>
+ * Rings hold the newest {@code blogger.timeline.capacity} posts and up to
+ * {@code blogger.timeline.cached-timelines} of them are kept, least recently
+ * used dropped first. A timeline that isn't cached, after a restart for one,
+ * is rebuilt from the database on its next load. Pages older than a ring
+ * holds are read from the database. Deleted posts stay in the rings and drop
+ * out when the page's summaries are loaded. Hit and miss counts are published
+ * as {@code cache.*} metrics with {@code cache=timelines} and
+ * {@code cache=author-posts}.
+ * <p>
+ * Rings are built with {@link JdbcTemplate} outside any transaction, so they
+ * read the primary: a post missed by a lagging replica would never be pushed
+ * again.
+ */
+@Service
+public class TimelineService implements MeterBinder {
+
+      private static final RowMapper<PostKey> POST_KEY = (rs, rowNum) ->
+                  new PostKey(rs.getTimestamp("created_at").getTime(), rs.getInt("id"));
+
+      private final JdbcTemplate jdbcTemplate;
+      private final PostRepository postRepository;
+      private final int pageSize;
+      private final int capacity;
+      private final int fanOutLimit;
+      private final Cache<Long, Timeline> timelines;
+      private final Cache<Long, PostIdRing> authorPosts;
+
+      public TimelineService(JdbcTemplate jdbcTemplate, PostRepository postRepository,
+                  @Value("${blogger.feed.page-size:20}") int pageSize,
+                  @Value("${blogger.timeline.capacity:200}") int capacity,
+                  @Value("${blogger.timeline.fan-out-limit:1000}") int fanOutLimit,
+                  @Value("${blogger.timeline.cached-timelines:10000}") long cachedTimelines) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.postRepository = postRepository;
+            this.pageSize = pageSize;
+            this.capacity = capacity;
+            this.fanOutLimit = fanOutLimit;
+            this.timelines = Caffeine.newBuilder().maximumSize(cachedTimelines).recordStats().build();
+            // Only authors above the fan-out limit get one, so far fewer are needed.
+            this.authorPosts = Caffeine.newBuilder().maximumSize(Math.max(1, cachedTimelines / 10)).recordStats().build();
+      }
+
+      /**
+       * Loads one page of a user's timeline.
+       *
+       * @param userId the user's ID.
+       * @param after  cursor of the last post on the previous page, to page towards older posts; may be null.
+       * @return the page, newest first; it has no cursor towards newer posts.
+       */
+      public PostPage<PostSummary> getPage(long userId, String after) {
+            // One extra post tells whether another page exists.
+            int wanted = pageSize + 1;
+            List<PostKey> keys = newestBefore(userId, PostKey.decode(after), wanted);
+            boolean hasOlder = keys.size() > pageSize;
+            if (hasOlder) {
+                  keys = keys.subList(0, pageSize);
+            }
+            if (keys.isEmpty()) {
+                  return new PostPage<>(List.of(), null, null);
+            }
+            List<Integer> ids = keys.stream().map(PostKey::getId).toList();
+            Map<Integer, PostSummary> summaries = postRepository.findSummariesByIdIn(ids).stream()
+                        .collect(Collectors.toMap(PostSummary::getId, Function.identity()));
+            List<PostSummary> rows = new ArrayList<>(ids.size());
+            for (int id : ids) {
+                  PostSummary summary = summaries.get(id);
+                  if (summary != null) {
+                        rows.add(summary);
+                  }
+            }
+            String next = hasOlder ? keys.get(keys.size() - 1).encode() : null;
+            return new PostPage<>(rows, next, null);
+      }
+
+      /**
+       * Pushes a new post to its author's followers' cached timelines, or, for
+       * an author above the fan-out limit, only to the author's own cached posts.
+       * Call after the post is committed.
+       *
+       * @param author    the post's author, with a current follower count.
+       * @param postId    the ID of the new post.
+       * @param createdAt when the post was created.
+       */
+      public void postCreated(User author, int postId, Date createdAt) {
+            PostKey key = new PostKey(createdAt.getTime(), postId);
+            authorPosts.asMap().computeIfPresent(author.getId(), (id, ring) -> {
+                  ring.add(key);
+                  return ring;
+            });
+            int followers = author.getFollowerCount();
+            if (followers == 0 || followers > fanOutLimit) {
+                  return;
+            }
+            // Followers without a cached timeline pick the post up when theirs is built.
+            List<Long> followerIds = jdbcTemplate.queryForList("select follower_id from follow where followee_id = ?",
+                        Long.class, author.getId());
+            for (Long followerId : followerIds) {
+                  timelines.asMap().computeIfPresent(followerId, (id, timeline) -> {
+                        timeline.posts.add(key);
+                        return timeline;
+                  });
+            }
+      }
+
+      /**
+       * Drops a user's timeline after they follow someone, to be rebuilt on
+       * its next load. Call after the follow is committed.
+       *
+       * @param followerId    the ID of the user who followed.
+       * @param followerCount the followed user's follower count after the follow.
+       */
+      public void followed(long followerId, int followerCount) {
+            if (followerCount == fanOutLimit + 1) {
+                  // The author's posts stop being pushed, and timelines built before don't know to pull them.
+                  timelines.invalidateAll();
+                  return;
+            }
+            timelines.invalidate(followerId);
+      }
+
+      /**
+       * Drops a user's timeline after they unfollow someone, to be rebuilt on
+       * its next load. Call after the unfollow is committed.
+       *
+       * @param followerId the ID of the user who unfollowed.
+       */
+      public void unfollowed(long followerId) {
+            timelines.invalidate(followerId);
+      }
+
+      /**
+       * Drops every cached timeline, for posts written in bulk.
+       */
+      public void invalidateAll() {
+            timelines.invalidateAll();
+            authorPosts.invalidateAll();
+      }
+
+      @Override
+      public void bindTo(MeterRegistry registry) {
+            CaffeineCacheMetrics.monitor(registry, timelines, "timelines");
+            CaffeineCacheMetrics.monitor(registry, authorPosts, "author-posts");
+      }
+
+      private List<PostKey> newestBefore(long userId, PostKey before, int wanted) {
+            Timeline timeline = timelines.get(userId, this::loadTimeline);
+            List<PostKey[]> sources = new ArrayList<>();
+            boolean exhaustive = addSource(sources, timeline.posts, before, wanted);
+            for (long authorId : timeline.pulledAuthors) {
+                  PostIdRing ring = authorPosts.get(authorId, this::loadAuthorPosts);
+                  exhaustive &= addSource(sources, ring, before, wanted);
+            }
+            if (!exhaustive) {
+                  // Older than some ring holds: one query over everyone the user follows.
+                  String sql = "select p.created_at, p.id from post p join follow f on f.followee_id = p.user_id "
+                              + "where f.follower_id = ? ";
+                  if (before == null) {
+                        return jdbcTemplate.query(sql + "order by p.created_at desc, p.id desc limit ?", POST_KEY,
+                                    userId, wanted);
+                  }
+                  Timestamp createdAt = new Timestamp(before.getCreatedAt());
+                  return jdbcTemplate.query(sql + "and (p.created_at < ? or (p.created_at = ? and p.id < ?)) "
+                              + "order by p.created_at desc, p.id desc limit ?", POST_KEY,
+                              userId, createdAt, createdAt, before.getId(), wanted);
+            }
+            return merge(sources, wanted);
+      }
+
+      // Adds a ring's posts older than the cursor; false if it may be missing older ones the page needs.
+      private static boolean addSource(List<PostKey[]> sources, PostIdRing ring, PostKey before, int wanted) {
+            PostKey[] keys = ring.newestBefore(before, wanted);
+            sources.add(keys);
+            return keys.length == wanted || ring.isComplete();
+      }
+
+      // Merges newest-first key lists, dropping duplicates.
+      private static List<PostKey> merge(List<PostKey[]> sources, int wanted) {
+            if (sources.size() == 1) {
+                  return List.of(sources.get(0));
+            }
+            int[] positions = new int[sources.size()];
+            List<PostKey> keys = new ArrayList<>(wanted);
+            while (keys.size() < wanted) {
+                  int newest = -1;
+                  PostKey key = null;
+                  for (int i = 0; i < sources.size(); i++) {
+                        PostKey[] source = sources.get(i);
+                        if (positions[i] < source.length && (key == null || source[positions[i]].compareTo(key) > 0)) {
+                              newest = i;
+                              key = source[positions[i]];
+                        }
+                  }
+                  if (newest < 0) {
+                        break;
+                  }
+                  positions[newest]++;
+                  if (keys.isEmpty() || !keys.get(keys.size() - 1).equals(key)) {
+                        keys.add(key);
+                  }
+            }
+            return keys;
+      }
+
+      private Timeline loadTimeline(long userId) {
+            List<Long> pulledAuthors = jdbcTemplate.queryForList("select f.followee_id from follow f "
+                        + "join user u on u.id = f.followee_id where f.follower_id = ? and u.follower_count > ?",
+                        Long.class, userId, fanOutLimit);
+            List<PostKey> keys = jdbcTemplate.query("select p.created_at, p.id from post p "
+                        + "join follow f on f.followee_id = p.user_id join user u on u.id = p.user_id "
+                        + "where f.follower_id = ? and u.follower_count <= ? order by p.created_at desc, p.id desc limit ?",
+                        POST_KEY, userId, fanOutLimit, capacity);
+            return new Timeline(PostIdRing.of(capacity, keys), pulledAuthors.stream().mapToLong(Long::longValue).toArray());
+      }
+
+      private PostIdRing loadAuthorPosts(long authorId) {
+            // A range of idx_post_user_created_at_id.
+            return PostIdRing.of(capacity, jdbcTemplate.query(
+                        "select created_at, id from post where user_id = ? order by created_at desc, id desc limit ?",
+                        POST_KEY, authorId, capacity));
+      }
+
+      /**
+       * A user's cached timeline: the pushed post IDs and the authors to pull from.
+       */
+      private static class Timeline {
+
+            private final PostIdRing posts;
+            private final long[] pulledAuthors;
+
+            private Timeline(PostIdRing posts, long[] pulledAuthors) {
+                  this.posts = posts;
+                  this.pulledAuthors = pulledAuthors;
+            }
+      }
+}
@@ -0,0 +1,88 @@
+package com.milestone.blogger.transfer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time, so a large upload is never held in
+ * memory. Quoted fields may contain commas, doubled quotes and line breaks;
+ * records end with CRLF or LF.
+ */
+class CsvReader {
+
+      private final Reader reader;
+      private int pushedBack = -2;
+
+      CsvReader(Reader reader) {
+            this.reader = reader;
+      }
+
+      /**
+       * Reads the next record.
+       *
+       * @return the record's fields, or null at the end of the input.
+       * @throws IOException if reading fails or a quoted field is never closed.
+       */
+      List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                  return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            while (true) {
+                  if (quoted) {
+                        if (c == -1) {
+                              throw new IOException("Unterminated quoted field");
+                        }
+                        if (c == '"') {
+                              int following = read();
+                              if (following == '"') {
+                                    field.append('"');
+                              } else {
+                                    quoted = false;
+                                    unread(following);
+                              }
+                        } else {
+                              field.append((char) c);
+                        }
+                  } else if (c == '"' && field.isEmpty() && !wasQuoted) {
+                        quoted = true;
+                        wasQuoted = true;
+                  } else if (c == ',') {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                        wasQuoted = false;
+                  } else if (c == '\r' || c == '\n' || c == -1) {
+                        if (c == '\r') {
+                              int following = read();
+                              if (following != '\n') {
+                                    unread(following);
+                              }
+                        }
+                        fields.add(field.toString());
+                        return fields;
+                  } else {
+                        field.append((char) c);
+                  }
+                  c = read();
+            }
+      }
+
+      private int read() throws IOException {
+            if (pushedBack != -2) {
+                  int c = pushedBack;
+                  pushedBack = -2;
+                  return c;
+            }
+            return reader.read();
+      }
+
+      private void unread(int c) {
+            pushedBack = c;
+      }
+}
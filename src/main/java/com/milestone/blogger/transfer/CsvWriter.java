@@ -0,0 +1,49 @@
+package com.milestone.blogger.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes RFC 4180 CSV records, quoting only the fields that need it.
+ */
+class CsvWriter {
+
+      private final Writer writer;
+
+      CsvWriter(Writer writer) {
+            this.writer = writer;
+      }
+
+      /**
+       * Writes one record, ended with CRLF.
+       *
+       * @param fields the field values; null is written as an empty field.
+       * @throws IOException if writing fails.
+       */
+      void write(String... fields) throws IOException {
+            for (int i = 0; i < fields.length; i++) {
+                  if (i > 0) {
+                        writer.write(',');
+                  }
+                  String field = fields[i] == null ? "" : fields[i];
+                  if (needsQuotes(field)) {
+                        writer.write('"');
+                        writer.write(field.replace("\"", "\"\""));
+                        writer.write('"');
+                  } else {
+                        writer.write(field);
+                  }
+            }
+            writer.write("\r\n");
+      }
+
+      private static boolean needsQuotes(String field) {
+            for (int i = 0; i < field.length(); i++) {
+                  char c = field.charAt(i);
+                  if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                        return true;
+                  }
+            }
+            return false;
+      }
+}
@@ -0,0 +1,114 @@
+package com.milestone.blogger.transfer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Running totals for a bulk import, reported after every batch and once more
+ * when the import finishes.
+ * <p>
+ * Only the first few rejected records are described, so a badly malformed
+ * upload can't grow the report without bound.
+ */
+public class ImportProgress {
+
+      private final int maxErrors;
+      private final List<RecordError> errors = new ArrayList<>();
+      private long processed;
+      private long imported;
+      private long failed;
+      private boolean done;
+
+      ImportProgress(int maxErrors) {
+            this.maxErrors = maxErrors;
+      }
+
+      void recordImported(int count) {
+            processed += count;
+            imported += count;
+      }
+
+      void recordFailed(long record, String message) {
+            processed++;
+            failed++;
+            if (errors.size() < maxErrors) {
+                  errors.add(new RecordError(record, message));
+            }
+      }
+
+      void recordBatchFailed(int count, long lastRecord, String message) {
+            processed += count;
+            failed += count;
+            if (errors.size() < maxErrors) {
+                  errors.add(new RecordError(lastRecord, message));
+            }
+      }
+
+      void finish() {
+            done = true;
+      }
+
+      /**
+       * @return the number of records read so far.
+       */
+      public long getProcessed() {
+            return processed;
+      }
+
+      /**
+       * @return the number of posts created so far.
+       */
+      public long getImported() {
+            return imported;
+      }
+
+      /**
+       * @return the number of records rejected so far.
+       */
+      public long getFailed() {
+            return failed;
+      }
+
+      /**
+       * @return true once the whole input has been read.
+       */
+      public boolean isDone() {
+            return done;
+      }
+
+      /**
+       * @return the first rejected records and why, in input order.
+       */
+      public List<RecordError> getErrors() {
+            return Collections.unmodifiableList(errors);
+      }
+
+      /**
+       * A rejected record.
+       */
+      public static class RecordError {
+
+            private final long record;
+            private final String message;
+
+            RecordError(long record, String message) {
+                  this.record = record;
+                  this.message = message;
+            }
+
+            /**
+             * @return the record's position in the input, starting at 1 (excluding any CSV header).
+             */
+            public long getRecord() {
+                  return record;
+            }
+
+            /**
+             * @return why the record was rejected.
+             */
+            public String getMessage() {
+                  return message;
+            }
+      }
+}
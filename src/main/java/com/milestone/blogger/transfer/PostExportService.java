@@ -0,0 +1,86 @@
+package com.milestone.blogger.transfer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.milestone.blogger.model.PostRecord;
+import com.milestone.blogger.repository.PostRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Writes every post out as NDJSON or CSV, in the format
+ * {@link PostImportService} reads back.
+ * <p>
+ * Posts are read in id order with a keyset cursor, one batch of
+ * {@code blogger.transfer.batch-size} at a time, and each batch is written and
+ * flushed before the next is read. Memory use stays constant however many
+ * posts there are, and no transaction or connection is held while the client
+ * is slow to read.
+ */
+@Service
+public class PostExportService {
+
+      private static final Logger logger = LoggerFactory.getLogger(PostExportService.class);
+
+      static final String[] CSV_COLUMNS = { "id", "title", "content", "author", "createdAt", "updatedAt" };
+
+      private final PostRepository postRepository;
+      private final ObjectWriter recordWriter;
+      private final int batchSize;
+
+      public PostExportService(PostRepository postRepository, ObjectMapper objectMapper,
+                  @Value("${blogger.transfer.batch-size:500}") int batchSize) {
+            this.postRepository = postRepository;
+            this.recordWriter = objectMapper.writerFor(PostRecord.class);
+            this.batchSize = batchSize;
+      }
+
+      /**
+       * Writes every post to the output.
+       *
+       * @param out    where to write; flushed after every batch but not closed.
+       * @param format the output format.
+       * @return the number of posts written.
+       * @throws IOException if writing fails, for example because the client went away.
+       */
+      public long export(Writer out, TransferFormat format) throws IOException {
+            long started = System.nanoTime();
+            CsvWriter csv = format == TransferFormat.CSV ? new CsvWriter(out) : null;
+            if (csv != null) {
+                  csv.write(CSV_COLUMNS);
+            }
+            long written = 0;
+            int lastId = -1;
+            List<PostRecord> batch;
+            do {
+                  batch = postRepository.findRecordsAfter(lastId, Limit.of(batchSize));
+                  for (PostRecord record : batch) {
+                        if (csv != null) {
+                              csv.write(String.valueOf(record.getId()), record.getTitle(), record.getContent(),
+                                          record.getAuthor(), instant(record.getCreatedAt()), instant(record.getUpdatedAt()));
+                        } else {
+                              out.write(recordWriter.writeValueAsString(record));
+                              out.write('\n');
+                        }
+                        lastId = record.getId();
+                  }
+                  out.flush();
+                  written += batch.size();
+            } while (batch.size() == batchSize);
+            logger.info("export(): Exported {} posts in {} ms.", written, (System.nanoTime() - started) / 1_000_000);
+            return written;
+      }
+
+      private static String instant(Date date) {
+            return date == null ? null : date.toInstant().toString();
+      }
+}
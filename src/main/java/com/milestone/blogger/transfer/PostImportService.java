@@ -0,0 +1,311 @@
+package com.milestone.blogger.transfer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.milestone.blogger.cache.RenderedPageCache;
+import com.milestone.blogger.markdown.MarkdownRenderer;
+import com.milestone.blogger.model.Post;
+import com.milestone.blogger.model.PostRecord;
+import com.milestone.blogger.model.User;
+import com.milestone.blogger.repository.UserRepository;
+import com.milestone.blogger.search.PostSearchService;
+import com.milestone.blogger.security.AuthenticatedUser;
+import com.milestone.blogger.service.AuthorService;
+import com.milestone.blogger.service.PostService;
+import com.milestone.blogger.timeline.TimelineService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Creates posts in bulk from an NDJSON or CSV stream.
+ * <p>
+ * The input is read one record at a time and written in batches of
+ * {@code blogger.transfer.batch-size}, each in its own transaction. Post IDs
+ * come from a pooled sequence, so every batch goes to the database as a
+ * handful of JDBC batched INSERTs rather than one round trip per post, and
+ * memory use doesn't grow with the size of the upload. A batch that fails
+ * rolls back alone; the posts of earlier batches stay imported.
+ * <p>
+ * Records keep their title, content and dates. Their IDs are ignored. Admins
+ * may import posts for any existing author; everyone else imports as
+ * themselves.
+ */
+@Service
+public class PostImportService {
+
+      private static final Logger logger = LoggerFactory.getLogger(PostImportService.class);
+
+      @PersistenceContext
+      private EntityManager entityManager;
+
+      private final TransactionTemplate transactionTemplate;
+      private final UserRepository userRepository;
+      private final AuthorService authorService;
+      private final PostSearchService postSearchService;
+      private final RenderedPageCache renderedPageCache;
+      private final MarkdownRenderer markdownRenderer;
+      private final TimelineService timelineService;
+      private final ObjectReader recordReader;
+      private final int batchSize;
+      private final int maxErrors;
+
+      public PostImportService(PlatformTransactionManager transactionManager, UserRepository userRepository,
+                  AuthorService authorService, PostSearchService postSearchService,
+                  RenderedPageCache renderedPageCache, MarkdownRenderer markdownRenderer, TimelineService timelineService,
+                  ObjectMapper objectMapper,
+                  @Value("${blogger.transfer.batch-size:500}") int batchSize,
+                  @Value("${blogger.transfer.max-errors:100}") int maxErrors) {
+            this.transactionTemplate = new TransactionTemplate(transactionManager);
+            this.userRepository = userRepository;
+            this.authorService = authorService;
+            this.postSearchService = postSearchService;
+            this.renderedPageCache = renderedPageCache;
+            this.markdownRenderer = markdownRenderer;
+            this.timelineService = timelineService;
+            this.recordReader = objectMapper.readerFor(PostRecord.class);
+            this.batchSize = batchSize;
+            this.maxErrors = maxErrors;
+      }
+
+      /**
+       * Imports every record in the input.
+       *
+       * @param input    the records, in the given format.
+       * @param format   the input format.
+       * @param importer the logged-in user running the import.
+       * @param onBatch  called with the running totals after every batch.
+       * @return the final totals.
+       * @throws IOException if the input can't be read.
+       */
+      public ImportProgress importPosts(BufferedReader input, TransferFormat format, AuthenticatedUser importer,
+                  Consumer<ImportProgress> onBatch) throws IOException {
+            long started = System.nanoTime();
+            ImportProgress progress = new ImportProgress(maxErrors);
+            AuthorResolver authors = new AuthorResolver(importer);
+            RecordSource source = format == TransferFormat.CSV ? csvSource(input) : ndjsonSource(input);
+
+            List<Post> batch = new ArrayList<>(batchSize);
+            long recordNumber = 0;
+            while (true) {
+                  PostRecord record;
+                  recordNumber++;
+                  try {
+                        record = source.next();
+                  } catch (IllegalArgumentException e) {
+                        progress.recordFailed(recordNumber, e.getMessage());
+                        continue;
+                  }
+                  if (record == null) {
+                        break;
+                  }
+                  String problem = PostService.validate(record.getTitle(), record.getContent());
+                  Long authorId = problem == null ? authors.resolve(record.getAuthor()) : null;
+                  if (problem == null && authorId == null) {
+                        problem = authors.problem(record.getAuthor());
+                  }
+                  if (problem != null) {
+                        progress.recordFailed(recordNumber, problem);
+                        continue;
+                  }
+                  batch.add(toPost(record, authorId));
+                  if (batch.size() == batchSize) {
+                        writeBatch(batch, recordNumber, progress);
+                        onBatch.accept(progress);
+                  }
+            }
+            if (!batch.isEmpty()) {
+                  writeBatch(batch, recordNumber - 1, progress);
+            }
+            progress.finish();
+            onBatch.accept(progress);
+            logger.info("importPosts(): Imported {} of {} records in {} ms.", progress.getImported(),
+                        progress.getProcessed(), (System.nanoTime() - started) / 1_000_000);
+            return progress;
+      }
+
+      private void writeBatch(List<Post> batch, long lastRecord, ImportProgress progress) {
+            try {
+                  transactionTemplate.executeWithoutResult(status -> insert(batch));
+            } catch (RuntimeException e) {
+                  logger.warn("writeBatch(): Batch ending at record {} failed.", lastRecord, e);
+                  progress.recordBatchFailed(batch.size(), lastRecord, "batch ending here failed: " + e.getMessage());
+                  batch.clear();
+                  return;
+            }
+            batch.forEach(postSearchService::index);
+            // Imported posts keep their dates, so they can land on any page of the feed.
+            renderedPageCache.invalidateAll();
+            timelineService.invalidateAll();
+            progress.recordImported(batch.size());
+            batch.clear();
+      }
+
+      private void insert(List<Post> batch) {
+            Session session = entityManager.unwrap(Session.class);
+            session.setJdbcBatchSize(batchSize);
+            // Imported posts are rarely read right away; don't push hot entries out of the second-level cache.
+            session.setCacheMode(CacheMode.IGNORE);
+
+            Map<Long, Integer> counts = new HashMap<>();
+            Map<Long, Date> latest = new HashMap<>();
+            for (Post post : batch) {
+                  long authorId = post.getUser().getId();
+                  post.setUser(entityManager.getReference(User.class, authorId));
+                  entityManager.persist(post);
+                  counts.merge(authorId, 1, Integer::sum);
+                  latest.merge(authorId, post.getUpdatedAt(), (a, b) -> a.after(b) ? a : b);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            counts.forEach((authorId, count) -> authorService.recordPostsImported(authorId, count, latest.get(authorId)));
+      }
+
+      private Post toPost(PostRecord record, long authorId) {
+            Date now = new Date();
+            Date createdAt = record.getCreatedAt() == null ? now : record.getCreatedAt();
+            // Stands in for the author until insert() swaps in a reference from the batch's session.
+            User author = new User();
+            author.setId(authorId);
+            Post post = new Post();
+            post.setUser(author);
+            post.setTitle(record.getTitle().trim());
+            post.setContent(record.getContent());
+            markdownRenderer.renderInto(post);
+            post.setCreatedAt(createdAt);
+            post.setUpdatedAt(record.getUpdatedAt() == null ? createdAt : record.getUpdatedAt());
+            return post;
+      }
+
+      private RecordSource ndjsonSource(BufferedReader input) {
+            return () -> {
+                  String line;
+                  do {
+                        line = input.readLine();
+                        if (line == null) {
+                              return null;
+                        }
+                  } while (line.isBlank());
+                  try {
+                        return recordReader.readValue(line);
+                  } catch (JsonProcessingException e) {
+                        throw new IllegalArgumentException("invalid JSON: " + e.getOriginalMessage());
+                  }
+            };
+      }
+
+      private static RecordSource csvSource(BufferedReader input) throws IOException {
+            CsvReader csv = new CsvReader(input);
+            List<String> header = csv.next();
+            if (header == null) {
+                  return () -> null;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                  columns.put(header.get(i).trim(), i);
+            }
+            return () -> {
+                  List<String> fields;
+                  do {
+                        fields = csv.next();
+                        if (fields == null) {
+                              return null;
+                        }
+                  } while (fields.size() == 1 && fields.get(0).isEmpty());
+                  PostRecord record = new PostRecord();
+                  record.setTitle(column(fields, columns, "title"));
+                  record.setContent(column(fields, columns, "content"));
+                  record.setAuthor(column(fields, columns, "author"));
+                  record.setCreatedAt(date(column(fields, columns, "createdAt")));
+                  record.setUpdatedAt(date(column(fields, columns, "updatedAt")));
+                  return record;
+            };
+      }
+
+      private static String column(List<String> fields, Map<String, Integer> columns, String name) {
+            Integer index = columns.get(name);
+            return index == null || index >= fields.size() ? null : fields.get(index);
+      }
+
+      private static Date date(String value) {
+            if (value == null || value.isBlank()) {
+                  return null;
+            }
+            try {
+                  return Date.from(Instant.parse(value.trim()));
+            } catch (DateTimeParseException e) {
+                  throw new IllegalArgumentException("invalid date: " + value);
+            }
+      }
+
+      /**
+       * Supplies records one at a time.
+       */
+      private interface RecordSource {
+
+            /**
+             * @return the next record, or null at the end of the input.
+             * @throws IllegalArgumentException if the next record is malformed; reading can continue after it.
+             * @throws IOException              if the input can't be read.
+             */
+            PostRecord next() throws IOException;
+      }
+
+      /**
+       * Maps author usernames to user IDs for one import, looking each one up once.
+       */
+      private class AuthorResolver {
+
+            private final AuthenticatedUser importer;
+            private final String importerUsername;
+            private final Map<String, Optional<Long>> ids = new HashMap<>();
+
+            AuthorResolver(AuthenticatedUser importer) {
+                  this.importer = importer;
+                  this.importerUsername = userRepository.findById(importer.getUserId())
+                              .map(User::getUsername)
+                              .orElseThrow(() -> new IllegalStateException("Importing user no longer exists"));
+            }
+
+            /**
+             * @return the author's ID, or null if the importer can't import as them.
+             */
+            Long resolve(String author) {
+                  if (author == null || author.isBlank() || author.equals(importerUsername)) {
+                        return importer.getUserId();
+                  }
+                  if (!"admin".equals(importer.getRole())) {
+                        return null;
+                  }
+                  return ids.computeIfAbsent(author, a -> userRepository.findByUsername(a).map(User::getId)).orElse(null);
+            }
+
+            String problem(String author) {
+                  return "admin".equals(importer.getRole())
+                              ? "unknown author: " + author
+                              : "you can only import your own posts";
+            }
+      }
+}
@@ -0,0 +1,52 @@
+package com.milestone.blogger.transfer;
+
+import java.util.Locale;
+
+/**
+ * The formats posts can be imported and exported in.
+ * <p>
+ * Both hold one post per record with the fields of
+ * {@link com.milestone.blogger.model.PostRecord}. CSV starts with a header row
+ * naming the columns, in any order; dates are ISO-8601 instants.
+ */
+public enum TransferFormat {
+
+      /**
+       * Newline-delimited JSON: one post object per line.
+       */
+      NDJSON("application/x-ndjson"),
+
+      /**
+       * Comma-separated values with a header row.
+       */
+      CSV("text/csv");
+
+      private final String contentType;
+
+      TransferFormat(String contentType) {
+            this.contentType = contentType;
+      }
+
+      public String getContentType() {
+            return contentType;
+      }
+
+      /**
+       * Picks the format from an explicit {@code format} parameter, falling back
+       * to the request's content type, then to NDJSON.
+       *
+       * @param name        the requested format name, may be null.
+       * @param contentType the request's content type, may be null.
+       * @return the format.
+       * @throws IllegalArgumentException if the name is not a known format.
+       */
+      public static TransferFormat of(String name, String contentType) {
+            if (name != null && !name.isBlank()) {
+                  return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            }
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(CSV.contentType)) {
+                  return CSV;
+            }
+            return NDJSON;
+      }
+}
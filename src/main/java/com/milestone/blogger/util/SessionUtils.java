@@ -0,0 +1,62 @@
+package com.milestone.blogger.util;
+
+import com.milestone.blogger.security.AuthenticatedUser;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Helpers for reading login state without creating a session.
+ * <p>
+ * The logged-in user is resolved once per request by the
+ * {@link com.milestone.blogger.security.LoginFilter}, from the session or a
+ * signed cookie depending on {@code blogger.auth.mode}.
+ */
+public final class SessionUtils {
+
+      private SessionUtils() {
+      }
+
+      /**
+       * Checks whether the visitor is logged in.
+       *
+       * @param request the current request.
+       * @return true if the visitor is logged in.
+       */
+      public static boolean isLoggedIn(HttpServletRequest request) {
+            return currentUser(request) != null;
+      }
+
+      /**
+       * Reads the logged-in user's ID.
+       *
+       * @param request the current request.
+       * @return the user's ID, or null if not logged in.
+       */
+      public static Long currentUserId(HttpServletRequest request) {
+            AuthenticatedUser user = currentUser(request);
+            return user == null ? null : user.getUserId();
+      }
+
+      /**
+       * Reads the logged-in user.
+       *
+       * @param request the current request.
+       * @return the user, or null if not logged in.
+       */
+      public static AuthenticatedUser currentUser(HttpServletRequest request) {
+            return (AuthenticatedUser) request.getAttribute(AuthenticatedUser.ATTRIBUTE);
+      }
+
+      /**
+       * Identifies who a page is rendered for, for use in cache keys and validators.
+       *
+       * @param request the current request.
+       * @return {@code user:<id>} for a logged-in user, or {@code anon}.
+       */
+      public static String viewerKey(HttpServletRequest request) {
+            if (!isLoggedIn(request)) {
+                  return "anon";
+            }
+            return "user:" + currentUserId(request);
+      }
+}
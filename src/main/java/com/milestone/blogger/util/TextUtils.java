@@ -0,0 +1,33 @@
+package com.milestone.blogger.util;
+
+/**
+ * Small text helpers shared by controllers and services.
+ */
+public final class TextUtils {
+
+      /**
+       * Maximum length of a stored post excerpt, including the trailing ellipsis.
+       */
+      public static final int EXCERPT_LENGTH = 200;
+
+      private TextUtils() {
+      }
+
+      /**
+       * Builds the excerpt shown on list pages.
+       * Matches Thymeleaf's {@code #strings.abbreviate(text, 200)} so stored
+       * excerpts look the same as the ones previously computed at render time.
+       *
+       * @param text the full text, may be null.
+       * @return the text abbreviated to {@link #EXCERPT_LENGTH} characters, or an empty string.
+       */
+      public static String excerpt(String text) {
+            if (text == null) {
+                  return "";
+            }
+            if (text.length() <= EXCERPT_LENGTH) {
+                  return text;
+            }
+            return text.substring(0, EXCERPT_LENGTH - 3) + "...";
+      }
+}
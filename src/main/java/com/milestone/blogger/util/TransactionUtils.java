@@ -0,0 +1,34 @@
+package com.milestone.blogger.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Helpers for work that must wait for the current transaction.
+ */
+public final class TransactionUtils {
+
+      private TransactionUtils() {
+      }
+
+      /**
+       * Runs an action once the current transaction commits, such as evicting
+       * a cache entry the transaction changed, so no reader can re-cache the
+       * old row in between. Runs it immediately when there is no transaction.
+       *
+       * @param action the action.
+       */
+      public static void afterCommit(Runnable action) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                  // Called without a transaction (for example from the startup listener), so the change is already committed.
+                  action.run();
+                  return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                  @Override
+                  public void afterCommit() {
+                        action.run();
+                  }
+            });
+      }
+}
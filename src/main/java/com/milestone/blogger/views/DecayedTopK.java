@@ -0,0 +1,119 @@
+package com.milestone.blogger.views;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Exponentially time-decayed scores per key with a top-K query.
+ * <p>
+ * Uses forward decay: a view at time {@code t} adds {@code e^(λ(t - landmark))}
+ * rather than decaying every stored score as time passes. All scores share
+ * the same landmark, so comparing them gives the same order as comparing
+ * decayed scores, and adding views costs O(1). When the weights grow large
+ * the landmark moves forward and the scores are scaled down once.
+ * <p>
+ * Keys not seen for longer than the window are dropped. {@link #top} keeps a
+ * K-element min-heap over the remaining keys, O(n log K). Not thread-safe.
+ */
+public class DecayedTopK {
+
+      // e^200 leaves headroom for summed counts far below Double.MAX_VALUE.
+      private static final double MAX_EXPONENT = 200;
+
+      private final double lambdaPerMs;
+      private final long windowMs;
+      private final Map<Integer, Score> scores = new HashMap<>();
+      private long landmark;
+
+      /**
+       * @param halfLife how long until a view counts half as much.
+       * @param window   how long after its last view a key is dropped.
+       * @param now      the current time in epoch milliseconds.
+       */
+      public DecayedTopK(Duration halfLife, Duration window, long now) {
+            this.lambdaPerMs = Math.log(2) / halfLife.toMillis();
+            this.windowMs = window.toMillis();
+            this.landmark = now;
+      }
+
+      /**
+       * Adds views of a key.
+       *
+       * @param key   the key.
+       * @param count the number of views.
+       * @param at    when they happened, in epoch milliseconds.
+       */
+      public void add(int key, long count, long at) {
+            if (lambdaPerMs * (at - landmark) > MAX_EXPONENT) {
+                  moveLandmark(at);
+            }
+            Score score = scores.computeIfAbsent(key, k -> new Score());
+            score.value += count * Math.exp(lambdaPerMs * (at - landmark));
+            score.lastSeen = Math.max(score.lastSeen, at);
+      }
+
+      /**
+       * Forgets a key, for example a deleted post.
+       *
+       * @param key the key.
+       */
+      public void remove(int key) {
+            scores.remove(key);
+      }
+
+      /**
+       * Drops keys last seen before the window and returns the highest scoring keys.
+       *
+       * @param k   the most keys to return.
+       * @param now the current time in epoch milliseconds.
+       * @return up to k keys, highest score first; ties go to the higher key.
+       */
+      public List<Integer> top(int k, long now) {
+            scores.values().removeIf(score -> score.lastSeen < now - windowMs);
+            Comparator<Map.Entry<Integer, Score>> order = Comparator
+                        .comparingDouble((Map.Entry<Integer, Score> entry) -> entry.getValue().value)
+                        .thenComparing(Map.Entry::getKey);
+            PriorityQueue<Map.Entry<Integer, Score>> heap = new PriorityQueue<>(k + 1, order);
+            for (Map.Entry<Integer, Score> entry : scores.entrySet()) {
+                  if (heap.size() < k) {
+                        heap.add(entry);
+                  } else if (k > 0 && order.compare(entry, heap.peek()) > 0) {
+                        heap.poll();
+                        heap.add(entry);
+                  }
+            }
+            List<Integer> top = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                  top.add(heap.poll().getKey());
+            }
+            Collections.reverse(top);
+            return top;
+      }
+
+      /**
+       * @return the number of keys tracked.
+       */
+      public int size() {
+            return scores.size();
+      }
+
+      private void moveLandmark(long to) {
+            double scale = Math.exp(-lambdaPerMs * (to - landmark));
+            for (Score score : scores.values()) {
+                  score.value *= scale;
+            }
+            landmark = to;
+      }
+
+      private static class Score {
+
+            private double value;
+            private long lastSeen = Long.MIN_VALUE;
+      }
+}
@@ -0,0 +1,158 @@
+package com.milestone.blogger.views;
+
+import com.milestone.blogger.cache.RenderedPageCache;
+import com.milestone.blogger.model.PostSummary;
+import com.milestone.blogger.repository.PostRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The "most read this week" list shown on the homepage.
+ * <p>
+ * Scores are kept in memory, fed by each {@link ViewCounter} flush and
+ * decayed with a configurable half-life; posts unread for a week drop out.
+ * The list is recomputed from those scores with a top-K heap after each
+ * flush, and the summaries are loaded only when the posts in it change, so
+ * rendering the widget costs no query and nothing ever sorts the view table.
+ * On startup the scores are rebuilt from the last week of daily counts.
+ */
+@Component
+public class MostReadRanking {
+
+      /**
+       * How far back views count.
+       */
+      static final Duration WINDOW = Duration.ofDays(7);
+
+      private static final Logger logger = LoggerFactory.getLogger(MostReadRanking.class);
+
+      private final JdbcTemplate jdbcTemplate;
+      private final PostRepository postRepository;
+      private final RenderedPageCache renderedPageCache;
+      private final int size;
+      private final DecayedTopK scores;
+      // Guards the scores and the list; not a monitor, as rebuild and refresh query the database while holding it.
+      private final ReentrantLock lock = new ReentrantLock();
+
+      private volatile List<PostSummary> mostRead = List.of();
+      private volatile long generation;
+      private volatile boolean stale;
+
+      public MostReadRanking(JdbcTemplate jdbcTemplate, PostRepository postRepository, RenderedPageCache renderedPageCache,
+                  @Value("${blogger.views.most-read-size:5}") int size,
+                  @Value("${blogger.views.half-life:1d}") Duration halfLife) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.postRepository = postRepository;
+            this.renderedPageCache = renderedPageCache;
+            this.size = size;
+            this.scores = new DecayedTopK(halfLife, WINDOW, System.currentTimeMillis());
+      }
+
+      /**
+       * @return the most read posts, most read first.
+       */
+      public List<PostSummary> getMostRead() {
+            return mostRead;
+      }
+
+      /**
+       * Returns a counter that changes whenever the list does, for HTTP validators.
+       *
+       * @return the current generation.
+       */
+      public long getGeneration() {
+            return generation;
+      }
+
+      /**
+       * Rebuilds the scores from the daily counts of the last week.
+       *
+       * @param now the current time in epoch milliseconds.
+       */
+      public void rebuild(long now) {
+            lock.lock();
+            try {
+                  LocalDate since = LocalDate.ofEpochDay(Math.floorDiv(now - WINDOW.toMillis(), Duration.ofDays(1).toMillis()));
+                  int[] rows = new int[1];
+                  jdbcTemplate.query("select post_id, viewed_on, views from post_views where viewed_on > ?", rs -> {
+                        // Attribute a day's views to its middle, or to now for today.
+                        long midday = rs.getDate("viewed_on").toLocalDate().atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli()
+                                    + Duration.ofHours(12).toMillis();
+                        scores.add(rs.getInt("post_id"), rs.getLong("views"), Math.min(midday, now));
+                        rows[0]++;
+                  }, Date.valueOf(since));
+                  logger.info("rebuild(): Loaded {} daily view counts for {} posts.", rows[0], scores.size());
+                  refresh(now);
+            } finally {
+                  lock.unlock();
+            }
+      }
+
+      /**
+       * Adds a flush's worth of views.
+       *
+       * @param counts views per post ID.
+       * @param at     when they were counted, in epoch milliseconds.
+       */
+      public void record(Map<Integer, Long> counts, long at) {
+            lock.lock();
+            try {
+                  counts.forEach((postId, count) -> scores.add(postId, count, at));
+            } finally {
+                  lock.unlock();
+            }
+      }
+
+      /**
+       * Recomputes the list, loading summaries only if its posts changed or one of them was edited.
+       *
+       * @param now the current time in epoch milliseconds.
+       */
+      public void refresh(long now) {
+            lock.lock();
+            try {
+                  List<Integer> top = scores.top(size, now);
+                  List<Integer> shown = mostRead.stream().map(PostSummary::getId).toList();
+                  if (top.equals(shown) && !stale) {
+                        return;
+                  }
+                  stale = false;
+                  Map<Integer, PostSummary> summaries = top.isEmpty() ? Map.of()
+                              : postRepository.findSummariesByIdIn(top).stream()
+                                          .collect(Collectors.toMap(PostSummary::getId, Function.identity()));
+                  // Deleted posts may still have counts; they drop out here.
+                  top.stream().filter(postId -> !summaries.containsKey(postId)).forEach(scores::remove);
+                  mostRead = top.stream().map(summaries::get).filter(Objects::nonNull).toList();
+                  generation++;
+                  renderedPageCache.invalidateMostRead();
+            } finally {
+                  lock.unlock();
+            }
+      }
+
+      /**
+       * Marks the list for reloading if it shows a post that was edited or deleted.
+       *
+       * @param postId the ID of the changed post.
+       */
+      public void postChanged(int postId) {
+            if (mostRead.stream().anyMatch(post -> post.getId() == postId)) {
+                  stale = true;
+            }
+      }
+}
@@ -0,0 +1,51 @@
+package com.milestone.blogger.views;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Counts a view for every successful {@code GET /posts/{id}}.
+ * <p>
+ * Runs outside the rendered-page cache and conditional GET handling, so
+ * views served from cached HTML or answered with 304 are counted too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+public class ViewCountFilter extends OncePerRequestFilter {
+
+      private static final Pattern POST_PATH = Pattern.compile("/posts/(\\d{1,9})");
+
+      private final ViewCounter viewCounter;
+
+      public ViewCountFilter(ViewCounter viewCounter) {
+            this.viewCounter = viewCounter;
+      }
+
+      @Override
+      protected boolean shouldNotFilter(HttpServletRequest request) {
+            return !"GET".equals(request.getMethod());
+      }
+
+      @Override
+      protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                  throws ServletException, IOException {
+            chain.doFilter(request, response);
+            Matcher matcher = POST_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+            int status = response.getStatus();
+            if (matcher.matches() && (status == HttpStatus.OK.value() || status == HttpStatus.NOT_MODIFIED.value())) {
+                  viewCounter.record(Integer.parseInt(matcher.group(1)));
+            }
+      }
+}
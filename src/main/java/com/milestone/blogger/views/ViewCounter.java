@@ -0,0 +1,161 @@
+package com.milestone.blogger.views;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts post views in memory and writes them to {@code post_views} in
+ * periodic batches.
+ * <p>
+ * A view is one {@link LongAdder} increment, which spreads contention across
+ * cells instead of every reader of a popular post updating the same row.
+ * Every {@code blogger.views.flush-interval} the counts are drained and
+ * written as one batch of upserts adding to each post's row for the day,
+ * then handed to the {@link MostReadRanking}. A failed write puts the counts
+ * back for the next flush, and shutdown flushes whatever is left.
+ */
+@Component
+public class ViewCounter {
+
+      private static final Logger logger = LoggerFactory.getLogger(ViewCounter.class);
+
+      private static final String UPSERT = "insert into post_views (post_id, viewed_on, views) values (?, ?, ?) "
+                  + "on duplicate key update views = views + values(views)";
+
+      private final JdbcTemplate jdbcTemplate;
+      private final MostReadRanking mostReadRanking;
+      private final Duration flushInterval;
+      private final ConcurrentHashMap<Integer, LongAdder> pending = new ConcurrentHashMap<>();
+      // One flush at a time. Held across the batch write, so a ReentrantLock rather than a monitor.
+      private final ReentrantLock flushLock = new ReentrantLock();
+      private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                  .name("view-counter")
+                  .daemon()
+                  .factory());
+
+      public ViewCounter(JdbcTemplate jdbcTemplate, MostReadRanking mostReadRanking,
+                  @Value("${blogger.views.flush-interval:10s}") Duration flushInterval) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.mostReadRanking = mostReadRanking;
+            this.flushInterval = flushInterval;
+      }
+
+      /**
+       * Counts one view of a post.
+       *
+       * @param postId the ID of the viewed post.
+       */
+      public void record(int postId) {
+            pending.computeIfAbsent(postId, id -> new LongAdder()).increment();
+      }
+
+      /**
+       * Rebuilds the ranking, then starts flushing. Views counted before this
+       * are still pending, so none is loaded twice.
+       */
+      @EventListener(ApplicationReadyEvent.class)
+      public void start() {
+            try {
+                  mostReadRanking.rebuild(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                  logger.warn("start(): Starting the most read ranking empty: {}", e.getMessage());
+            }
+            flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(),
+                        TimeUnit.MILLISECONDS);
+      }
+
+      /**
+       * Writes the pending counts and updates the ranking.
+       *
+       * @return the number of posts whose counts were written.
+       */
+      public int flush() {
+            flushLock.lock();
+            try {
+                  long now = System.currentTimeMillis();
+                  Map<Integer, Long> counts = drain();
+                  if (!counts.isEmpty()) {
+                        Date today = Date.valueOf(LocalDate.ofInstant(Instant.ofEpochMilli(now), ZoneOffset.UTC));
+                        List<Object[]> rows = new ArrayList<>(counts.size());
+                        counts.forEach((postId, views) -> rows.add(new Object[] { postId, today, views }));
+                        try {
+                              jdbcTemplate.batchUpdate(UPSERT, rows);
+                        } catch (DataAccessException e) {
+                              counts.forEach((postId, views) -> pending.computeIfAbsent(postId, id -> new LongAdder()).add(views));
+                              throw e;
+                        }
+                        mostReadRanking.record(counts, now);
+                  }
+                  mostReadRanking.refresh(now);
+                  return counts.size();
+            } finally {
+                  flushLock.unlock();
+            }
+      }
+
+      /**
+       * Stops the schedule and writes the last counts.
+       *
+       * @throws InterruptedException if interrupted while waiting for a running flush.
+       */
+      @PreDestroy
+      public void stop() throws InterruptedException {
+            flusher.shutdown();
+            flusher.awaitTermination(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+            try {
+                  int posts = flush();
+                  logger.info("stop(): Wrote pending views for {} posts.", posts);
+            } catch (RuntimeException e) {
+                  logger.error("stop(): Lost pending views for {} posts: {}", pending.size(), e.getMessage());
+            }
+      }
+
+      private Map<Integer, Long> drain() {
+            Map<Integer, Long> counts = new HashMap<>();
+            for (Map.Entry<Integer, LongAdder> entry : pending.entrySet()) {
+                  long views = entry.getValue().sumThenReset();
+                  if (views > 0) {
+                        counts.put(entry.getKey(), views);
+                  } else if (pending.remove(entry.getKey(), entry.getValue())) {
+                        // Idle since the last flush. Keep anything that arrived while removing it.
+                        long late = entry.getValue().sumThenReset();
+                        if (late > 0) {
+                              counts.put(entry.getKey(), late);
+                        }
+                  }
+            }
+            return counts;
+      }
+
+      private void flushQuietly() {
+            try {
+                  flush();
+            } catch (RuntimeException e) {
+                  logger.warn("flushQuietly(): View count flush failed: {}", e.getMessage());
+            }
+      }
+}
@@ -8,10 +8,18 @@ CREATE TABLE IF NOT EXISTS `post` (
   `user_id` bigint(20) NOT NULL,
   `title` varchar(255) NOT NULL,
   `content` text NOT NULL,
+  `content_html` text DEFAULT NULL,
+  `content_hash` varchar(64) DEFAULT NULL,
+  `render_version` int DEFAULT NULL,
+  `excerpt` varchar(255) NOT NULL DEFAULT '',
   `created_at` datetime(6) NOT NULL,
-  `updated_at` datetime(6) DEFAULT NULL,
+  `updated_at` datetime(6) NOT NULL,
+  `version` int NOT NULL DEFAULT 0,
   PRIMARY KEY (`id`),
-  KEY `FK_post_user` (`user_id`)
+  KEY `FK_post_user` (`user_id`),
+  KEY `idx_post_updated_at_id` (`updated_at`, `id`),
+  KEY `idx_post_user_updated_at_id` (`user_id`, `updated_at`, `id`),
+  KEY `idx_post_user_created_at_id` (`user_id`, `created_at`, `id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=7 DEFAULT CHARSET=utf8;
 
 INSERT INTO `post` (`id`, `user_id`, `title`, `content`, `created_at`, `updated_at`) VALUES
@@ -20,6 +28,10 @@ INSERT INTO `post` (`id`, `user_id`, `title`, `content`, `created_at`, `updated_
 (4, 2, 'Har har har', 'This is some funny stuff right here, I\'m not gonna lie', '2024-12-22 21:57:02.079000', '2024-12-22 21:57:02.079000'),
 (5, 1, 'Let\'s do another', 'Here\'s another post to test out creating new posts! ', '2024-12-22 22:25:59.508000', '2024-12-22 22:25:59.508000');
 
+-- Precompute list-page excerpts, matching #strings.abbreviate(content, 200). The Markdown HTML is left
+-- NULL; the application renders these posts on startup and replaces the excerpts with rendered text.
+UPDATE `post` SET `excerpt` = IF(CHAR_LENGTH(`content`) <= 200, `content`, CONCAT(LEFT(`content`, 197), '...'));
+
 DROP TABLE IF EXISTS `user`;
 CREATE TABLE IF NOT EXISTS `user` (
   `id` bigint(20) NOT NULL AUTO_INCREMENT,
@@ -28,6 +40,9 @@ CREATE TABLE IF NOT EXISTS `user` (
   `password_hash` varchar(255) NOT NULL,
   `role` varchar(255) NOT NULL,
   `username` varchar(255) NOT NULL,
+  `post_count` int NOT NULL DEFAULT 0,
+  `last_active_at` datetime(6) DEFAULT NULL,
+  `follower_count` int NOT NULL DEFAULT 0,
   PRIMARY KEY (`id`),
   UNIQUE KEY `UKob8kqyqqgmefl0aco34akdtpe` (`email`),
   UNIQUE KEY `UKsb8bbouer5wak8vyiiy4pf2bx` (`username`)
@@ -39,6 +54,45 @@ INSERT INTO `user` (`id`, `datejoined`, `email`, `password_hash`, `role`, `usern
 (3, '2024-12-22 22:27:27.071000', 'Example@google.com', '$2a$10$RhRs.Tb9I.ttuGiuQUyZteLGthRIG4PfsgPBJHgrsxAwwp2x.FwpS', 'user', 'AnotherUser'),
 (4, '2024-12-22 22:34:31.219000', 'test@example.com', '$2a$10$dqf/.ot8.i6.h1nGkhrSUONddc5rp0dUBm3n2cpV1sh8ABOrlKKhO', 'user', 'TestUser');
 
+-- Denormalized author counters, kept current on every post write
+UPDATE `user` u SET
+  `post_count` = (SELECT COUNT(*) FROM `post` p WHERE p.`user_id` = u.`id`),
+  `last_active_at` = (SELECT MAX(p.`updated_at`) FROM `post` p WHERE p.`user_id` = u.`id`);
+
+-- Pooled ID sequences for post and user (MySQL has no sequences, so Hibernate keeps each in a
+-- one-row table). next_val must stay above the highest ID; the application re-checks on startup.
+DROP TABLE IF EXISTS `post_seq`;
+CREATE TABLE `post_seq` (`next_val` bigint DEFAULT NULL) ENGINE=InnoDB;
+INSERT INTO `post_seq` VALUES (7);
+
+DROP TABLE IF EXISTS `user_seq`;
+CREATE TABLE `user_seq` (`next_val` bigint DEFAULT NULL) ENGINE=InnoDB;
+INSERT INTO `user_seq` VALUES (5);
+
+-- Daily view counts per post, added to in batches by the view counter. No foreign key: counts for a
+-- post may be written just after it is deleted.
+DROP TABLE IF EXISTS `post_views`;
+CREATE TABLE `post_views` (
+  `post_id` int NOT NULL,
+  `viewed_on` date NOT NULL,
+  `views` bigint NOT NULL,
+  PRIMARY KEY (`post_id`, `viewed_on`),
+  KEY `idx_post_views_viewed_on` (`viewed_on`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- Who follows whom. follower_count on the followed user is kept current on every follow.
+DROP TABLE IF EXISTS `follow`;
+CREATE TABLE `follow` (
+  `follower_id` bigint(20) NOT NULL,
+  `followee_id` bigint(20) NOT NULL,
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`follower_id`, `followee_id`),
+  KEY `idx_follow_followee_follower` (`followee_id`, `follower_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
 
 ALTER TABLE `post`
   ADD CONSTRAINT `FK_post_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`);
+
+ALTER TABLE `follow`
+  ADD CONSTRAINT `FK_follow_follower` FOREIGN KEY (`follower_id`) REFERENCES `user` (`id`),
+  ADD CONSTRAINT `FK_follow_followee` FOREIGN KEY (`followee_id`) REFERENCES `user` (`id`);
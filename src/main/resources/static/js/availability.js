@@ -0,0 +1,37 @@
+/*
+ * Live "is this taken?" hints for the registration form. Each field is
+ * checked against /users/availability once typing pauses; the server answers
+ * most checks from memory, so this costs little.
+ */
+document.addEventListener("DOMContentLoaded", function () {
+  ["username", "email"].forEach(function (field) {
+    var input = document.getElementById(field);
+    var hint = document.getElementById(field + "-availability");
+    if (!input || !hint) {
+      return;
+    }
+    var timer;
+    input.addEventListener("input", function () {
+      clearTimeout(timer);
+      hint.textContent = "";
+      var value = input.value.trim();
+      if (!value || !input.checkValidity()) {
+        return;
+      }
+      timer = setTimeout(function () {
+        fetch("/users/availability?" + new URLSearchParams([[field, value]]))
+          .then(function (response) {
+            return response.ok ? response.json() : null;
+          })
+          .then(function (result) {
+            if (result && input.value.trim() === value) {
+              var available = result[field];
+              hint.textContent = available ? "Available" : "Already taken";
+              hint.className = "form-text " + (available ? "text-success" : "text-danger");
+            }
+          })
+          .catch(function () {});
+      }, 300);
+    });
+  });
+});
@@ -0,0 +1,37 @@
+package com.milestone.blogger.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTests {
+
+	@Test
+	void neverMissesAnAddedValue() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("user" + i);
+		}
+
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(filter.mightContain("user" + i)).isTrue();
+		}
+		assertThat(filter.getInsertions()).isEqualTo(10_000);
+	}
+
+	@Test
+	void falsePositivesStayNearTheConfiguredRateAtCapacity() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("user" + i);
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("other" + i)) {
+				falsePositives++;
+			}
+		}
+		assertThat(falsePositives).isLessThan(2_000);
+	}
+}
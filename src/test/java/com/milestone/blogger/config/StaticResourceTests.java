@@ -0,0 +1,47 @@
+package com.milestone.blogger.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StaticResourceTests {
+
+	private static final Pattern STYLESHEET = Pattern.compile("href=\"(/vendor/bootstrap/bootstrap\\.min-[0-9a-f]{32}\\.css)\"");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void pagesLinkSelfHostedFingerprintedAssets() throws Exception {
+		String page = mockMvc.perform(get("/users/login"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(not(containsString("cdn.jsdelivr.net"))))
+				.andExpect(content().string(containsString("/vendor/bootstrap/bootstrap.bundle.min-")))
+				.andReturn().getResponse().getContentAsString();
+		Matcher stylesheet = STYLESHEET.matcher(page);
+		assertThat(stylesheet.find()).isTrue();
+
+		mockMvc.perform(get(stylesheet.group(1)).header("Accept-Encoding", "gzip, deflate"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Content-Encoding", "gzip"))
+				.andExpect(header().string("Vary", containsString("Accept-Encoding")))
+				.andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+	}
+}
@@ -0,0 +1,504 @@
+package com.milestone.blogger.controller;
+
+import static com.milestone.blogger.querybudget.QueryLogAssert.assertThatQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.milestone.blogger.availability.UserAvailabilityService;
+import com.milestone.blogger.model.Post;
+import com.milestone.blogger.model.User;
+import com.milestone.blogger.querybudget.QueryBudgetConfiguration;
+import com.milestone.blogger.querybudget.QueryBudgetExtension;
+import com.milestone.blogger.querybudget.QueryLog;
+import com.milestone.blogger.querybudget.QueryRecorder;
+import com.milestone.blogger.repository.PostRepository;
+import com.milestone.blogger.repository.UserRepository;
+import com.milestone.blogger.search.PostSearchService;
+import com.milestone.blogger.security.PasswordHashingService;
+import com.milestone.blogger.timeline.TimelineService;
+import com.milestone.blogger.views.MostReadRanking;
+import com.milestone.blogger.views.ViewCounter;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.Date;
+
+/**
+ * SQL budgets for every endpoint of the home, post and user controllers.
+ * <p>
+ * The rendered-page cache is off and the second-level cache is emptied
+ * before each test, so the budgets are what a cold request costs the
+ * database. A change that adds a query, loads a whole table or loses a
+ * fetch join fails here.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(QueryBudgetExtension.class)
+@Import(QueryBudgetConfiguration.class)
+@TestPropertySource(properties = { "blogger.page-cache.enabled=false", "blogger.feed.page-size=" + EndpointQueryBudgetTests.PAGE_SIZE,
+		"blogger.transfer.batch-size=" + EndpointQueryBudgetTests.TRANSFER_BATCH_SIZE, "blogger.views.flush-interval=1h",
+		"blogger.timeline.fan-out-limit=" + EndpointQueryBudgetTests.FAN_OUT_LIMIT,
+		"blogger.login-throttle.lookup.capacity=" + EndpointQueryBudgetTests.LOOKUP_CAPACITY })
+class EndpointQueryBudgetTests {
+
+	static final int PAGE_SIZE = 5;
+
+	static final int TRANSFER_BATCH_SIZE = 20;
+
+	static final int FAN_OUT_LIMIT = 1;
+
+	static final int LOOKUP_CAPACITY = 3;
+
+	private static final String PASSWORD = "budget-password";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PostSearchService postSearchService;
+
+	@Autowired
+	private PasswordHashingService passwordHashingService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ViewCounter viewCounter;
+
+	@Autowired
+	private UserAvailabilityService userAvailabilityService;
+
+	@Autowired
+	private MostReadRanking mostReadRanking;
+
+	@Autowired
+	private TimelineService timelineService;
+
+	private User author;
+	private Post post;
+
+	@BeforeEach
+	void seed() {
+		postRepository.findAll().forEach(existing -> postSearchService.remove(existing.getId()));
+		postRepository.deleteAllInBatch();
+		jdbcTemplate.update("delete from follow");
+		userRepository.deleteAllInBatch();
+		timelineService.invalidateAll();
+
+		author = saveUser("author");
+
+		for (int i = 0; i < PAGE_SIZE * 2; i++) {
+			post = savePost("Budget post " + i);
+		}
+
+		entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+	}
+
+	@Test
+	void homepageCostsTheSameRegardlessOfPostCount(QueryRecorder queries) throws Exception {
+		QueryLog small = queries.capture(() -> mockMvc.perform(get("/")).andExpect(status().isOk()));
+		// Feed stats for the validator, then one keyset page with the author joined in.
+		assertThatQueries(small).hasAtMostStatements(2).hasAtMostRows(PAGE_SIZE + 2).hasNoWrites();
+
+		for (int i = 0; i < PAGE_SIZE * 10; i++) {
+			savePost("More posts " + i);
+		}
+		QueryLog large = queries.capture(() -> mockMvc.perform(get("/")).andExpect(status().isOk()));
+		assertThatQueries(large).hasSameStatementCountAs(small).hasAtMostRows(small.getRows());
+	}
+
+	@Test
+	void postListPages(QueryRecorder queries) throws Exception {
+		assertThatQueries(queries.capture(() -> mockMvc.perform(get("/posts")).andExpect(status().isOk())))
+				.hasAtMostStatements(2).hasAtMostRows(PAGE_SIZE + 2);
+
+		String cursor = mockMvc.perform(get("/posts")).andReturn().getModelAndView().getModel().get("nextCursor").toString();
+		assertThatQueries(queries.capture(() -> mockMvc.perform(get("/posts").param("after", cursor)).andExpect(status().isOk())))
+				.hasAtMostStatements(2).hasAtMostRows(PAGE_SIZE + 2);
+	}
+
+	@Test
+	void searchLoadsOnlyTheMatchingSummaries(QueryRecorder queries) throws Exception {
+		assertThatQueries(queries.capture(() -> mockMvc.perform(get("/posts/search").param("q", "budget")).andExpect(status().isOk())))
+				.hasAtMostStatements(1).hasNoWrites();
+		assertThatQueries(queries.capture(() -> mockMvc.perform(get("/posts/search")).andExpect(status().isOk())))
+				.hasNoStatements();
+	}
+
+	@Test
+	void viewPost(QueryRecorder queries) throws Exception {
+		// Validator lookup, the post, then its lazily loaded author for the byline.
+		assertThatQueries(queries.capture(() -> mockMvc.perform(get("/posts/" + post.getId())).andExpect(status().isOk())))
+				.hasAtMostStatements(3).hasAtMostRows(3);
+	}
+
+	@Test
+	void viewPostNotModifiedSkipsLoadingThePost(QueryRecorder queries) throws Exception {
+		String etag = mockMvc.perform(get("/posts/" + post.getId())).andReturn().getResponse().getHeader("ETag");
+		assertThatQueries(queries.capture(() -> mockMvc.perform(get("/posts/" + post.getId()).header("If-None-Match", etag))
+				.andExpect(status().isNotModified())))
+				.hasAtMostStatements(1).hasAtMostRows(1);
+	}
+
+	@Test
+	void viewsAreCountedInMemoryAndWrittenInOneBatch(QueryRecorder queries) throws Exception {
+		viewCounter.flush();
+		Post other = savePost("Less read");
+		QueryLog views = queries.capture(() -> {
+			for (int i = 0; i < 5; i++) {
+				mockMvc.perform(get("/posts/" + post.getId())).andExpect(status().isOk());
+			}
+			mockMvc.perform(get("/posts/" + other.getId())).andExpect(status().isOk());
+		});
+		assertThatQueries(views).hasNoWrites();
+
+		// One batched upsert for both posts, then the summaries for the changed ranking.
+		QueryLog flush = queries.capture(() -> viewCounter.flush());
+		assertThatQueries(flush).hasAtMostStatements(2).hasAtMostSelects(1);
+		assertThat(mostReadRanking.getMostRead().get(0).getId()).isEqualTo(post.getId());
+		assertThat(jdbcTemplate.queryForObject("select views from post_views where post_id = ?", Long.class, post.getId()))
+				.isEqualTo(5);
+
+		// The homepage shows the ranking without querying for it.
+		assertThatQueries(queries.capture(() -> mockMvc.perform(get("/")).andExpect(status().isOk())
+				.andExpect(content().string(containsString("Most Read This Week")))))
+				.hasAtMostStatements(2);
+		assertThatQueries(queries.capture(() -> viewCounter.flush())).hasNoStatements();
+	}
+
+	@Test
+	void newPostForm(QueryRecorder queries) throws Exception {
+		assertThatQueries(queries.capture(() -> mockMvc.perform(loggedIn(get("/posts/new"))).andExpect(status().isOk())))
+				.hasNoStatements();
+	}
+
+	@Test
+	void createPost(QueryRecorder queries) throws Exception {
+		QueryLog log = queries.capture(() -> mockMvc.perform(loggedIn(post("/posts/new"))
+				.param("title", "New").param("content", "Body"))
+				.andExpect(redirectedUrl("/posts")));
+		// The author row, the insert, then the author's counters, plus the next block of IDs once every 50 posts.
+		assertThatQueries(log).hasAtMostStatements(4).hasAtMostSelects(2);
+		// Seeded posts bypass the counters, so only this one is counted; a stale cached author would show 0.
+		assertThat(userRepository.findById(author.getId()).get().getPostCount()).isEqualTo(1);
+	}
+
+	@Test
+	void editPostForm(QueryRecorder queries) throws Exception {
+		assertThatQueries(queries.capture(() -> mockMvc.perform(loggedIn(get("/posts/" + post.getId() + "/edit")))
+				.andExpect(status().isOk())))
+				.hasAtMostStatements(1).hasNoWrites();
+	}
+
+	@Test
+	void updatePost(QueryRecorder queries) throws Exception {
+		QueryLog log = queries.capture(() -> mockMvc.perform(loggedIn(post("/posts/" + post.getId() + "/edit"))
+				.param("title", "Edited").param("content", "Edited body").param("version", "0"))
+				.andExpect(redirectedUrl("/posts/" + post.getId())));
+		// One conditional update checks owner and version, then the author's last-active time.
+		assertThatQueries(log).hasAtMostStatements(2).hasNoReadBeforeWrite();
+	}
+
+	@Test
+	void updateFromStaleVersionShowsBothVersions() throws Exception {
+		jdbcTemplate.update("update post set title = 'Edited elsewhere', version = 1 where id = ?", post.getId());
+		mockMvc.perform(loggedIn(post("/posts/" + post.getId() + "/edit"))
+				.param("title", "Mine").param("content", "My body").param("version", "0"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("Edited elsewhere")))
+				.andExpect(content().string(containsString("name=\"version\" value=\"1\"")));
+		assertThat(jdbcTemplate.queryForObject("select title from post where id = ?", String.class, post.getId()))
+				.isEqualTo("Edited elsewhere");
+	}
+
+	@Test
+	void deletePost(QueryRecorder queries) throws Exception {
+		QueryLog log = queries.capture(() -> mockMvc.perform(loggedIn(post("/posts/" + post.getId() + "/delete")))
+				.andExpect(redirectedUrl("/posts")));
+		assertThatQueries(log).hasAtMostStatements(2).hasNoReadBeforeWrite();
+		mockMvc.perform(loggedIn(get("/posts/" + post.getId() + "/delete"))).andExpect(status().isMethodNotAllowed());
+	}
+
+	@Test
+	void userForms(QueryRecorder queries) throws Exception {
+		assertThatQueries(queries.capture(() -> mockMvc.perform(get("/users/register")).andExpect(status().isOk())))
+				.hasNoStatements();
+		assertThatQueries(queries.capture(() -> mockMvc.perform(get("/users/login")).andExpect(status().isOk())))
+				.hasNoStatements();
+		assertThatQueries(queries.capture(() -> mockMvc.perform(loggedIn(get("/users/logout"))).andExpect(redirectedUrl("/"))))
+				.hasNoStatements();
+	}
+
+	@Test
+	void authorPageReadsItsHeaderFromTheCacheAndNeverCountsPosts(QueryRecorder queries) throws Exception {
+		QueryLog cold = queries.capture(() -> mockMvc.perform(get("/users/author")).andExpect(status().isOk()));
+		// The user by username, then one keyset page of their posts.
+		assertThatQueries(cold).hasAtMostStatements(2).hasAtMostRows(PAGE_SIZE + 2);
+
+		QueryLog warm = queries.capture(() -> mockMvc.perform(get("/users/author")).andExpect(status().isOk()));
+		assertThatQueries(warm).hasAtMostStatements(1).hasAtMostRows(PAGE_SIZE + 1);
+		assertThat(cold.getSelects()).noneMatch(sql -> sql.contains("count("));
+
+		String cursor = mockMvc.perform(get("/users/author")).andReturn().getModelAndView().getModel().get("nextCursor").toString();
+		assertThatQueries(queries.capture(() -> mockMvc.perform(get("/users/author").param("after", cursor)).andExpect(status().isOk())))
+				.hasAtMostStatements(1);
+	}
+
+	@Test
+	void ownProfileRedirectsToTheAuthorPage(QueryRecorder queries) throws Exception {
+		assertThatQueries(queries.capture(() -> mockMvc.perform(loggedIn(get("/users/profile"))).andExpect(redirectedUrl("/users/author"))))
+				.hasAtMostStatements(1);
+	}
+
+	@Test
+	void followersReadPushedPostsWithoutJoiningFollows(QueryRecorder queries) throws Exception {
+		User reader = saveUser("reader");
+		QueryLog follow = queries.capture(() -> mockMvc.perform(as(reader, post("/users/author/follow")))
+				.andExpect(redirectedUrl("/users/author")));
+		// The author by username, the insert, then the follower count updated and read back.
+		assertThatQueries(follow).hasAtMostStatements(4);
+		mockMvc.perform(as(reader, get("/users/author"))).andExpect(content().string(containsString(">Unfollow<")));
+
+		QueryLog cold = queries.capture(() -> mockMvc.perform(as(reader, get("/feed"))).andExpect(status().isOk()));
+		// Authors to pull from and the pushed post IDs to rebuild the timeline, then the page's summaries.
+		assertThatQueries(cold).hasAtMostStatements(3).hasNoWrites();
+
+		mockMvc.perform(loggedIn(post("/posts/new")).param("title", "Pushed post").param("content", "Body"))
+				.andExpect(redirectedUrl("/posts"));
+		QueryLog warm = queries.capture(() -> mockMvc.perform(as(reader, get("/feed"))).andExpect(status().isOk())
+				.andExpect(content().string(containsString("Pushed post"))));
+		assertThatQueries(warm).hasAtMostStatements(1).hasAtMostRows(PAGE_SIZE);
+
+		String cursor = mockMvc.perform(as(reader, get("/feed"))).andReturn().getModelAndView().getModel().get("nextCursor").toString();
+		assertThatQueries(queries.capture(() -> mockMvc.perform(as(reader, get("/feed").param("after", cursor))).andExpect(status().isOk())))
+				.hasAtMostStatements(1);
+	}
+
+	@Test
+	void postsByAuthorsAboveTheFanOutLimitAreMergedInOnRead(QueryRecorder queries) throws Exception {
+		User reader = saveUser("reader");
+		for (int i = 0; i <= FAN_OUT_LIMIT; i++) {
+			User follower = i == 0 ? reader : saveUser("follower" + i);
+			mockMvc.perform(as(follower, post("/users/author/follow"))).andExpect(redirectedUrl("/users/author"));
+		}
+		mockMvc.perform(as(reader, get("/feed"))).andExpect(status().isOk());
+
+		QueryLog create = queries.capture(() -> mockMvc.perform(loggedIn(post("/posts/new"))
+				.param("title", "Pulled post").param("content", "Body"))
+				.andExpect(redirectedUrl("/posts")));
+		// Nothing is pushed, so the followers aren't loaded: the same budget as a post nobody follows.
+		assertThatQueries(create).hasAtMostStatements(4).hasAtMostSelects(2);
+
+		QueryLog read = queries.capture(() -> mockMvc.perform(as(reader, get("/feed"))).andExpect(status().isOk())
+				.andExpect(content().string(containsString("Pulled post"))));
+		assertThatQueries(read).hasAtMostStatements(1);
+	}
+
+	@Test
+	void registerUser(QueryRecorder queries) throws Exception {
+		userAvailabilityService.rebuild();
+		QueryLog log = queries.capture(() -> mockMvc.perform(post("/users/register")
+				.param("username", "newcomer").param("email", "newcomer@example.com").param("passwordHash", PASSWORD))
+				.andExpect(status().isOk()));
+		// New names pass the availability filter without a query: the insert, plus the next block of IDs once every 50 users.
+		assertThatQueries(log).hasAtMostStatements(2).hasAtMostSelects(1);
+
+		QueryLog taken = queries.capture(() -> mockMvc.perform(get("/users/availability")
+				.param("username", "newcomer").param("email", "else@example.com"))
+				.andExpect(status().isOk())
+				.andExpect(content().json("{\"username\":false,\"email\":true}")));
+		// A probable match checks both fields in one query.
+		assertThatQueries(taken).hasAtMostStatements(1);
+	}
+
+	@Test
+	void throttledAvailabilityLookupsRunNoQueries(QueryRecorder queries) throws Exception {
+		RequestPostProcessor client = request -> {
+			request.setRemoteAddr("203.0.113.7");
+			return request;
+		};
+		for (int i = 0; i < LOOKUP_CAPACITY; i++) {
+			mockMvc.perform(get("/users/availability").param("email", "probe" + i + "@example.com").with(client))
+					.andExpect(status().isOk());
+		}
+		QueryLog log = queries.capture(() -> mockMvc.perform(get("/users/availability")
+				.param("email", "author@example.com").with(client))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().exists("Retry-After")));
+		assertThatQueries(log).hasAtMostStatements(0);
+	}
+
+	@Test
+	void registeringANameTakenBehindTheFiltersBackIsAFormError(QueryRecorder queries) throws Exception {
+		userAvailabilityService.rebuild();
+		jdbcTemplate.update("insert into user (id, username, email, password_hash, role, post_count) "
+				+ "values (-1, 'racer', 'racer@example.com', 'x', 'user', 0)");
+
+		mockMvc.perform(post("/users/register")
+				.param("username", "racer").param("email", "racer2@example.com").param("passwordHash", PASSWORD))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("is already taken")));
+	}
+
+	@Test
+	void loginUser(QueryRecorder queries) throws Exception {
+		QueryLog log = queries.capture(() -> mockMvc.perform(post("/users/login")
+				.param("username", "author").param("password", PASSWORD))
+				.andExpect(redirectedUrl("/")));
+		assertThatQueries(log).hasAtMostStatements(1).hasNoWrites();
+	}
+
+	@Test
+	void importInsertsInJdbcBatches(QueryRecorder queries) throws Exception {
+		StringBuilder body = new StringBuilder();
+		int records = TRANSFER_BATCH_SIZE * 2 + 5;
+		for (int i = 0; i < records; i++) {
+			body.append("{\"title\":\"Imported ").append(i).append("\",\"content\":\"Imported body\",\"createdAt\":\"2020-01-01T00:00:00Z\"}\n");
+		}
+		body.append("{\"title\":\"\",\"content\":\"No title\"}\n");
+
+		QueryLog log = queries.capture(() -> mockMvc.perform(loggedIn(post("/api/posts/import"))
+				.contentType("application/x-ndjson").content(body.toString()))
+				.andExpect(status().isOk()));
+		// The importer once, then per batch one batched insert and one counter update, plus a block of IDs per 50 posts.
+		assertThatQueries(log).hasAtMostStatements(1 + 3 * 2 + 2);
+		assertThat(log.getWrites()).filteredOn(sql -> sql.startsWith("insert")).hasSize(3);
+		assertThat(postRepository.count()).isEqualTo(PAGE_SIZE * 2 + records);
+		assertThat(userRepository.findById(author.getId()).get().getPostCount()).isEqualTo(records);
+	}
+
+	@Test
+	void exportReadsOneKeysetBatchAtATime(QueryRecorder queries) throws Exception {
+		for (int i = 0; i < TRANSFER_BATCH_SIZE; i++) {
+			savePost("Export " + i);
+		}
+		QueryLog log = queries.capture(() -> mockMvc.perform(loggedIn(get("/api/posts/export")).param("format", "csv"))
+				.andExpect(status().isOk()));
+		// 30 posts in batches of 20: a full batch, then a short one that ends the walk.
+		assertThatQueries(log).hasAtMostStatements(2).hasAtMostRows(PAGE_SIZE * 2 + TRANSFER_BATCH_SIZE).hasNoWrites();
+	}
+
+	@Test
+	void feedsStreamOneQueryAndRevalidateWithoutOne(QueryRecorder queries) throws Exception {
+		QueryLog site = queries.capture(() -> mockMvc.perform(get("/feed.atom")).andExpect(status().isOk())
+				// Saved without rendering, so the feed renders them itself.
+				.andExpect(content().string(containsString("<content type=\"html\">&lt;p&gt;Budget post 1 content&lt;/p&gt;"))));
+		// Feed stats for the validator, then the streamed entries.
+		assertThatQueries(site).hasAtMostStatements(2).hasAtMostRows(PAGE_SIZE * 2 + 1).hasNoWrites();
+
+		mockMvc.perform(loggedIn(post("/posts/new")).param("title", "Formatted").param("content", "Some **bold** text"))
+				.andExpect(redirectedUrl("/posts"));
+		mockMvc.perform(get("/feed.atom"))
+				.andExpect(content().string(containsString("&lt;p&gt;Some &lt;strong&gt;bold&lt;/strong&gt; text&lt;/p&gt;")));
+
+		String etag = mockMvc.perform(get("/users/author/feed.atom")).andReturn().getResponse().getHeader("ETag");
+		// The author comes from the second-level cache, so revalidating costs nothing.
+		assertThatQueries(queries.capture(() -> mockMvc.perform(get("/users/author/feed.atom").header("If-None-Match", etag))
+				.andExpect(status().isNotModified())))
+				.hasNoStatements();
+	}
+
+	@Test
+	void sitemaps(QueryRecorder queries) throws Exception {
+		assertThatQueries(queries.capture(() -> mockMvc.perform(get("/sitemap.xml")).andExpect(status().isOk())))
+				.hasAtMostStatements(2).hasAtMostRows(2);
+		assertThatQueries(queries.capture(() -> mockMvc.perform(get("/sitemaps/posts-0.xml")).andExpect(status().isOk())))
+				.hasAtMostStatements(2).hasAtMostRows(PAGE_SIZE * 2 + 1);
+	}
+
+	@Test
+	void apiListReadsContentOnlyWhenAskedFor(QueryRecorder queries) throws Exception {
+		QueryLog summaries = queries.capture(() -> mockMvc.perform(get("/api/posts").param("fields", "id,title,excerpt"))
+				.andExpect(status().isOk()));
+		assertThatQueries(summaries).hasAtMostStatements(1).hasAtMostRows(PAGE_SIZE + 1);
+		assertThat(summaries.getSelects()).noneMatch(sql -> sql.contains("content"));
+
+		// The keyset page, then the content of just those posts.
+		assertThatQueries(queries.capture(() -> mockMvc.perform(get("/api/posts")).andExpect(status().isOk())))
+				.hasAtMostStatements(2).hasAtMostRows(PAGE_SIZE * 2 + 1);
+	}
+
+	@Test
+	void apiWrites(QueryRecorder queries) throws Exception {
+		assertThatQueries(queries.capture(() -> mockMvc.perform(loggedIn(post("/api/posts"))
+				.contentType("application/json").content("{\"title\":\"New\",\"content\":\"Body\"}"))
+				.andExpect(status().isCreated())))
+				.hasAtMostStatements(4).hasAtMostSelects(2);
+		assertThatQueries(queries.capture(() -> mockMvc.perform(loggedIn(put("/api/posts/" + post.getId()))
+				.header("If-Match", "\"0\"")
+				.contentType("application/json").content("{\"title\":\"Edited\",\"content\":\"Edited body\"}"))
+				.andExpect(status().isOk()).andExpect(header().string("ETag", "\"1\""))))
+				// As the form, then the updated post and its author for the response.
+				.hasAtMostStatements(3).hasAtMostSelects(1).hasNoReadBeforeWrite();
+		mockMvc.perform(loggedIn(put("/api/posts/" + post.getId())).header("If-Match", "\"0\"")
+				.contentType("application/json").content("{\"title\":\"Stale\",\"content\":\"Stale body\"}"))
+				.andExpect(status().isPreconditionFailed());
+		assertThatQueries(queries.capture(() -> mockMvc.perform(loggedIn(delete("/api/posts/" + post.getId())))
+				.andExpect(status().isNoContent())))
+				.hasAtMostStatements(2).hasNoReadBeforeWrite();
+	}
+
+	private MockHttpServletRequestBuilder loggedIn(MockHttpServletRequestBuilder request) {
+		return as(author, request);
+	}
+
+	private MockHttpServletRequestBuilder as(User user, MockHttpServletRequestBuilder request) {
+		return request.sessionAttr("loggedIn", true).sessionAttr("userId", user.getId());
+	}
+
+	private User saveUser(String username) {
+		User user = new User();
+		user.setUsername(username);
+		user.setEmail(username + "@example.com");
+		user.setPasswordHash(passwordHashingService.hash(PASSWORD));
+		user.setDatejoined(new Date());
+		return userRepository.save(user);
+	}
+
+	private Post savePost(String title) {
+		Post saved = new Post();
+		saved.setUser(author);
+		saved.setTitle(title);
+		saved.setContent(title + " content");
+		saved.setExcerpt(title + " content");
+		saved.setCreatedAt(new Date());
+		saved.setUpdatedAt(new Date());
+		postRepository.save(saved);
+		postSearchService.index(saved);
+		return saved;
+	}
+}
@@ -0,0 +1,178 @@
+package com.milestone.blogger.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.milestone.blogger.model.Post;
+import com.milestone.blogger.model.User;
+import com.milestone.blogger.repository.PostRepository;
+import com.milestone.blogger.repository.UserRepository;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Date;
+
+/**
+ * Routing between two in-memory databases standing in for the primary and
+ * a replica. "Replication" is a copy of the primary taken on demand, so the
+ * replica lags the primary by exactly what each test writes after copying.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = { "blogger.page-cache.enabled=false",
+		"spring.datasource.url=" + ReplicaRoutingTests.PRIMARY_URL,
+		"blogger.datasource.replica-urls=" + ReplicaRoutingTests.REPLICA_URL + ";IFEXISTS=TRUE",
+		"blogger.datasource.replica-connect-timeout=250ms",
+		"blogger.datasource.replica-health-interval=1h" })
+class ReplicaRoutingTests {
+
+	static final String PRIMARY_URL = "jdbc:h2:mem:primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+	static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+	private static final String SNAPSHOT = "target/replica-snapshot.sql";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private HikariDataSource primaryDataSource;
+
+	@Autowired
+	private ReplicaPool replicaPool;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private SingleConnectionDataSource replica;
+	private User author;
+	private Post post;
+
+	@BeforeEach
+	void seed() {
+		// Holds the replica database open; the application's replica pool only connects to it if it exists.
+		replica = new SingleConnectionDataSource(REPLICA_URL, "sa", "", true);
+
+		postRepository.deleteAllInBatch();
+		userRepository.deleteAllInBatch();
+		author = new User();
+		author.setUsername("author");
+		author.setEmail("author@example.com");
+		author.setPasswordHash("hash");
+		author.setDatejoined(new Date());
+		userRepository.save(author);
+		post = new Post();
+		post.setUser(author);
+		post.setTitle("Original");
+		post.setContent("Original content");
+		post.setExcerpt("Original content");
+		post.setCreatedAt(new Date());
+		post.setUpdatedAt(new Date());
+		postRepository.save(post);
+
+		replicate();
+		replicaPool.checkHealth();
+	}
+
+	@AfterEach
+	void closeReplica() {
+		replica.destroy();
+	}
+
+	@Test
+	void readsComeFromTheReplicaAndWritesGoToThePrimary() throws Exception {
+		new JdbcTemplate(primaryDataSource).update("update post set title = 'Only on primary' where id = ?", post.getId());
+
+		readPost().andExpect(jsonPath("$.title").value("Original"));
+
+		mockMvc.perform(put("/api/posts/" + post.getId())
+				.sessionAttr("loggedIn", true).sessionAttr("userId", author.getId())
+				.contentType("application/json").content("{\"title\":\"Edited\",\"content\":\"Edited content\"}"))
+				.andExpect(status().isOk());
+
+		assertThat(new JdbcTemplate(primaryDataSource).queryForObject("select title from post where id = ?", String.class,
+				post.getId())).isEqualTo("Edited");
+		assertThat(new JdbcTemplate(replica).queryForObject("select title from post where id = ?", String.class,
+				post.getId())).isEqualTo("Original");
+	}
+
+	@Test
+	void authorReadsTheirOwnWriteFromThePrimary() throws Exception {
+		Cookie window = mockMvc.perform(put("/api/posts/" + post.getId())
+				.sessionAttr("loggedIn", true).sessionAttr("userId", author.getId())
+				.contentType("application/json").content("{\"title\":\"Edited\",\"content\":\"Edited content\"}"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+		assertThat(window).isNotNull();
+
+		readPost(window).andExpect(jsonPath("$.title").value("Edited"));
+		readPost().andExpect(jsonPath("$.title").value("Original"));
+
+		// A cookie claiming a window far longer than configured is ignored.
+		readPost(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(Long.MAX_VALUE)))
+				.andExpect(jsonPath("$.title").value("Original"));
+	}
+
+	@Test
+	void failsOverToThePrimaryWhileTheReplicaIsDown() throws Exception {
+		new JdbcTemplate(primaryDataSource).update("update post set title = 'Only on primary' where id = ?", post.getId());
+
+		new JdbcTemplate(replica).execute("shutdown");
+		replicaPool.checkHealth();
+		assertThat(replicaPool.healthyReplicas()).isZero();
+		readPost().andExpect(jsonPath("$.title").value("Only on primary"));
+
+		replica.destroy();
+		replica = new SingleConnectionDataSource(REPLICA_URL, "sa", "", true);
+		replicate();
+		new JdbcTemplate(primaryDataSource).update("update post set title = 'Newer on primary' where id = ?", post.getId());
+		replicaPool.checkHealth();
+		assertThat(replicaPool.healthyReplicas()).isOne();
+		readPost().andExpect(jsonPath("$.title").value("Only on primary"));
+	}
+
+	private ResultActions readPost(Cookie... cookies) throws Exception {
+		// Cold reads, so each one reaches a database rather than the second-level cache.
+		entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+		return mockMvc.perform(cookies.length == 0 ? get("/api/posts/" + post.getId())
+				: get("/api/posts/" + post.getId()).cookie(cookies))
+				.andExpect(status().isOk());
+	}
+
+	/**
+	 * Replaces the replica's contents with a copy of the primary's.
+	 */
+	private void replicate() {
+		new JdbcTemplate(primaryDataSource).execute("script to '" + SNAPSHOT + "'");
+		JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+		replicaJdbc.execute("drop all objects");
+		replicaJdbc.execute("runscript from '" + SNAPSHOT + "'");
+	}
+}
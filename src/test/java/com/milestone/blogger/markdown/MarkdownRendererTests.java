@@ -0,0 +1,36 @@
+package com.milestone.blogger.markdown;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class MarkdownRendererTests {
+
+	private final MarkdownRenderer renderer = new MarkdownRenderer(1);
+
+	@Test
+	void rendersMarkdownAndPlainText() {
+		RenderedContent content = renderer.render("# Title\n\nSome *emphasis* and [a link](https://example.com).");
+
+		assertThat(content.getHtml()).contains("<h1>Title</h1>", "<em>emphasis</em>",
+				"<a rel=\"nofollow\" href=\"https://example.com\">a link</a>");
+		assertThat(content.getText()).isEqualTo("Title: Some emphasis and \"a link\" (https://example.com).");
+		assertThat(content.getExcerpt()).isEqualTo(content.getText());
+	}
+
+	@Test
+	void escapesRawHtmlAndDropsUnsafeUrls() {
+		RenderedContent content = renderer.render("<script>alert(1)</script>\n\n[click](javascript:alert(1)) ![x](data:image/png;base64,AA)");
+
+		assertThat(content.getHtml()).doesNotContain("<script>", "javascript:", "data:").contains("&lt;script&gt;");
+	}
+
+	@Test
+	void cachesRenderingsByContentHash() {
+		RenderedContent first = renderer.render("Same **source**");
+
+		assertThat(renderer.render("Same **source**")).isSameAs(first);
+		assertThat(first.getHash()).isEqualTo(MarkdownRenderer.hash("Same **source**")).hasSize(64);
+		assertThat(renderer.render("Other source")).isNotSameAs(first);
+	}
+}
@@ -0,0 +1,35 @@
+package com.milestone.blogger.querybudget;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's DataSource in a proxy reporting to the {@link QueryRecorder}.
+ * Import it alongside {@link QueryBudgetExtension}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class QueryBudgetConfiguration {
+
+	@Bean
+	static BeanPostProcessor queryRecordingDataSourcePostProcessor() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (!(bean instanceof DataSource dataSource)) {
+					return bean;
+				}
+				return ProxyDataSourceBuilder.create(dataSource)
+						.name(beanName)
+						.listener(QueryRecorder.get())
+						.methodListener(QueryRecorder.get())
+						.proxyResultSet()
+						.build();
+			}
+		};
+	}
+}
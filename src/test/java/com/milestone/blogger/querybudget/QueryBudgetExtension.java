@@ -0,0 +1,60 @@
+package com.milestone.blogger.querybudget;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+import java.util.List;
+
+/**
+ * Gives tests a {@link QueryRecorder} for asserting per-request SQL budgets,
+ * and fails any test whose captured requests read a whole table without a
+ * WHERE clause or row limit.
+ * <p>
+ * The test's Spring context must import {@link QueryBudgetConfiguration} so
+ * the DataSource reports to the recorder:
+ *
+ * <pre>
+ * &#64;SpringBootTest
+ * &#64;ExtendWith(QueryBudgetExtension.class)
+ * &#64;Import(QueryBudgetConfiguration.class)
+ * class SomeTests {
+ *
+ * 	&#64;Test
+ * 	void homepage(QueryRecorder queries) throws Exception {
+ * 		QueryLog log = queries.capture(() -&gt; mockMvc.perform(get("/")));
+ * 		assertThatQueries(log).hasAtMostStatements(2);
+ * 	}
+ * }
+ * </pre>
+ */
+public class QueryBudgetExtension implements BeforeEachCallback, AfterEachCallback, ParameterResolver {
+
+	@Override
+	public void beforeEach(ExtensionContext context) {
+		QueryRecorder.get().reset();
+	}
+
+	@Override
+	public void afterEach(ExtensionContext context) {
+		List<String> unbounded = QueryRecorder.get().unboundedSelects();
+		QueryRecorder.get().reset();
+		if (!unbounded.isEmpty() && context.getExecutionException().isEmpty()) {
+			throw new AssertionError("Unbounded queries (no WHERE or LIMIT) issued by "
+					+ context.getDisplayName() + ":" + System.lineSeparator() + "  "
+					+ String.join(System.lineSeparator() + "  ", unbounded));
+		}
+	}
+
+	@Override
+	public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+		return parameterContext.getParameter().getType() == QueryRecorder.class;
+	}
+
+	@Override
+	public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+		return QueryRecorder.get();
+	}
+}
@@ -0,0 +1,116 @@
+package com.milestone.blogger.querybudget;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * The SQL statements and result set rows recorded while one request ran.
+ * Filled only from the thread that ran the request.
+ */
+public class QueryLog {
+
+	private static final Pattern WRITE = Pattern.compile("^(insert|update|delete|merge)\\b");
+	private static final Pattern FROM = Pattern.compile("\\bfrom\\b");
+	private static final Pattern WHERE = Pattern.compile("\\bwhere\\b");
+	private static final Pattern BOUNDED = Pattern.compile("\\blimit\\b|\\bfetch\\s+(first|next)\\b");
+	// count(...), max(...) and friends return one row however large the table is.
+	private static final Pattern AGGREGATE_ONLY = Pattern.compile(
+			"^select\\s+((count|min|max|sum|avg)\\([^)]*\\)\\s*,?\\s*)+from\\b");
+
+	private final List<String> statements = new ArrayList<>();
+	private long rows;
+
+	void addStatement(String sql) {
+		statements.add(sql.strip());
+	}
+
+	void addRow() {
+		rows++;
+	}
+
+	/**
+	 * @return every statement executed, in order. A JDBC batch counts once.
+	 */
+	public List<String> getStatements() {
+		return List.copyOf(statements);
+	}
+
+	/**
+	 * @return the rows read from all result sets.
+	 */
+	public long getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return the SELECT statements.
+	 */
+	public List<String> getSelects() {
+		return getStatements().stream().filter(QueryLog::isSelect).toList();
+	}
+
+	/**
+	 * @return the INSERT, UPDATE and DELETE statements.
+	 */
+	public List<String> getWrites() {
+		return getStatements().stream().filter(QueryLog::isWrite).toList();
+	}
+
+	/**
+	 * @return the SELECT statements issued before the first write, or none if nothing was written.
+	 */
+	public List<String> getReadsBeforeFirstWrite() {
+		List<String> reads = new ArrayList<>();
+		for (String sql : getStatements()) {
+			if (isWrite(sql)) {
+				return reads;
+			}
+			if (isSelect(sql)) {
+				reads.add(sql);
+			}
+		}
+		return List.of();
+	}
+
+	/**
+	 * Finds table reads with neither a WHERE clause nor a row limit, which is
+	 * what an unpaged {@code findAll()} produces. Their cost grows with the table.
+	 *
+	 * @return the unbounded SELECT statements.
+	 */
+	public List<String> getUnboundedSelects() {
+		return getSelects().stream().filter(QueryLog::isUnbounded).toList();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder description = new StringBuilder();
+		description.append(statements.size()).append(" statements, ").append(rows).append(" rows");
+		for (String sql : getStatements()) {
+			description.append(System.lineSeparator()).append("  ").append(sql);
+		}
+		return description.toString();
+	}
+
+	static boolean isUnbounded(String sql) {
+		String normalized = normalize(sql);
+		return FROM.matcher(normalized).find()
+				&& !WHERE.matcher(normalized).find()
+				&& !BOUNDED.matcher(normalized).find()
+				&& !AGGREGATE_ONLY.matcher(normalized).find();
+	}
+
+	private static boolean isSelect(String sql) {
+		return normalize(sql).startsWith("select");
+	}
+
+	private static boolean isWrite(String sql) {
+		return WRITE.matcher(normalize(sql)).find();
+	}
+
+	private static String normalize(String sql) {
+		return sql.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,73 @@
+package com.milestone.blogger.querybudget;
+
+import org.assertj.core.api.AbstractAssert;
+
+/**
+ * AssertJ assertions for SQL budgets. Failures list the statements that ran.
+ */
+public class QueryLogAssert extends AbstractAssert<QueryLogAssert, QueryLog> {
+
+	private QueryLogAssert(QueryLog actual) {
+		super(actual, QueryLogAssert.class);
+	}
+
+	public static QueryLogAssert assertThatQueries(QueryLog log) {
+		return new QueryLogAssert(log);
+	}
+
+	public QueryLogAssert hasAtMostStatements(int max) {
+		isNotNull();
+		if (actual.getStatements().size() > max) {
+			failWithMessage("Expected at most %d statements but got %s", max, actual);
+		}
+		return this;
+	}
+
+	public QueryLogAssert hasAtMostSelects(int max) {
+		isNotNull();
+		if (actual.getSelects().size() > max) {
+			failWithMessage("Expected at most %d selects but got %s", max, actual);
+		}
+		return this;
+	}
+
+	public QueryLogAssert hasAtMostRows(long max) {
+		isNotNull();
+		if (actual.getRows() > max) {
+			failWithMessage("Expected at most %d rows but got %s", max, actual);
+		}
+		return this;
+	}
+
+	public QueryLogAssert hasNoStatements() {
+		return hasAtMostStatements(0);
+	}
+
+	public QueryLogAssert hasNoWrites() {
+		isNotNull();
+		if (!actual.getWrites().isEmpty()) {
+			failWithMessage("Expected no writes but got %s", actual);
+		}
+		return this;
+	}
+
+	public QueryLogAssert hasNoReadBeforeWrite() {
+		isNotNull();
+		if (!actual.getReadsBeforeFirstWrite().isEmpty()) {
+			failWithMessage("Expected the first statement to be the write but got %s", actual);
+		}
+		return this;
+	}
+
+	/**
+	 * Checks that two runs of the same request cost the same, for example
+	 * before and after the table grows.
+	 */
+	public QueryLogAssert hasSameStatementCountAs(QueryLog other) {
+		isNotNull();
+		if (actual.getStatements().size() != other.getStatements().size()) {
+			failWithMessage("Expected the same statement count as%n%s%nbut got %s", other, actual);
+		}
+		return this;
+	}
+}
@@ -0,0 +1,106 @@
+package com.milestone.blogger.querybudget;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL each captured request runs, as seen by the proxied
+ * DataSource from {@link QueryBudgetConfiguration}.
+ * <p>
+ * Only statements from the thread running {@link #capture} are recorded, so
+ * background work such as the search indexer doesn't leak into a budget.
+ * Rows are counted from {@link ResultSet#next()} calls that returned true.
+ */
+public class QueryRecorder implements QueryExecutionListener, MethodExecutionListener {
+
+	private static final QueryRecorder INSTANCE = new QueryRecorder();
+
+	private final ThreadLocal<QueryLog> current = new ThreadLocal<>();
+	// Every log captured by the running test, checked for unbounded reads once it finishes.
+	private final List<QueryLog> captured = new ArrayList<>();
+
+	private QueryRecorder() {
+	}
+
+	/**
+	 * @return the recorder shared by the DataSource proxy and {@link QueryBudgetExtension}.
+	 */
+	public static QueryRecorder get() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Runs a request and records the SQL it issues.
+	 *
+	 * @param request the request, typically a {@code mockMvc.perform(...)} call.
+	 * @return the statements and rows recorded.
+	 * @throws Exception if the request throws.
+	 */
+	public QueryLog capture(Request request) throws Exception {
+		QueryLog log = new QueryLog();
+		synchronized (captured) {
+			captured.add(log);
+		}
+		current.set(log);
+		try {
+			request.perform();
+		} finally {
+			current.remove();
+		}
+		return log;
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		QueryLog log = current.get();
+		if (log != null) {
+			queryInfoList.forEach(query -> log.addStatement(query.getQuery()));
+		}
+	}
+
+	@Override
+	public void beforeMethod(MethodExecutionContext executionContext) {
+	}
+
+	@Override
+	public void afterMethod(MethodExecutionContext executionContext) {
+		QueryLog log = current.get();
+		if (log != null && executionContext.getTarget() instanceof ResultSet
+				&& "next".equals(executionContext.getMethod().getName())
+				&& Boolean.TRUE.equals(executionContext.getResult())) {
+			log.addRow();
+		}
+	}
+
+	void reset() {
+		synchronized (captured) {
+			captured.clear();
+		}
+	}
+
+	List<String> unboundedSelects() {
+		synchronized (captured) {
+			return captured.stream().flatMap(log -> log.getUnboundedSelects().stream()).toList();
+		}
+	}
+
+	/**
+	 * A request whose SQL is recorded.
+	 */
+	@FunctionalInterface
+	public interface Request {
+
+		void perform() throws Exception;
+	}
+}
@@ -0,0 +1,67 @@
+package com.milestone.blogger.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+class InvertedIndexTests {
+
+	@Test
+	void postingsSurviveOutOfOrderAddsAndRemoves() {
+		PostingsList list = new PostingsList();
+		list.add(10, 1);
+		list.add(300, 2);
+		list.add(5, 3);
+		list.add(300, 4);
+		list.remove(10);
+
+		List<String> entries = new ArrayList<>();
+		list.forEach((docId, tf) -> entries.add(docId + ":" + tf));
+		assertThat(entries).containsExactly("5:3", "300:4");
+		assertThat(list.documentCount()).isEqualTo(2);
+	}
+
+	@Test
+	void ranksTitleMatchesAboveContentMatches() {
+		InvertedIndex index = new InvertedIndex();
+		index.put(IndexedDocument.of(1, 0, "Cooking pasta", "A weeknight dinner."));
+		index.put(IndexedDocument.of(2, 0, "Weekend notes", "We went hiking and then cooked pasta."));
+		index.put(IndexedDocument.of(3, 0, "Garden", "Tomatoes and basil."));
+
+		List<SearchHit> hits = index.search(Tokenizer.tokenize("pasta"), 10);
+		assertThat(hits).extracting(SearchHit::getPostId).containsExactly(1, 2);
+	}
+
+	@Test
+	void replacingAndRemovingDocumentsUpdatesResults() {
+		InvertedIndex index = new InvertedIndex();
+		index.put(IndexedDocument.of(1, 0, "Old title", "alpha"));
+		index.put(IndexedDocument.of(1, 0, "New title", "beta"));
+		assertThat(index.search(Tokenizer.tokenize("alpha"), 10)).isEmpty();
+		assertThat(index.search(Tokenizer.tokenize("beta"), 10)).hasSize(1);
+
+		index.remove(1);
+		assertThat(index.size()).isZero();
+		assertThat(index.termCount()).isZero();
+	}
+
+	@Test
+	void snapshotRoundTrips(@TempDir Path dir) throws Exception {
+		InvertedIndex index = new InvertedIndex();
+		index.put(IndexedDocument.of(7, 1234L, "Ünïcode title", "content with ünïcode"));
+		Path file = dir.resolve("index.bin");
+
+		IndexSnapshot.write(file, index.documents());
+		List<IndexedDocument> restored = IndexSnapshot.read(file);
+
+		assertThat(restored).hasSize(1);
+		assertThat(restored.get(0).id()).isEqualTo(7);
+		assertThat(restored.get(0).updatedAt()).isEqualTo(1234L);
+		assertThat(restored.get(0).terms()).containsExactly("ünïcode", "title", "content");
+	}
+}
@@ -0,0 +1,46 @@
+package com.milestone.blogger.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.List;
+
+class SignedTokenCodecTests {
+
+	private static final String OLD_KEY = "k1:" + Base64.getEncoder().encodeToString(new byte[32]);
+	private static final String NEW_KEY = "k2:" + Base64.getEncoder().encodeToString("a different 32 byte secret value".getBytes());
+
+	@Test
+	void verifiesItsOwnTokensAndRejectsTamperedOnes() {
+		SignedTokenCodec codec = new SignedTokenCodec(List.of(OLD_KEY));
+		String token = codec.sign("42:user:1700000000:abc");
+
+		assertThat(codec.verify(token)).isEqualTo("42:user:1700000000:abc");
+
+		String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString("1:admin:1700000000:abc".getBytes());
+		String[] parts = token.split("\\.");
+		assertThat(codec.verify(parts[0] + "." + forgedPayload + "." + parts[2])).isNull();
+		assertThat(codec.verify(token.substring(0, token.length() - 2))).isNull();
+		assertThat(codec.verify("not a token")).isNull();
+	}
+
+	@Test
+	void rotationKeepsOldTokensValidUntilTheKeyIsRemoved() {
+		String oldToken = new SignedTokenCodec(List.of(OLD_KEY)).sign("payload");
+
+		SignedTokenCodec rotated = new SignedTokenCodec(List.of(NEW_KEY, OLD_KEY));
+		assertThat(rotated.verify(oldToken)).isEqualTo("payload");
+		assertThat(rotated.sign("payload")).startsWith("k2.");
+
+		assertThat(new SignedTokenCodec(List.of(NEW_KEY)).verify(oldToken)).isNull();
+	}
+
+	@Test
+	void rejectsShortKeys() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new SignedTokenCodec(List.of("k1:" + Base64.getEncoder().encodeToString(new byte[16]))));
+	}
+}
@@ -0,0 +1,36 @@
+package com.milestone.blogger.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTests {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void allowsBurstUpToCapacityThenRejects() {
+		TokenBucket bucket = new TokenBucket(3, SECOND, 0);
+
+		assertThat(bucket.tryConsume(0)).isZero();
+		assertThat(bucket.tryConsume(0)).isZero();
+		assertThat(bucket.tryConsume(0)).isZero();
+		assertThat(bucket.tryConsume(0)).isEqualTo(SECOND);
+	}
+
+	@Test
+	void refillsOneTokenPerPeriodUpToCapacity() {
+		TokenBucket bucket = new TokenBucket(2, SECOND, 0);
+		bucket.tryConsume(0);
+		bucket.tryConsume(0);
+
+		assertThat(bucket.tryConsume(SECOND / 2)).isEqualTo(SECOND / 2);
+		assertThat(bucket.tryConsume(SECOND)).isZero();
+
+		// A long idle period refills only to capacity.
+		long later = 100 * SECOND;
+		assertThat(bucket.tryConsume(later)).isZero();
+		assertThat(bucket.tryConsume(later)).isZero();
+		assertThat(bucket.tryConsume(later)).isPositive();
+	}
+}
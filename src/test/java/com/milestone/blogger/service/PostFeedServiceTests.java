@@ -0,0 +1,98 @@
+package com.milestone.blogger.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.milestone.blogger.config.HibernateCacheConfig;
+import com.milestone.blogger.model.Post;
+import com.milestone.blogger.model.PostSummary;
+import com.milestone.blogger.model.User;
+import com.milestone.blogger.pagination.PostPage;
+import com.milestone.blogger.repository.PostRepository;
+import com.milestone.blogger.repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Date;
+import java.util.List;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ PostFeedService.class, HibernateCacheConfig.class })
+@TestPropertySource(properties = "blogger.feed.page-size=2")
+class PostFeedServiceTests {
+
+	@Autowired
+	private PostFeedService postFeedService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@BeforeEach
+	void seedPosts() {
+		User user = new User();
+		user.setUsername("author");
+		user.setEmail("author@example.com");
+		user.setPasswordHash("hash");
+		userRepository.save(user);
+
+		// Two posts share a timestamp so the id tie-breaker is exercised.
+		Date shared = new Date(2_000_000L);
+		savePost(user, "first", new Date(1_000_000L));
+		savePost(user, "second", shared);
+		savePost(user, "third", shared);
+		savePost(user, "fourth", new Date(3_000_000L));
+		savePost(user, "fifth", new Date(4_000_000L));
+	}
+
+	@Test
+	void pagesForwardAndBackWithoutGapsOrDuplicates() {
+		PostPage<PostSummary> first = postFeedService.getPage(null, null);
+		assertThat(titles(first)).containsExactly("fifth", "fourth");
+		assertThat(first.getPreviousCursor()).isNull();
+
+		PostPage<PostSummary> second = postFeedService.getPage(first.getNextCursor(), null);
+		assertThat(titles(second)).containsExactly("third", "second");
+
+		PostPage<PostSummary> third = postFeedService.getPage(second.getNextCursor(), null);
+		assertThat(titles(third)).containsExactly("first");
+		assertThat(third.getNextCursor()).isNull();
+
+		PostPage<PostSummary> back = postFeedService.getPage(null, third.getPreviousCursor());
+		assertThat(titles(back)).containsExactly("third", "second");
+
+		PostPage<PostSummary> backToStart = postFeedService.getPage(null, back.getPreviousCursor());
+		assertThat(titles(backToStart)).containsExactly("fifth", "fourth");
+		assertThat(backToStart.getPreviousCursor()).isNull();
+	}
+
+	@Test
+	void malformedCursorFallsBackToFirstPage() {
+		assertThat(titles(postFeedService.getPage("not-a-cursor", null))).containsExactly("fifth", "fourth");
+	}
+
+	private void savePost(User user, String title, Date updatedAt) {
+		Post post = new Post();
+		post.setUser(user);
+		post.setTitle(title);
+		post.setContent(title + " content");
+		post.setExcerpt(title + " content");
+		post.setCreatedAt(updatedAt);
+		post.setUpdatedAt(updatedAt);
+		postRepository.save(post);
+	}
+
+	private static List<String> titles(PostPage<PostSummary> page) {
+		return page.getItems().stream().map(PostSummary::getTitle).toList();
+	}
+}
@@ -0,0 +1,66 @@
+package com.milestone.blogger.timeline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PostIdRingTests {
+
+	@Test
+	void keepsTheNewestPostsInOrderAcrossWraparound() {
+		PostIdRing ring = new PostIdRing(4);
+		for (int id = 1; id <= 6; id++) {
+			ring.add(key(id, id));
+		}
+		// Out of order and already present.
+		ring.add(key(4, 4));
+		ring.add(key(2, 2));
+
+		assertThat(ids(ring.newestBefore(null, 10))).containsExactly(6, 5, 4, 3);
+		assertThat(ids(ring.newestBefore(key(5, 5), 2))).containsExactly(4, 3);
+		assertThat(ring.isComplete()).isFalse();
+	}
+
+	@Test
+	void insertsALatePostBetweenNewerAndOlderOnes() {
+		PostIdRing ring = PostIdRing.of(4, List.of(key(9, 9), key(5, 5), key(1, 1)));
+		ring.add(key(7, 7));
+
+		assertThat(ids(ring.newestBefore(null, 4))).containsExactly(9, 7, 5, 1);
+		assertThat(ring.isComplete()).isTrue();
+
+		ring.add(key(8, 8));
+		assertThat(ids(ring.newestBefore(null, 4))).containsExactly(9, 8, 7, 5);
+		assertThat(ring.isComplete()).isFalse();
+	}
+
+	@Test
+	void ordersByCreationTimeBeforeId() {
+		// An imported post: a high ID, created long ago.
+		PostIdRing ring = PostIdRing.of(4, List.of(key(30, 3), key(20, 2)));
+		ring.add(key(10, 50));
+		// Two posts in the same millisecond, from different ID blocks.
+		ring.add(key(40, 4));
+		ring.add(key(40, 60));
+
+		assertThat(ids(ring.newestBefore(null, 4))).containsExactly(60, 4, 3, 2);
+		assertThat(ids(ring.newestBefore(key(40, 4), 4))).containsExactly(3, 2);
+	}
+
+	@Test
+	void aRingBuiltFromAFullQueryMayBeMissingOlderPosts() {
+		assertThat(PostIdRing.of(3, List.of(key(3, 3), key(2, 2))).isComplete()).isTrue();
+		assertThat(PostIdRing.of(3, List.of(key(3, 3), key(2, 2), key(1, 1))).isComplete()).isFalse();
+	}
+
+	private static PostKey key(long createdAt, int id) {
+		return new PostKey(createdAt, id);
+	}
+
+	private static int[] ids(PostKey[] keys) {
+		return Arrays.stream(keys).mapToInt(PostKey::getId).toArray();
+	}
+}
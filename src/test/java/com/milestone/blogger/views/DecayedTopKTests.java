@@ -0,0 +1,48 @@
+package com.milestone.blogger.views;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class DecayedTopKTests {
+
+	private static final long DAY = Duration.ofDays(1).toMillis();
+
+	@Test
+	void recentViewsOutweighOlderOnesByHalfLife() {
+		DecayedTopK scores = new DecayedTopK(Duration.ofDays(1), Duration.ofDays(7), 0);
+		scores.add(1, 30, 0);
+		scores.add(2, 10, 2 * DAY);
+		scores.add(3, 5, 2 * DAY);
+
+		// Post 1's 30 views are two half-lives old, worth 7.5 today.
+		assertThat(scores.top(3, 2 * DAY)).containsExactly(2, 1, 3);
+		assertThat(scores.top(2, 2 * DAY)).containsExactly(2, 1);
+	}
+
+	@Test
+	void dropsKeysUnseenForTheWindow() {
+		DecayedTopK scores = new DecayedTopK(Duration.ofDays(1), Duration.ofDays(7), 0);
+		scores.add(1, 1000, 0);
+		scores.add(2, 1, 5 * DAY);
+
+		assertThat(scores.top(5, 7 * DAY)).containsExactly(1, 2);
+		assertThat(scores.top(5, 7 * DAY + 1)).containsExactly(2);
+		assertThat(scores.size()).isEqualTo(1);
+	}
+
+	@Test
+	void keepsOrderAcrossLandmarkMoves() {
+		DecayedTopK scores = new DecayedTopK(Duration.ofHours(1), Duration.ofDays(365), 0);
+		scores.add(1, 10, 0);
+		// Over 200 half-lives later, forcing the landmark forward.
+		long later = 300 * Duration.ofHours(1).toMillis();
+		scores.add(2, 1, later);
+		scores.add(3, 1, later + Duration.ofHours(1).toMillis());
+		scores.add(2, 1, later + Duration.ofHours(1).toMillis());
+
+		assertThat(scores.top(3, later)).containsExactly(2, 3, 1);
+	}
+}